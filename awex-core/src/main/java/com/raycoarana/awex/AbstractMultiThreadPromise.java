@@ -3,38 +3,262 @@ package com.raycoarana.awex;
 import com.raycoarana.awex.callbacks.CancelCallback;
 import com.raycoarana.awex.callbacks.DoneCallback;
 import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.exceptions.ChunkFailedException;
+import com.raycoarana.awex.exceptions.PartialResultException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 class AbstractMultiThreadPromise<T, U, Progress> extends AbstractSingleThreadPromise<T, U, Progress> {
 
+    // time a dynamic chunk should take to process, long enough to make claiming it negligible
+    static final long TARGET_CHUNK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final Comparator<ChunkFailedException> CHUNK_ORDER = new Comparator<ChunkFailedException>() {
+        @Override
+        public int compare(ChunkFailedException lhs, ChunkFailedException rhs) {
+            return lhs.getFromIndex() < rhs.getFromIndex() ? -1 : (lhs.getFromIndex() == rhs.getFromIndex() ? 0 : 1);
+        }
+    };
+
+    private final int mFlags;
+    private final List<ChunkFailedException> mFailures = Collections.synchronizedList(new ArrayList<ChunkFailedException>());
+    private volatile List<Task> mChunkTasks;
+    private volatile Promise<?, Progress> mAfterAllChunks;
+    private final AtomicReference<Task> mFailedChunkTask = new AtomicReference<>();
+
     public AbstractMultiThreadPromise(Awex awex, CollectionPromise<T, Progress> promise, Apply<T, U> filter) {
+        this(awex, promise, filter, PARALLEL_DEFAULT);
+    }
+
+    public AbstractMultiThreadPromise(Awex awex, CollectionPromise<T, Progress> promise, Apply<T, U> filter, int flags) {
         super(awex, promise, filter);
+        mFlags = flags;
     }
 
     @Override
     protected void apply(Collection items) {
+        if (items.isEmpty()) {
+            resolve(new ArrayList<U>());
+            return;
+        }
+
         int numberOfThreads = mAwex.getNumberOfThreads();
+        if ((mFlags & PARALLEL_DYNAMIC_CHUNKS) != 0) {
+            applyInDynamicChunks(toRandomAccessList(items), numberOfThreads);
+            return;
+        }
+
         Collection<List> itemsGroupedByThread = split(items, numberOfThreads);
-        Collection<Promise<Collection<U>, Progress>> promises = launchAll(itemsGroupedByThread);
+        List<Task> tasks = new ArrayList<>(itemsGroupedByThread.size());
+        Collection<Promise<Collection<U>, Progress>> promises = launchAll(itemsGroupedByThread, tasks);
         AfterAllPromise<Collection<U>, Progress> afterAll = new AfterAllPromise<>(mAwex, promises);
         afterAll.done(new DoneCallback<MultipleResult<Collection<U>, Progress>>() {
             @Override
             public void onDone(MultipleResult<Collection<U>, Progress> result) {
-                Collection<U> resultItems = new ArrayList<>();
-                for (int i = 0; i < result.getCount(); i++) {
-                    Collection<U> items = result.getResultOrDefault(i, Collections.<U>emptyList());
-                    resultItems.addAll(items);
+                complete(merge(result));
+            }
+        });
+        propagateFailAndCancel(afterAll, tasks);
+    }
+
+    /**
+     * Applies the chain to a range of items. When an item fails, the range stops and
+     * contributes no results. In fail fast mode, it also stops as soon as this promise is not
+     * pending anymore.
+     *
+     * @param from index of the first item of the range in the whole collection
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<U> applyToRange(List range, int from, Task task) {
+        boolean failFast = (mFlags & PARALLEL_FAIL_FAST) != 0;
+        int size = range.size();
+        Collection<U> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (failFast && getState() != STATE_PENDING) {
+                return Collections.emptyList();
+            }
+            Object item = range.get(i);
+            try {
+                Object result = applyToItem(item);
+                if (result != FILTERED_OUT) {
+                    results.add((U) result);
                 }
-                resolve(resultItems);
+            } catch (RuntimeException ex) {
+                onChunkFailed(new ChunkFailedException(from, from + size, from + i, item, ex), task);
+                return Collections.emptyList();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * In fail fast mode, the first failure rejects this promise and cancels the tasks of the other
+     * chunks interrupting them. Otherwise every failure is kept to reject this promise with the
+     * partial result once all chunks are done.
+     */
+    private void onChunkFailed(ChunkFailedException failure, Task task) {
+        if ((mFlags & PARALLEL_FAIL_FAST) == 0) {
+            mFailures.add(failure);
+        } else {
+            mFailedChunkTask.compareAndSet(null, task);
+            if (tryReject(failure)) {
+                cancelChunkTasks();
             }
-        }).fail(new FailCallback() {
+        }
+    }
+
+    /**
+     * Interrupts the tasks of the chunks that are still running, but the one that failed, and
+     * cancels the ones that did not start yet. Nothing is done until all tasks are launched, it
+     * is called again then.
+     */
+    @SuppressWarnings("unchecked")
+    private void cancelChunkTasks() {
+        Promise<?, Progress> afterAll = mAfterAllChunks;
+        if (afterAll == null) {
+            return;
+        }
+        Task failedTask = mFailedChunkTask.get();
+        for (Task task : mChunkTasks) {
+            if (task != failedTask) {
+                mAwex.cancel(task, true);
+            }
+        }
+        afterAll.cancelTask();
+    }
+
+    private void complete(Collection<U> results) {
+        if (mFailures.isEmpty()) {
+            tryResolve(results);
+            return;
+        }
+
+        ChunkFailedException[] failures;
+        synchronized (mFailures) {
+            failures = mFailures.toArray(new ChunkFailedException[mFailures.size()]);
+        }
+        Arrays.sort(failures, CHUNK_ORDER);
+        tryReject(new PartialResultException(results, failures));
+    }
+
+    /**
+     * Launches one worker per thread that claims chunks of items from a shared cursor until all
+     * of them are claimed, so a worker that finishes its chunk early takes more work instead of
+     * waiting for the others. Every item result is stored at the index of the item, so results
+     * are merged in order whatever worker processed them.
+     */
+    private void applyInDynamicChunks(final List items, int numberOfThreads) {
+        final int size = items.size();
+        final Object[] results = new Object[size];
+        Arrays.fill(results, FILTERED_OUT);
+        final AtomicInteger cursor = new AtomicInteger();
+        final int numberOfWorkers = Math.min(numberOfThreads, size);
+
+        List<Task> tasks = new ArrayList<>(numberOfWorkers);
+        List<Promise<Void, Progress>> promises = new ArrayList<>(numberOfWorkers);
+        for (int i = 0; i < numberOfWorkers; i++) {
+            Task<Void, Progress> task = new Task<Void, Progress>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    processChunks(items, results, cursor, numberOfWorkers, this);
+                    return null;
+                }
+            };
+            tasks.add(task);
+            promises.add(mAwex.submit(task));
+        }
+
+        AfterAllPromise<Void, Progress> afterAll = new AfterAllPromise<>(mAwex, promises);
+        afterAll.done(new DoneCallback<MultipleResult<Void, Progress>>() {
+            @Override
+            public void onDone(MultipleResult<Void, Progress> result) {
+                complete(merge(results));
+            }
+        });
+        propagateFailAndCancel(afterAll, tasks);
+    }
+
+    /**
+     * Claims and processes chunks until there are no more items. The first chunk has a single
+     * item, next ones are sized from the average time per item measured by this worker to take
+     * about TARGET_CHUNK_NANOS, but never more than half of the remaining items divided by the
+     * number of workers, so the last chunks get smaller and workers finish at the same time. A
+     * chunk that fails contributes no results, then the worker goes on with the next chunk unless
+     * the operation is fail fast.
+     */
+    private void processChunks(List items, Object[] results, AtomicInteger cursor, int numberOfWorkers, Task task) {
+        int size = results.length;
+        long elapsedNanos = 0;
+        long processedItems = 0;
+        int chunkSize = 1;
+        boolean failFast = (mFlags & PARALLEL_FAIL_FAST) != 0;
+        while (!failFast || getState() == STATE_PENDING) {
+            int from = cursor.getAndAdd(chunkSize);
+            if (from >= size) {
+                return;
+            }
+            int to = Math.min(from + chunkSize, size);
+
+            long startTime = System.nanoTime();
+            int i = from;
+            try {
+                for (; i < to; i++) {
+                    results[i] = applyToItem(items.get(i));
+                }
+            } catch (RuntimeException ex) {
+                Arrays.fill(results, from, to, FILTERED_OUT);
+                onChunkFailed(new ChunkFailedException(from, to, i, items.get(i), ex), task);
+            }
+            elapsedNanos += System.nanoTime() - startTime;
+            processedItems += to - from;
+
+            chunkSize = nextChunkSize(elapsedNanos, processedItems, size - to, numberOfWorkers);
+        }
+    }
+
+    static int nextChunkSize(long elapsedNanos, long processedItems, int remainingItems, int numberOfWorkers) {
+        long maxChunkSize = Math.max(1, remainingItems / (2L * numberOfWorkers));
+        long chunkSize = elapsedNanos > 0 ? TARGET_CHUNK_NANOS * processedItems / elapsedNanos : maxChunkSize;
+        return (int) Math.max(1, Math.min(chunkSize, maxChunkSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<U> merge(Object[] results) {
+        int size = 0;
+        for (Object result : results) {
+            if (result != FILTERED_OUT) {
+                size++;
+            }
+        }
+
+        Collection<U> resultItems = new ArrayList<>(size);
+        for (Object result : results) {
+            if (result != FILTERED_OUT) {
+                resultItems.add((U) result);
+            }
+        }
+        return resultItems;
+    }
+
+    private void propagateFailAndCancel(Promise<?, Progress> afterAll, List<Task> tasks) {
+        mChunkTasks = tasks;
+        mAfterAllChunks = afterAll;
+        if ((mFlags & PARALLEL_FAIL_FAST) != 0 && getState() != STATE_PENDING) {
+            cancelChunkTasks();
+        }
+        afterAll.fail(new FailCallback() {
             @Override
             public void onFail(Exception exception) {
-                AbstractMultiThreadPromise.this.reject(exception);
+                tryReject(exception);
             }
         }).cancel(new CancelCallback() {
             @Override
@@ -44,31 +268,63 @@ class AbstractMultiThreadPromise<T, U, Progress> extends AbstractSingleThreadPro
         });
     }
 
-    @SuppressWarnings("unchecked")
-    private Collection<List> split(Iterable items, int groups) {
-        List<List> listOfGroups = new ArrayList<>();
-        for (int i = 0; i < groups; i++) {
-            listOfGroups.add(new ArrayList());
+    /**
+     * Concatenates the results of every range in order into a result sized upfront
+     */
+    private Collection<U> merge(MultipleResult<Collection<U>, Progress> result) {
+        int size = 0;
+        for (int i = 0; i < result.getCount(); i++) {
+            size += result.getResultOrDefault(i, Collections.<U>emptyList()).size();
+        }
+
+        Collection<U> resultItems = new ArrayList<>(size);
+        for (int i = 0; i < result.getCount(); i++) {
+            resultItems.addAll(result.getResultOrDefault(i, Collections.<U>emptyList()));
         }
-        int itemIndex = 0;
-        for (Object item : items) {
-            listOfGroups.get(itemIndex % groups).add(item);
-            itemIndex++;
+        return resultItems;
+    }
+
+    /**
+     * Splits the items in contiguous ranges of the same size, one per group, so concatenating
+     * the results of the ranges keeps the order of the items. Ranges are views of the items when
+     * they are a random access list, any other collection is copied once to an array.
+     */
+    @SuppressWarnings("unchecked")
+    static List<List> split(Collection items, int groups) {
+        List list = toRandomAccessList(items);
+        int size = list.size();
+        int numberOfRanges = Math.max(1, Math.min(groups, size));
+        List<List> ranges = new ArrayList<>(numberOfRanges);
+        int from = 0;
+        for (int i = 1; i <= numberOfRanges; i++) {
+            int to = (int) ((long) size * i / numberOfRanges);
+            ranges.add(list.subList(from, to));
+            from = to;
         }
+        return ranges;
+    }
 
-        return listOfGroups;
+    private static List toRandomAccessList(Collection items) {
+        if (items instanceof List && items instanceof RandomAccess) {
+            return (List) items;
+        }
+        return Arrays.asList(items.toArray());
     }
 
-    private Collection<Promise<Collection<U>, Progress>> launchAll(Collection<List> itemsGroupedByThread) {
+    private Collection<Promise<Collection<U>, Progress>> launchAll(Collection<List> itemsGroupedByThread, List<Task> tasks) {
         List<Promise<Collection<U>, Progress>> allPromises = new ArrayList<>();
-        for (final Collection items : itemsGroupedByThread) {
-            Promise<Collection<U>, Progress> promise = mAwex.submit(new Task<Collection<U>, Progress>() {
+        int from = 0;
+        for (final List items : itemsGroupedByThread) {
+            final int rangeFrom = from;
+            Task<Collection<U>, Progress> task = new Task<Collection<U>, Progress>() {
                 @Override
                 protected Collection<U> run() throws InterruptedException {
-                    return AbstractMultiThreadPromise.super.applyToCollection(items);
+                    return applyToRange(items, rangeFrom, this);
                 }
-            });
-            allPromises.add(promise);
+            };
+            tasks.add(task);
+            allPromises.add(mAwex.submit(task));
+            from += items.size();
         }
         return allPromises;
     }
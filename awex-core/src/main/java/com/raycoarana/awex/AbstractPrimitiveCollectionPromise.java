@@ -0,0 +1,321 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.exceptions.AbsentValueException;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Base of the collection promises of primitive values. Items are kept in an array of the
+ * primitive type, so they are never boxed. Every operation runs over the whole array as soon as
+ * the previous promise is resolved, in the thread that resolves it or in parallel with one task
+ * of the pool per contiguous range of items.
+ *
+ * @param <A> type of the array of items
+ * @param <P> type of the progress
+ */
+abstract class AbstractPrimitiveCollectionPromise<A, P> extends AwexPromise<A, P> {
+
+    public AbstractPrimitiveCollectionPromise(Awex awex) {
+        super(awex);
+    }
+
+    protected abstract A newArray(int length);
+
+    /**
+     * @return the item at the index boxed
+     */
+    protected abstract Object box(A items, int index);
+
+    /**
+     * Applies an operation to the items of a range of an array
+     */
+    interface RangeOperation<A, B> {
+
+        /**
+         * @param source items
+         * @param from   first item of the range
+         * @param to     end of the range, exclusive
+         * @param target array where results are written
+         * @param offset index of target where the first result is written
+         * @return number of results written
+         */
+        int apply(A source, int from, int to, B target, int offset);
+    }
+
+    /**
+     * Reduces the items of a range of an array, ranges are never empty
+     */
+    interface RangeReduction<A, R> {
+
+        R reduce(A source, int from, int to);
+
+        R combine(R v1, R v2);
+    }
+
+    /**
+     * Writes an item of the object form to an array
+     */
+    interface ItemWriter<A> {
+
+        void write(A target, int index, Object item);
+    }
+
+    /**
+     * Resolves the target promise with the results of the operation over the items of this one.
+     *
+     * @param keepsLength true if the operation writes one result per item, so every range
+     *                    writes directly to its place in the result array
+     */
+    <B, R extends AbstractPrimitiveCollectionPromise<B, P>> R then(final R target, final RangeOperation<A, B> operation,
+                                                                 final boolean keepsLength, final boolean parallel) {
+        done(new DoneCallback<A>() {
+            @Override
+            public void onDone(A items) {
+                int length = Array.getLength(items);
+                if (parallel && mAwex.getNumberOfThreads() > 1 && length > 1) {
+                    applyInParallel(items, length, target, operation, keepsLength);
+                    return;
+                }
+
+                try {
+                    B results = target.newArray(length);
+                    int count = operation.apply(items, 0, length, results, 0);
+                    target.tryResolve(count == length ? results : target.copyOf(results, count));
+                } catch (RuntimeException ex) {
+                    target.tryReject(ex);
+                }
+            }
+        });
+        propagateFailAndCancel(target);
+        return target;
+    }
+
+    private <B> void applyInParallel(final A items, final int length, final AbstractPrimitiveCollectionPromise<B, P> target,
+                                     final RangeOperation<A, B> operation, final boolean keepsLength) {
+        final int numberOfRanges = Math.min(mAwex.getNumberOfThreads(), length);
+        final B sharedResults = keepsLength ? target.newArray(length) : null;
+        final Object[] rangeResults = new Object[numberOfRanges];
+        final int[] rangeCounts = new int[numberOfRanges];
+
+        List<Promise<Void, P>> promises = new ArrayList<>(numberOfRanges);
+        for (int i = 0; i < numberOfRanges; i++) {
+            final int range = i;
+            final int from = (int) ((long) length * i / numberOfRanges);
+            final int to = (int) ((long) length * (i + 1) / numberOfRanges);
+            promises.add(launch(target, new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    if (keepsLength) {
+                        operation.apply(items, from, to, sharedResults, from);
+                    } else {
+                        B results = target.newArray(to - from);
+                        rangeCounts[range] = operation.apply(items, from, to, results, 0);
+                        rangeResults[range] = results;
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        afterAll(promises, target, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onDone(MultipleResult<Void, P> result) {
+                if (target.getState() != STATE_PENDING) {
+                    return;
+                }
+                if (keepsLength) {
+                    target.tryResolve(sharedResults);
+                    return;
+                }
+
+                int count = 0;
+                for (int rangeCount : rangeCounts) {
+                    count += rangeCount;
+                }
+                B results = target.newArray(count);
+                int offset = 0;
+                for (int i = 0; i < numberOfRanges; i++) {
+                    System.arraycopy(rangeResults[i], 0, results, offset, rangeCounts[i]);
+                    offset += rangeCounts[i];
+                }
+                target.tryResolve(results);
+            }
+        });
+    }
+
+    /**
+     * Reduces the items to a single value, the promise is rejected with AbsentValueException if
+     * there are no items. In parallel every range is reduced in a task and partial results are
+     * combined in order once all of them are done.
+     */
+    <R> Promise<R, P> reduce(final RangeReduction<A, R> reduction, final boolean parallel) {
+        final AwexPromise<R, P> target = new AwexPromise<>(mAwex);
+        done(new DoneCallback<A>() {
+            @Override
+            public void onDone(A items) {
+                int length = Array.getLength(items);
+                if (length == 0) {
+                    target.tryReject(new AbsentValueException());
+                } else if (parallel && mAwex.getNumberOfThreads() > 1 && length > 1) {
+                    reduceInParallel(items, length, target, reduction);
+                } else {
+                    try {
+                        target.tryResolve(reduction.reduce(items, 0, length));
+                    } catch (RuntimeException ex) {
+                        target.tryReject(ex);
+                    }
+                }
+            }
+        });
+        propagateFailAndCancel(target);
+        return target;
+    }
+
+    private <R> void reduceInParallel(final A items, int length, final AwexPromise<R, P> target,
+                                      final RangeReduction<A, R> reduction) {
+        final int numberOfRanges = Math.min(mAwex.getNumberOfThreads(), length);
+        final Object[] partialResults = new Object[numberOfRanges];
+
+        List<Promise<Void, P>> promises = new ArrayList<>(numberOfRanges);
+        for (int i = 0; i < numberOfRanges; i++) {
+            final int range = i;
+            final int from = (int) ((long) length * i / numberOfRanges);
+            final int to = (int) ((long) length * (i + 1) / numberOfRanges);
+            promises.add(launch(target, new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    partialResults[range] = reduction.reduce(items, from, to);
+                    return null;
+                }
+            }));
+        }
+
+        afterAll(promises, target, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onDone(MultipleResult<Void, P> result) {
+                if (target.getState() != STATE_PENDING) {
+                    return;
+                }
+                try {
+                    R reduced = (R) partialResults[0];
+                    for (int i = 1; i < numberOfRanges; i++) {
+                        reduced = reduction.combine(reduced, (R) partialResults[i]);
+                    }
+                    target.tryResolve(reduced);
+                } catch (RuntimeException ex) {
+                    target.tryReject(ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolves this promise with the items of the collection promise written by the writer,
+     * applying first the operations of its chain that are not applied yet, in the same pass.
+     */
+    @SuppressWarnings("unchecked")
+    void unboxFrom(CollectionPromise<?, P> promise, final ItemWriter<A> writer) {
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        final Apply[] applyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                try {
+                    A results = newArray(items.size());
+                    int count = 0;
+                    for (Object item : items) {
+                        Object value = AbstractSingleThreadPromise.applyChain(applyChain, item);
+                        if (value != AbstractSingleThreadPromise.FILTERED_OUT) {
+                            writer.write(results, count++, value);
+                        }
+                    }
+                    tryResolve(count == items.size() ? results : copyOf(results, count));
+                } catch (RuntimeException ex) {
+                    tryReject(ex);
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                AbstractPrimitiveCollectionPromise.this.cancelTask();
+            }
+        });
+    }
+
+    /**
+     * @return a collection promise with the items of this promise boxed
+     */
+    @SuppressWarnings("unchecked")
+    <T> CollectionPromise<T, P> boxAll() {
+        final AwexCollectionPromise<T, P> target = new AwexCollectionPromise<>(mAwex);
+        done(new DoneCallback<A>() {
+            @Override
+            public void onDone(A items) {
+                int length = Array.getLength(items);
+                List<T> results = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    results.add((T) box(items, i));
+                }
+                target.tryResolve(results);
+            }
+        });
+        propagateFailAndCancel(target);
+        return target;
+    }
+
+    A copyOf(A items, int length) {
+        A copy = newArray(length);
+        System.arraycopy(items, 0, copy, 0, length);
+        return copy;
+    }
+
+    private Promise<Void, P> launch(final AwexPromise<?, P> target, Task<Void, P> task) {
+        Promise<Void, P> promise = mAwex.submit(task);
+        promise.fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                target.tryReject(exception);
+            }
+        });
+        return promise;
+    }
+
+    private void afterAll(List<Promise<Void, P>> promises, final AwexPromise<?, P> target,
+                          DoneCallback<MultipleResult<Void, P>> callback) {
+        new AfterAllPromise<>(mAwex, promises).done(callback).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                target.cancelTask();
+            }
+        });
+    }
+
+    private void propagateFailAndCancel(final AwexPromise<?, P> target) {
+        fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                target.tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                target.cancelTask();
+            }
+        });
+    }
+}
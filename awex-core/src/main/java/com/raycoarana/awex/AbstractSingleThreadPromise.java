@@ -3,13 +3,18 @@ package com.raycoarana.awex;
 import com.raycoarana.awex.callbacks.CancelCallback;
 import com.raycoarana.awex.callbacks.DoneCallback;
 import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.reactive.Publisher;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromise<U, P> {
 
+    protected static final Object FILTERED_OUT = new Object();
+
     protected final Apply[] mApplyChain;
     protected final Promise mChainStarterPromise;
     private boolean mIsAttach;
@@ -63,7 +68,7 @@ abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromis
 
     @Override
     public Promise<U, P> singleOrFirst() {
-        return super.singleOrFirst();
+        return findFirst();
     }
 
     @Override
@@ -72,6 +77,47 @@ abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromis
         return this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Publisher<U> toPublisher() {
+        synchronized (this) {
+            if (mIsAttach) {
+                return super.toPublisher();
+            }
+        }
+        return new CollectionPublisher<>(mChainStarterPromise, mApplyChain);
+    }
+
+    /**
+     * @return the operations to apply to the items of the chain starter promise, or null if the
+     * chain is already attached and the result of this promise should be used instead
+     */
+    synchronized Apply[] getPendingApplyChain() {
+        return mIsAttach ? null : mApplyChain;
+    }
+
+    /**
+     * @return the operations of the chain of the promise that are not applied yet, or null if
+     * its result should be used as it is
+     */
+    static Apply[] pendingApplyChainOf(Promise promise) {
+        if (promise instanceof AbstractSingleThreadPromise) {
+            return ((AbstractSingleThreadPromise) promise).getPendingApplyChain();
+        }
+        return null;
+    }
+
+    /**
+     * @return the promise whose result goes through the pending chain of the promise
+     * @see #pendingApplyChainOf(Promise)
+     */
+    static Promise chainStarterOf(Promise promise, Apply[] pendingApplyChain) {
+        if (pendingApplyChain != null) {
+            return ((AbstractSingleThreadPromise) promise).mChainStarterPromise;
+        }
+        return promise;
+    }
+
     @SuppressWarnings("unchecked")
     private void attachIfNecessary() {
         if (mIsAttach) {
@@ -82,6 +128,10 @@ abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromis
                 return;
             }
             mIsAttach = true;
+            if (mChainStarterPromise instanceof StreamingPromise) {
+                attachToStream((StreamingPromise) mChainStarterPromise);
+                return;
+            }
             mChainStarterPromise.done(new DoneCallback<Collection>() {
                 @Override
                 public void onDone(Collection result) {
@@ -91,6 +141,69 @@ abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromis
         }
     }
 
+    /**
+     * Applies the chain to every batch emitted by the streaming task in a task of the pool, as
+     * soon as the batch is emitted. The promise is resolved with the results of all batches, in
+     * emission order, once the producer has finished and every batch is processed.
+     */
+    @SuppressWarnings("unchecked")
+    private void attachToStream(StreamingPromise stream) {
+        final List<Collection<U>> results = new ArrayList<>();
+        // one for the producer plus one for every batch not processed yet
+        final AtomicInteger pending = new AtomicInteger(1);
+
+        stream.addBatchListener(new StreamingPromise.BatchListener() {
+            @Override
+            public void onBatch(final List batch) {
+                final int index;
+                synchronized (results) {
+                    index = results.size();
+                    results.add(null);
+                }
+                pending.incrementAndGet();
+
+                mAwex.submit(new Task<Void, Void>() {
+                    @Override
+                    protected Void run() throws InterruptedException {
+                        if (AbstractSingleThreadPromise.this.isPending()) {
+                            Collection<U> batchResults = applyToCollection(batch);
+                            synchronized (results) {
+                                results.set(index, batchResults);
+                            }
+                            if (pending.decrementAndGet() == 0) {
+                                resolveStream(results);
+                            }
+                        }
+                        return null;
+                    }
+                }).fail(new FailCallback() {
+                    @Override
+                    public void onFail(Exception exception) {
+                        tryReject(exception);
+                    }
+                });
+            }
+        });
+        stream.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection result) {
+                if (pending.decrementAndGet() == 0) {
+                    resolveStream(results);
+                }
+            }
+        });
+    }
+
+    private void resolveStream(List<Collection<U>> results) {
+        Collection<U> items = new ArrayList<>();
+        synchronized (results) {
+            for (Collection<U> batchResults : results) {
+                items.addAll(batchResults);
+            }
+        }
+        tryResolve(items);
+    }
+
     protected void apply(Collection items) {
         Collection<U> results = applyToCollection(items);
         resolve(results);
@@ -98,23 +211,33 @@ abstract class AbstractSingleThreadPromise<T, U, P> extends AwexCollectionPromis
 
     @SuppressWarnings("unchecked")
     protected Collection<U> applyToCollection(Iterable items) {
-        Collection<U> results = new ArrayList<>();
+        Collection<U> results = items instanceof Collection ? new ArrayList<U>(((Collection) items).size()) : new ArrayList<U>();
         for (Object item : items) {
-            boolean shouldBeAdded = true;
-            for (Apply apply : mApplyChain) {
-                if (apply.shouldApply(item)) {
-                    item = apply.apply(item);
-                } else {
-                    shouldBeAdded = false;
-                    break;
-                }
+            Object result = applyToItem(item);
+            if (result != FILTERED_OUT) {
+                results.add((U) result);
             }
+        }
+        return results;
+    }
+
+    /**
+     * @return the item with every operation of the chain applied, or FILTERED_OUT if any
+     * operation filtered it out
+     */
+    protected Object applyToItem(Object item) {
+        return applyChain(mApplyChain, item);
+    }
 
-            if (shouldBeAdded) {
-                results.add((U) item);
+    @SuppressWarnings("unchecked")
+    static Object applyChain(Apply[] applyChain, Object item) {
+        for (Apply apply : applyChain) {
+            if (!apply.shouldApply(item)) {
+                return FILTERED_OUT;
             }
+            item = apply.apply(item);
         }
-        return results;
+        return item;
     }
 
 }
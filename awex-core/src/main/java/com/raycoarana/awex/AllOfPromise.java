@@ -6,13 +6,14 @@ import com.raycoarana.awex.callbacks.FailCallback;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class AllOfPromise<T, P> extends AwexPromise<Collection<T>, P> {
 
     private final Collection<Promise<T, P>> mPromises;
     private final T[] mResults;
 
-    private int mResolvedPromises = 0;
+    private final AtomicInteger mResolvedPromises = new AtomicInteger();
 
     @SuppressWarnings("unchecked")
     public AllOfPromise(Awex awex, Collection<Promise<T, P>> promises) {
@@ -30,14 +31,9 @@ class AllOfPromise<T, P> extends AwexPromise<Collection<T>, P> {
             promise.done(new DoneCallback<T>() {
                 @Override
                 public void onDone(T result) {
-                    synchronized (AllOfPromise.this) {
-                        if (getState() == STATE_PENDING) {
-                            mResults[promiseIndex] = result;
-                            mResolvedPromises++;
-                            if (mResolvedPromises == mPromises.size()) {
-                                resolve(Arrays.asList(mResults));
-                            }
-                        }
+                    mResults[promiseIndex] = result;
+                    if (mResolvedPromises.incrementAndGet() == mPromises.size()) {
+                        tryResolve(Arrays.asList(mResults));
                     }
                 }
             }).fail(mFailCallback).cancel(mCancelCallback);
@@ -49,11 +45,7 @@ class AllOfPromise<T, P> extends AwexPromise<Collection<T>, P> {
         return new FailCallback() {
             @Override
             public void onFail(Exception exception) {
-                synchronized (AllOfPromise.this) {
-                    if (getState() == STATE_PENDING) {
-                        reject(exception);
-                    }
-                }
+                tryReject(exception);
             }
         };
     }
@@ -62,23 +54,19 @@ class AllOfPromise<T, P> extends AwexPromise<Collection<T>, P> {
         return new CancelCallback() {
             @Override
             public void onCancel() {
-                synchronized (AllOfPromise.this) {
-                    if (getState() == STATE_PENDING) {
-                        cancelTask(false);
-                    }
-                }
+                cancelTask(false);
             }
         };
     }
 
     @Override
     public void cancelTask(boolean mayInterrupt) {
-        synchronized (this) {
-            super.cancelTask(mayInterrupt);
+        if (!tryCancel(mayInterrupt)) {
+            return;
+        }
 
-            for (Promise<T, P> promise : mPromises) {
-                promise.cancelTask(mayInterrupt);
-            }
+        for (Promise<T, P> promise : mPromises) {
+            promise.cancelTask(mayInterrupt);
         }
     }
 
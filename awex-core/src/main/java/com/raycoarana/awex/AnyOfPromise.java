@@ -6,13 +6,14 @@ import com.raycoarana.awex.callbacks.FailCallback;
 import com.raycoarana.awex.exceptions.AllFailException;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class AnyOfPromise<Result, Progress> extends AwexPromise<Result, Progress> {
 
     private final Collection<Promise<Result, Progress>> mPromises;
     private final Exception[] mExceptions;
 
-    private int mFailedPromises = 0;
+    private final AtomicInteger mFailedPromises = new AtomicInteger();
 
     @SuppressWarnings("unchecked")
     public AnyOfPromise(Awex awex, Collection<Promise<Result, Progress>> promises) {
@@ -30,14 +31,9 @@ class AnyOfPromise<Result, Progress> extends AwexPromise<Result, Progress> {
             promise.done(mDoneCallback).fail(new FailCallback() {
                 @Override
                 public void onFail(Exception ex) {
-                    synchronized (AnyOfPromise.this) {
-                        if (getState() == STATE_PENDING) {
-                            mExceptions[promiseIndex] = ex;
-                            mFailedPromises++;
-                            if (mFailedPromises == mPromises.size()) {
-                                reject(new AllFailException(mExceptions));
-                            }
-                        }
+                    mExceptions[promiseIndex] = ex;
+                    if (mFailedPromises.incrementAndGet() == mPromises.size()) {
+                        tryReject(new AllFailException(mExceptions));
                     }
                 }
             }).cancel(mCancelCallback);
@@ -50,11 +46,7 @@ class AnyOfPromise<Result, Progress> extends AwexPromise<Result, Progress> {
         return new DoneCallback<Result>() {
             @Override
             public void onDone(Result result) {
-                synchronized (AnyOfPromise.this) {
-                    if (getState() == STATE_PENDING) {
-                        resolve(result);
-                    }
-                }
+                tryResolve(result);
             }
         };
     }
@@ -63,23 +55,19 @@ class AnyOfPromise<Result, Progress> extends AwexPromise<Result, Progress> {
         return new CancelCallback() {
             @Override
             public void onCancel() {
-                synchronized (AnyOfPromise.this) {
-                    if (getState() == STATE_PENDING) {
-                        cancelTask(false);
-                    }
-                }
+                cancelTask(false);
             }
         };
     }
 
     @Override
     public void cancelTask(boolean mayInterrupt) {
-        synchronized (this) {
-            super.cancelTask(mayInterrupt);
+        if (!tryCancel(mayInterrupt)) {
+            return;
+        }
 
-            for (Promise<Result, Progress> promise : mPromises) {
-                promise.cancelTask(mayInterrupt);
-            }
+        for (Promise<Result, Progress> promise : mPromises) {
+            promise.cancelTask(mayInterrupt);
         }
     }
 
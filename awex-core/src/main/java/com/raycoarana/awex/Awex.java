@@ -5,41 +5,65 @@ import com.raycoarana.awex.callbacks.DoneCallback;
 import com.raycoarana.awex.callbacks.FailCallback;
 import com.raycoarana.awex.exceptions.AbsentValueException;
 import com.raycoarana.awex.exceptions.EmptyTasksException;
+import com.raycoarana.awex.state.PoolState;
 import com.raycoarana.awex.state.PoolStateImpl;
+import com.raycoarana.awex.state.QueueState;
 import com.raycoarana.awex.state.QueueStateImpl;
 import com.raycoarana.awex.util.Map;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class Awex {
 
+    /**
+     * Default number of threads that execute callbacks in background
+     */
+    public static final int DEFAULT_CALLBACK_THREADS = 1;
+
     private final ThreadHelper mThreadHelper;
     private final Logger mLogger;
     private final AtomicLong mWorkIdProvider = new AtomicLong();
     private final Map<Integer, AwexTaskQueue> mTaskQueueMap;
-    private final Map<Integer, Map<Integer, Worker>> mWorkers;
     private final PoolPolicy mPoolPolicy;
+    private final PoolState mPoolState = new LivePoolState();
     private final AtomicInteger mThreadIdProvider = new AtomicInteger();
-    private final ExecutorService mCallbackExecutor = Executors.newSingleThreadExecutor();
-    private final Timer mTimer;
-    private final Map<Task, Task> mTasks = Map.Provider.getSync();
+    private final RealTimeWorkerPool mRealTimeWorkerPool;
+    private final CallbackDispatcher mCallbackDispatcher;
+    private final TimerWheel mTimerWheel;
+    private final Map<Task, Task> mTasks = Map.Provider.getConcurrent();
 
     private AwexPromise mAbsentPromise;
 
     public Awex(ThreadHelper threadHelper, Logger logger, PoolPolicy poolPolicy) {
+        this(threadHelper, logger, poolPolicy, DEFAULT_CALLBACK_THREADS);
+    }
+
+    /**
+     * @param threadHelper helper to interact with the UI thread
+     * @param logger logger of the pool
+     * @param poolPolicy policy that manages the queues and workers of the pool
+     * @param callbackThreads number of threads that execute in background the callbacks
+     *                        registered from the UI thread. Callbacks of the same promise are
+     *                        always executed in order, callbacks of different promises could
+     *                        be executed in parallel.
+     */
+    public Awex(ThreadHelper threadHelper, Logger logger, PoolPolicy poolPolicy, int callbackThreads) {
         mThreadHelper = threadHelper;
         mLogger = logger;
         mTaskQueueMap = Map.Provider.getSync();
-        mWorkers = Map.Provider.getSync();
         mPoolPolicy = poolPolicy;
-        mTimer = new Timer();
+        mTimerWheel = new TimerWheel(logger);
+        mCallbackDispatcher = new CallbackDispatcher(callbackThreads);
+        mRealTimeWorkerPool = new RealTimeWorkerPool(mThreadIdProvider, threadHelper, logger,
+                RealTimeWorkerPool.DEFAULT_KEEP_ALIVE_MS);
 
         initializeAbsentPromise();
 
@@ -65,16 +89,65 @@ public class Awex {
 
     public <Result, Progress> Promise<Result, Progress> submit(final Task<Result, Progress> task) {
         task.initialize(this);
-        PoolStateImpl poolState = extractPoolState();
-        mPoolPolicy.onTaskAdded(poolState, task);
-        poolState.recycle();
+        mPoolPolicy.onTaskAdded(mPoolState, task);
         return task.getPromise();
     }
 
+    /**
+     * Submits a task that produces its items incrementally, the stages of the returned stream
+     * process the items while the task is still producing them.
+     *
+     * @param task task to submit
+     * @param <T> type of the produced items
+     * @param <Progress> type of progress
+     * @return a collection promise with all the items produced by the task
+     */
+    public <T, Progress> CollectionPromise<T, Progress> submitStreaming(StreamingTask<T, Progress> task) {
+        return (CollectionPromise<T, Progress>) submit(task);
+    }
+
+    /**
+     * Submits a batch of tasks, the pool policy places the whole batch at once.
+     *
+     * @param tasks tasks to submit
+     * @param <Result> type of result of the tasks
+     * @param <Progress> type of progress of the tasks
+     * @return the promises of the tasks, in the same order
+     */
+    @SafeVarargs
+    public final <Result, Progress> List<Promise<Result, Progress>> submitAll(Task<Result, Progress>... tasks) {
+        return submitAll(Arrays.asList(tasks));
+    }
+
+    /**
+     * Submits a batch of tasks, the pool policy places the whole batch at once.
+     *
+     * @param tasks tasks to submit
+     * @param <Result> type of result of the tasks
+     * @param <Progress> type of progress of the tasks
+     * @return the promises of the tasks, in the same order
+     */
+    public <Result, Progress> List<Promise<Result, Progress>> submitAll(Collection<? extends Task<Result, Progress>> tasks) {
+        List<Task> batch = new ArrayList<>(tasks.size());
+        List<Promise<Result, Progress>> promises = new ArrayList<>(tasks.size());
+        for (Task<Result, Progress> task : tasks) {
+            task.initialize(this);
+            batch.add(task);
+            promises.add(task.getPromise());
+        }
+        mPoolPolicy.onTasksAdded(mPoolState, batch);
+        return promises;
+    }
+
+    /**
+     * Takes a snapshot of the state of the pool, only intended for debugging purposes as it
+     * clones the state of every queue and worker.
+     */
     private PoolStateImpl extractPoolState() {
         PoolStateImpl poolState = PoolStateImpl.get();
         extractQueueState(poolState);
         poolState.setTasks(mTasks);
+        poolState.setRealTimeWorkers(mRealTimeWorkerPool.size(), mRealTimeWorkerPool.idle());
         return poolState;
     }
 
@@ -85,21 +158,32 @@ public class Awex {
             QueueStateImpl queueState = QueueStateImpl.get(queue.getId(),
                     queue.size(),
                     queue.waiters());
-            extractWorkersInfo(queueState);
+            for (int priority = Task.PRIORITY_LOWEST; priority <= Task.PRIORITY_HIGH; priority++) {
+                queueState.setQueueAge(priority, queue.getAverageQueueAge(priority), queue.getMaxQueueAge(priority));
+            }
+            extractWorkersInfo(queue, queueState);
             poolState.addQueue(queue.getId(), queueState);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void extractWorkersInfo(QueueStateImpl queueState) {
-        Map<Integer, Worker> workers = mWorkers.get(queueState.getId()).clone();
-        for (Worker worker : workers.values()) {
+    private void extractWorkersInfo(AwexTaskQueue queue, QueueStateImpl queueState) {
+        for (Worker worker : queue.getWorkers()) {
             queueState.addWorker(worker.getId(), worker.takeState());
         }
     }
 
     void submit(Runnable runnable) {
-        mCallbackExecutor.submit(runnable);
+        mCallbackDispatcher.dispatch(runnable, runnable);
+    }
+
+    /**
+     * Executes the runnable in background after any other runnable submitted with the same key
+     *
+     * @param runnable work to execute
+     * @param key key that orders the work, usually the promise that the work belongs to
+     */
+    void submit(Runnable runnable, Object key) {
+        mCallbackDispatcher.dispatch(key, runnable);
     }
 
     public <Result, Progress> void cancel(Task<Result, Progress> task, boolean mayInterrupt) {
@@ -107,11 +191,13 @@ public class Awex {
             task.softCancel();
             AwexTaskQueue taskQueue = task.getQueue();
             if (taskQueue != null) {
-                if (!taskQueue.remove(task) && mayInterrupt) {
+                if (taskQueue.remove(task)) {
+                    mTasks.remove(task, task);
+                } else if (mayInterrupt) {
                     Worker worker = task.getWorker();
                     if (worker != null) {
                         worker.interrupt();
-                        mWorkers.get(taskQueue.getId()).remove(worker.getId());
+                        taskQueue.removeWorker(worker.getId());
                     }
                 }
             }
@@ -286,6 +372,75 @@ public class Awex {
         }
     }
 
+    /**
+     * Creates an already resolved collection promise of int values, backed by the array passed
+     * as parameter, that must not be modified afterwards
+     *
+     * @param values     values of the promise
+     * @param <Progress> type of the progress
+     * @return a promise already resolved
+     */
+    public <Progress> IntCollectionPromise<Progress> ofInts(int[] values) {
+        AwexIntCollectionPromise<Progress> promise = new AwexIntCollectionPromise<>(this);
+        promise.resolve(values);
+        return promise;
+    }
+
+    /**
+     * @see #ofInts(int[])
+     */
+    public <Progress> LongCollectionPromise<Progress> ofLongs(long[] values) {
+        AwexLongCollectionPromise<Progress> promise = new AwexLongCollectionPromise<>(this);
+        promise.resolve(values);
+        return promise;
+    }
+
+    /**
+     * @see #ofInts(int[])
+     */
+    public <Progress> DoubleCollectionPromise<Progress> ofDoubles(double[] values) {
+        AwexDoubleCollectionPromise<Progress> promise = new AwexDoubleCollectionPromise<>(this);
+        promise.resolve(values);
+        return promise;
+    }
+
+    /**
+     * Creates a promise completed with the outcome of the future. A future obtained from
+     * Promise#toFuture() is unwrapped to its promise and a future already done completes the
+     * promise right away, any other future is polled from the timer of this pool without blocking
+     * any worker. Cancelling the returned promise cancels the future and cancelling the future
+     * cancels the promise.
+     *
+     * @param future     future to convert
+     * @param <Result>   type of the result
+     * @param <Progress> type of the progress
+     * @return a promise that completes with the future
+     */
+    @SuppressWarnings("unchecked")
+    public <Result, Progress> Promise<Result, Progress> fromFuture(Future<Result> future) {
+        if (future instanceof PromiseFuture) {
+            return (Promise<Result, Progress>) ((PromiseFuture<Result>) future).getPromise();
+        }
+        if (!future.isDone()) {
+            return new FuturePromise<Result, Progress>(this, future);
+        }
+
+        AwexPromise<Result, Progress> promise = new AwexPromise<>(this);
+        try {
+            promise.resolve(future.get());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            promise.reject(cause instanceof Exception ? (Exception) cause : ex);
+        } catch (CancellationException ex) {
+            promise.cancelTask();
+        } catch (InterruptedException ex) {
+            // a done future never blocks
+            Thread.currentThread().interrupt();
+            promise.reject(ex);
+        }
+        return promise;
+    }
+
     public <Result, Progress> ResolvablePromise<Result, Progress> newAwexPromise() {
         return new AwexPromise<>(this);
     }
@@ -306,61 +461,128 @@ public class Awex {
         return Runtime.getRuntime().availableProcessors();
     }
 
-    void schedule(TimerTask timerTask, int timeout) {
+    void schedule(TimerWheel.Timeout timerTask, int timeout) {
         if (timeout > 0) {
-            mTimer.schedule(timerTask, timeout);
+            mTimerWheel.schedule(timerTask, timeout);
         }
     }
 
     <Result, Progress> void onTaskQueueTimeout(Task<Result, Progress> task) {
-        PoolStateImpl poolState = extractPoolState();
-        mPoolPolicy.onTaskQueueTimeout(poolState, task);
-        poolState.recycle();
+        mTasks.remove(task, task);
+        mPoolPolicy.onTaskQueueTimeout(mPoolState, task);
     }
 
     <Result, Progress> void onTaskExecutionTimeout(Task<Result, Progress> task) {
-        PoolStateImpl poolState = extractPoolState();
-        mPoolPolicy.onTaskExecutionTimeout(poolState, task);
-        poolState.recycle();
+        mPoolPolicy.onTaskExecutionTimeout(mPoolState, task);
     }
 
     @Override
     public String toString() {
-        return extractPoolState().toString();
+        PoolStateImpl poolState = extractPoolState();
+        String state = poolState.toString();
+        poolState.recycle();
+        return state;
     }
 
+    private final TimerWheel.Timeout mPolicyWakeUp = new TimerWheel.Timeout() {
+
+        @Override
+        public void run() {
+            mPoolPolicy.onWakeUp(mPoolState);
+        }
+
+    };
+
     private final WorkerListener mWorkerListener = new WorkerListener() {
 
         @Override
         public void onTaskFinished(Task task) {
-            PoolStateImpl poolState = extractPoolState();
-            mPoolPolicy.onTaskFinished(poolState, task);
-            poolState.recycle();
-            mTasks.remove(task);
+            mPoolPolicy.onTaskFinished(mPoolState, task);
+            mTasks.remove(task, task);
         }
 
     };
 
+    /**
+     * State of the pool handed to the policy. It reads the counters of the queues and workers
+     * on demand, so nothing needs to be rebuilt on every event.
+     */
+    private class LivePoolState implements PoolState {
+
+        @Override
+        public QueueState getQueue(int queueId) {
+            return mTaskQueueMap.get(queueId);
+        }
+
+        @Override
+        public Task getEqualTaskInQueue(Task task) {
+            return mTasks.get(task);
+        }
+
+        @Override
+        public int numberOfRealTimeWorkers() {
+            return mRealTimeWorkerPool.size();
+        }
+
+        @Override
+        public int numberOfIdleRealTimeWorkers() {
+            return mRealTimeWorkerPool.idle();
+        }
+
+        @Override
+        public String toString() {
+            return Awex.this.toString();
+        }
+
+    }
+
     private class PoolManagerImpl implements PoolManager {
 
         @Override
-        public synchronized void createQueue(int queueId) {
+        public void createQueue(int queueId) {
+            createQueue(queueId, PoolPolicy.QUEUE_TYPE_PRIORITY);
+        }
+
+        @Override
+        public synchronized void createQueue(int queueId, int queueType) {
+            if (mTaskQueueMap.containsKey(queueId)) {
+                throw new IllegalStateException("Trying to create a queue with an id that already exists");
+            }
+
+            mTaskQueueMap.put(queueId, newTaskQueue(queueId, queueType));
+        }
+
+        @Override
+        public synchronized void createAgingQueue(int queueId, long agingRateMs) {
             if (mTaskQueueMap.containsKey(queueId)) {
                 throw new IllegalStateException("Trying to create a queue with an id that already exists");
             }
 
-            mTaskQueueMap.put(queueId, new AwexTaskQueue(queueId));
+            mTaskQueueMap.put(queueId, new FifoPriorityTaskQueue(queueId, agingRateMs));
+        }
+
+        private AwexTaskQueue newTaskQueue(int queueId, int queueType) {
+            switch (queueType) {
+                case PoolPolicy.QUEUE_TYPE_PRIORITY:
+                    return new PriorityTaskQueue(queueId);
+                case PoolPolicy.QUEUE_TYPE_WORK_STEALING:
+                    return new WorkStealingTaskQueue(queueId);
+                case PoolPolicy.QUEUE_TYPE_FIFO_PRIORITY:
+                    return new FifoPriorityTaskQueue(queueId);
+                default:
+                    throw new IllegalArgumentException("Unknown queue type " + queueType);
+            }
         }
 
         @Override
         public synchronized void removeQueue(int queueId) {
             AwexTaskQueue awexTaskQueue = mTaskQueueMap.remove(queueId);
-            Map<Integer, Worker> workersOfQueue = mWorkers.remove(queueId);
-            for (Worker worker : workersOfQueue.values()) {
+            Worker[] workersOfQueue = awexTaskQueue.removeAllWorkers();
+            for (Worker worker : workersOfQueue) {
                 worker.die();
             }
             awexTaskQueue.destroy();
-            for (Worker worker : workersOfQueue.values()) {
+            for (Worker worker : workersOfQueue) {
                 worker.interrupt();
             }
         }
@@ -368,15 +590,26 @@ public class Awex {
         @Override
         public void executeImmediately(Task task) {
             task.markQueue(null);
-            new RealTimeWorker(mThreadIdProvider.incrementAndGet(), task, mThreadHelper, mLogger);
+            mRealTimeWorkerPool.execute(task);
         }
 
         @Override
         public void queueTask(int queueId, Task task) {
             AwexTaskQueue taskQueue = mTaskQueueMap.get(queueId);
             task.markQueue(taskQueue);
-            taskQueue.insert(task);
+            // registered before it could run, so a worker that finishes it always finds it
             mTasks.put(task, task);
+            taskQueue.insert(task);
+        }
+
+        @Override
+        public void queueTasks(int queueId, Collection<Task> tasks) {
+            AwexTaskQueue taskQueue = mTaskQueueMap.get(queueId);
+            for (Task task : tasks) {
+                task.markQueue(taskQueue);
+                mTasks.put(task, task);
+            }
+            taskQueue.insertAll(tasks);
         }
 
         @SuppressWarnings("unchecked")
@@ -396,20 +629,14 @@ public class Awex {
         @Override
         public synchronized int createWorker(int queueId, int priority) {
             AwexTaskQueue taskQueue = mTaskQueueMap.get(queueId);
-            Map<Integer, Worker> workersOfQueue = mWorkers.get(queueId);
-            if (workersOfQueue == null) {
-                workersOfQueue = Map.Provider.get();
-                mWorkers.put(queueId, workersOfQueue);
-            }
-
             int id = mThreadIdProvider.incrementAndGet();
-            workersOfQueue.put(id, new Worker(id, priority, taskQueue, mThreadHelper, mLogger, mWorkerListener));
+            taskQueue.addWorker(new Worker(id, priority, taskQueue, mThreadHelper, mLogger, mWorkerListener));
             return id;
         }
 
         @Override
         public synchronized void removeWorker(int queueId, int workerId, boolean shouldInterrupt) {
-            Worker worker = mWorkers.get(queueId).remove(workerId);
+            Worker worker = mTaskQueueMap.get(queueId).removeWorker(workerId);
             if (worker != null) {
                 if (shouldInterrupt) {
                     worker.interrupt();
@@ -419,6 +646,11 @@ public class Awex {
             }
         }
 
+        @Override
+        public void scheduleWakeUp(long delayMs) {
+            mTimerWheel.schedule(mPolicyWakeUp, delayMs);
+        }
+
     }
 
 }
\ No newline at end of file
@@ -3,12 +3,21 @@ package com.raycoarana.awex;
 import com.raycoarana.awex.callbacks.CancelCallback;
 import com.raycoarana.awex.callbacks.DoneCallback;
 import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.reactive.Publisher;
+import com.raycoarana.awex.transform.Accumulator;
 import com.raycoarana.awex.transform.Filter;
 import com.raycoarana.awex.transform.Func;
 import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+import com.raycoarana.awex.transform.ToDoubleMapper;
+import com.raycoarana.awex.transform.ToIntMapper;
+import com.raycoarana.awex.transform.ToLongMapper;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Result>, Progress> implements CollectionPromise<Result, Progress> {
 
@@ -16,6 +25,10 @@ class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Res
         super(awex);
     }
 
+    public AwexCollectionPromise(Awex awex, Task task) {
+        super(awex, task);
+    }
+
     public <U> AwexCollectionPromise(Awex mAwex, Promise<U, Progress> promise) {
         super(mAwex);
 
@@ -57,8 +70,13 @@ class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Res
 
     @Override
     public CollectionPromise<Result, Progress> filterParallel(Filter<Result> filter) {
+        return filterParallel(filter, PARALLEL_DEFAULT);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> filterParallel(Filter<Result> filter, int flags) {
         if (mAwex.getNumberOfThreads() > 1) {
-            return new MultiThreadFilterPromise<>(mAwex, this, filter);
+            return new MultiThreadFilterPromise<>(mAwex, this, filter, flags);
         } else {
             return filter(filter);
         }
@@ -71,8 +89,13 @@ class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Res
 
     @Override
     public <U> CollectionPromise<U, Progress> mapParallel(Mapper<Result, U> mapper) {
+        return mapParallel(mapper, PARALLEL_DEFAULT);
+    }
+
+    @Override
+    public <U> CollectionPromise<U, Progress> mapParallel(Mapper<Result, U> mapper, int flags) {
         if (mAwex.getNumberOfThreads() > 1) {
-            return new MultiThreadMapperPromise<>(mAwex, this, mapper);
+            return new MultiThreadMapperPromise<>(mAwex, this, mapper, flags);
         } else {
             return map(mapper);
         }
@@ -85,8 +108,13 @@ class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Res
 
     @Override
     public CollectionPromise<Result, Progress> forEachParallel(Func<Result> func) {
+        return forEachParallel(func, PARALLEL_DEFAULT);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> forEachParallel(Func<Result> func, int flags) {
         if (mAwex.getNumberOfThreads() > 1) {
-            return new MultiThreadForEachPromise<>(mAwex, this, func);
+            return new MultiThreadForEachPromise<>(mAwex, this, func, flags);
         } else {
             return forEach(func);
         }
@@ -107,9 +135,147 @@ class AwexCollectionPromise<Result, Progress> extends AwexPromise<Collection<Res
         });
     }
 
+    @Override
+    public Promise<Result, Progress> findFirst() {
+        return new ShortCircuitPromise<Result, Result, Progress>(mAwex, this, ShortCircuitPromise.FIND_FIRST, null, false);
+    }
+
+    @Override
+    public Promise<Result, Progress> findFirstParallel() {
+        return new ShortCircuitPromise<Result, Result, Progress>(mAwex, this, ShortCircuitPromise.FIND_FIRST, null, true);
+    }
+
+    @Override
+    public Promise<Result, Progress> findAny() {
+        return new ShortCircuitPromise<Result, Result, Progress>(mAwex, this, ShortCircuitPromise.FIND_ANY, null, true);
+    }
+
+    @Override
+    public Promise<Boolean, Progress> anyMatch(Filter<Result> filter) {
+        return new ShortCircuitPromise<Result, Boolean, Progress>(mAwex, this, ShortCircuitPromise.ANY_MATCH, filter, false);
+    }
+
+    @Override
+    public Promise<Boolean, Progress> anyMatchParallel(Filter<Result> filter) {
+        return new ShortCircuitPromise<Result, Boolean, Progress>(mAwex, this, ShortCircuitPromise.ANY_MATCH, filter, true);
+    }
+
+    @Override
+    public Promise<Boolean, Progress> allMatch(Filter<Result> filter) {
+        return new ShortCircuitPromise<Result, Boolean, Progress>(mAwex, this, ShortCircuitPromise.ALL_MATCH, filter, false);
+    }
+
+    @Override
+    public Promise<Boolean, Progress> allMatchParallel(Filter<Result> filter) {
+        return new ShortCircuitPromise<Result, Boolean, Progress>(mAwex, this, ShortCircuitPromise.ALL_MATCH, filter, true);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> limit(int maxItems) {
+        return new LimitPromise<>(mAwex, this, maxItems);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> sorted(Comparator<? super Result> comparator) {
+        return new CollectorPromise<>(mAwex, this, new CollectorPromise.SortCollector(comparator), false);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> sortedParallel(Comparator<? super Result> comparator) {
+        return new CollectorPromise<>(mAwex, this, new CollectorPromise.SortCollector(comparator), true);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> topK(int k, Comparator<? super Result> comparator) {
+        return new CollectorPromise<>(mAwex, this, new CollectorPromise.TopKCollector(k, comparator), false);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> topKParallel(int k, Comparator<? super Result> comparator) {
+        return new CollectorPromise<>(mAwex, this, new CollectorPromise.TopKCollector(k, comparator), true);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> distinct() {
+        return new DistinctPromise<>(mAwex, this, false);
+    }
+
+    @Override
+    public CollectionPromise<Result, Progress> distinctParallel() {
+        return new DistinctPromise<>(mAwex, this, true);
+    }
+
+    @Override
+    public IntCollectionPromise<Progress> mapToInt(ToIntMapper<Result> mapper) {
+        return new AwexIntCollectionPromise<>(mAwex, this, mapper);
+    }
+
+    @Override
+    public LongCollectionPromise<Progress> mapToLong(ToLongMapper<Result> mapper) {
+        return new AwexLongCollectionPromise<>(mAwex, this, mapper);
+    }
+
+    @Override
+    public DoubleCollectionPromise<Progress> mapToDouble(ToDoubleMapper<Result> mapper) {
+        return new AwexDoubleCollectionPromise<>(mAwex, this, mapper);
+    }
+
+    @Override
+    public Promise<Result, Progress> reduce(Reducer<Result> reducer) {
+        return new ReducePromise<Result, Result, Progress>(mAwex, this, reducer, false);
+    }
+
+    @Override
+    public Promise<Result, Progress> reduceParallel(Reducer<Result> reducer) {
+        return new ReducePromise<Result, Result, Progress>(mAwex, this, reducer, true);
+    }
+
+    @Override
+    public <U> Promise<U, Progress> reduce(U identity, Accumulator<Result, U> accumulator, Reducer<U> combiner) {
+        return new ReducePromise<>(mAwex, this, identity, accumulator, combiner, false);
+    }
+
+    @Override
+    public <U> Promise<U, Progress> reduceParallel(U identity, Accumulator<Result, U> accumulator, Reducer<U> combiner) {
+        return new ReducePromise<>(mAwex, this, identity, accumulator, combiner, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> Promise<Map<K, List<Result>>, Progress> groupBy(Mapper<Result, K> keyMapper) {
+        return new GroupPromise<Result, K, List<Result>, Progress>(mAwex, this, keyMapper,
+                (GroupPromise.Grouping) new GroupPromise.ListGrouping(), false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> Promise<Map<K, List<Result>>, Progress> groupByParallel(Mapper<Result, K> keyMapper) {
+        return new GroupPromise<Result, K, List<Result>, Progress>(mAwex, this, keyMapper,
+                (GroupPromise.Grouping) new GroupPromise.ListGrouping(), true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> Promise<Map<K, Result>, Progress> aggregateBy(Mapper<Result, K> keyMapper, Reducer<Result> reducer) {
+        return new GroupPromise<Result, K, Result, Progress>(mAwex, this, keyMapper,
+                (GroupPromise.Grouping) new GroupPromise.ReducerGrouping(reducer), false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> Promise<Map<K, Result>, Progress> aggregateByParallel(Mapper<Result, K> keyMapper, Reducer<Result> reducer) {
+        return new GroupPromise<Result, K, Result, Progress>(mAwex, this, keyMapper,
+                (GroupPromise.Grouping) new GroupPromise.ReducerGrouping(reducer), true);
+    }
+
     @Override
     public CollectionPromise<Result, Progress> applyNow() {
         return this;
     }
 
+    @Override
+    public Publisher<Result> toPublisher() {
+        return new CollectionPublisher<>(this);
+    }
+
 }
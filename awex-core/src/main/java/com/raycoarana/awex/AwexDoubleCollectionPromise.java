@@ -0,0 +1,118 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.DoubleFilter;
+import com.raycoarana.awex.transform.DoubleMapper;
+import com.raycoarana.awex.transform.DoubleReducer;
+import com.raycoarana.awex.transform.ToDoubleMapper;
+
+class AwexDoubleCollectionPromise<P> extends AbstractPrimitiveCollectionPromise<double[], P> implements DoubleCollectionPromise<P> {
+
+    public AwexDoubleCollectionPromise(Awex awex) {
+        super(awex);
+    }
+
+    /**
+     * Creates a promise resolved with the values mapped from the items of the collection promise
+     */
+    public <T> AwexDoubleCollectionPromise(Awex awex, CollectionPromise<T, P> promise, final ToDoubleMapper<T> mapper) {
+        super(awex);
+        unboxFrom(promise, new ItemWriter<double[]>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void write(double[] target, int index, Object item) {
+                target[index] = mapper.map((T) item);
+            }
+        });
+    }
+
+    @Override
+    protected double[] newArray(int length) {
+        return new double[length];
+    }
+
+    @Override
+    protected Object box(double[] items, int index) {
+        return items[index];
+    }
+
+    @Override
+    public DoubleCollectionPromise<P> filter(DoubleFilter filter) {
+        return filter(filter, false);
+    }
+
+    @Override
+    public DoubleCollectionPromise<P> filterParallel(DoubleFilter filter) {
+        return filter(filter, true);
+    }
+
+    private DoubleCollectionPromise<P> filter(final DoubleFilter filter, boolean parallel) {
+        return then(new AwexDoubleCollectionPromise<P>(mAwex), new RangeOperation<double[], double[]>() {
+            @Override
+            public int apply(double[] source, int from, int to, double[] target, int offset) {
+                int index = offset;
+                for (int i = from; i < to; i++) {
+                    double value = source[i];
+                    if (filter.filter(value)) {
+                        target[index++] = value;
+                    }
+                }
+                return index - offset;
+            }
+        }, false, parallel);
+    }
+
+    @Override
+    public DoubleCollectionPromise<P> map(DoubleMapper mapper) {
+        return map(mapper, false);
+    }
+
+    @Override
+    public DoubleCollectionPromise<P> mapParallel(DoubleMapper mapper) {
+        return map(mapper, true);
+    }
+
+    private DoubleCollectionPromise<P> map(final DoubleMapper mapper, boolean parallel) {
+        return then(new AwexDoubleCollectionPromise<P>(mAwex), new RangeOperation<double[], double[]>() {
+            @Override
+            public int apply(double[] source, int from, int to, double[] target, int offset) {
+                for (int i = from; i < to; i++) {
+                    target[offset + i - from] = mapper.map(source[i]);
+                }
+                return to - from;
+            }
+        }, true, parallel);
+    }
+
+    @Override
+    public Promise<Double, P> reduce(DoubleReducer reducer) {
+        return reduce(reducer, false);
+    }
+
+    @Override
+    public Promise<Double, P> reduceParallel(DoubleReducer reducer) {
+        return reduce(reducer, true);
+    }
+
+    private Promise<Double, P> reduce(final DoubleReducer reducer, boolean parallel) {
+        return reduce(new RangeReduction<double[], Double>() {
+            @Override
+            public Double reduce(double[] source, int from, int to) {
+                double reduced = source[from];
+                for (int i = from + 1; i < to; i++) {
+                    reduced = reducer.reduce(reduced, source[i]);
+                }
+                return reduced;
+            }
+
+            @Override
+            public Double combine(Double v1, Double v2) {
+                return reducer.reduce(v1, v2);
+            }
+        }, parallel);
+    }
+
+    @Override
+    public CollectionPromise<Double, P> boxed() {
+        return boxAll();
+    }
+}
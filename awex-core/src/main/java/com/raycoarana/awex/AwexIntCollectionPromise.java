@@ -0,0 +1,118 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.IntFilter;
+import com.raycoarana.awex.transform.IntMapper;
+import com.raycoarana.awex.transform.IntReducer;
+import com.raycoarana.awex.transform.ToIntMapper;
+
+class AwexIntCollectionPromise<P> extends AbstractPrimitiveCollectionPromise<int[], P> implements IntCollectionPromise<P> {
+
+    public AwexIntCollectionPromise(Awex awex) {
+        super(awex);
+    }
+
+    /**
+     * Creates a promise resolved with the values mapped from the items of the collection promise
+     */
+    public <T> AwexIntCollectionPromise(Awex awex, CollectionPromise<T, P> promise, final ToIntMapper<T> mapper) {
+        super(awex);
+        unboxFrom(promise, new ItemWriter<int[]>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void write(int[] target, int index, Object item) {
+                target[index] = mapper.map((T) item);
+            }
+        });
+    }
+
+    @Override
+    protected int[] newArray(int length) {
+        return new int[length];
+    }
+
+    @Override
+    protected Object box(int[] items, int index) {
+        return items[index];
+    }
+
+    @Override
+    public IntCollectionPromise<P> filter(IntFilter filter) {
+        return filter(filter, false);
+    }
+
+    @Override
+    public IntCollectionPromise<P> filterParallel(IntFilter filter) {
+        return filter(filter, true);
+    }
+
+    private IntCollectionPromise<P> filter(final IntFilter filter, boolean parallel) {
+        return then(new AwexIntCollectionPromise<P>(mAwex), new RangeOperation<int[], int[]>() {
+            @Override
+            public int apply(int[] source, int from, int to, int[] target, int offset) {
+                int index = offset;
+                for (int i = from; i < to; i++) {
+                    int value = source[i];
+                    if (filter.filter(value)) {
+                        target[index++] = value;
+                    }
+                }
+                return index - offset;
+            }
+        }, false, parallel);
+    }
+
+    @Override
+    public IntCollectionPromise<P> map(IntMapper mapper) {
+        return map(mapper, false);
+    }
+
+    @Override
+    public IntCollectionPromise<P> mapParallel(IntMapper mapper) {
+        return map(mapper, true);
+    }
+
+    private IntCollectionPromise<P> map(final IntMapper mapper, boolean parallel) {
+        return then(new AwexIntCollectionPromise<P>(mAwex), new RangeOperation<int[], int[]>() {
+            @Override
+            public int apply(int[] source, int from, int to, int[] target, int offset) {
+                for (int i = from; i < to; i++) {
+                    target[offset + i - from] = mapper.map(source[i]);
+                }
+                return to - from;
+            }
+        }, true, parallel);
+    }
+
+    @Override
+    public Promise<Integer, P> reduce(IntReducer reducer) {
+        return reduce(reducer, false);
+    }
+
+    @Override
+    public Promise<Integer, P> reduceParallel(IntReducer reducer) {
+        return reduce(reducer, true);
+    }
+
+    private Promise<Integer, P> reduce(final IntReducer reducer, boolean parallel) {
+        return reduce(new RangeReduction<int[], Integer>() {
+            @Override
+            public Integer reduce(int[] source, int from, int to) {
+                int reduced = source[from];
+                for (int i = from + 1; i < to; i++) {
+                    reduced = reducer.reduce(reduced, source[i]);
+                }
+                return reduced;
+            }
+
+            @Override
+            public Integer combine(Integer v1, Integer v2) {
+                return reducer.reduce(v1, v2);
+            }
+        }, parallel);
+    }
+
+    @Override
+    public CollectionPromise<Integer, P> boxed() {
+        return boxAll();
+    }
+}
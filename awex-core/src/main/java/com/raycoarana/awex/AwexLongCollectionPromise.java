@@ -0,0 +1,118 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.LongFilter;
+import com.raycoarana.awex.transform.LongMapper;
+import com.raycoarana.awex.transform.LongReducer;
+import com.raycoarana.awex.transform.ToLongMapper;
+
+class AwexLongCollectionPromise<P> extends AbstractPrimitiveCollectionPromise<long[], P> implements LongCollectionPromise<P> {
+
+    public AwexLongCollectionPromise(Awex awex) {
+        super(awex);
+    }
+
+    /**
+     * Creates a promise resolved with the values mapped from the items of the collection promise
+     */
+    public <T> AwexLongCollectionPromise(Awex awex, CollectionPromise<T, P> promise, final ToLongMapper<T> mapper) {
+        super(awex);
+        unboxFrom(promise, new ItemWriter<long[]>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void write(long[] target, int index, Object item) {
+                target[index] = mapper.map((T) item);
+            }
+        });
+    }
+
+    @Override
+    protected long[] newArray(int length) {
+        return new long[length];
+    }
+
+    @Override
+    protected Object box(long[] items, int index) {
+        return items[index];
+    }
+
+    @Override
+    public LongCollectionPromise<P> filter(LongFilter filter) {
+        return filter(filter, false);
+    }
+
+    @Override
+    public LongCollectionPromise<P> filterParallel(LongFilter filter) {
+        return filter(filter, true);
+    }
+
+    private LongCollectionPromise<P> filter(final LongFilter filter, boolean parallel) {
+        return then(new AwexLongCollectionPromise<P>(mAwex), new RangeOperation<long[], long[]>() {
+            @Override
+            public int apply(long[] source, int from, int to, long[] target, int offset) {
+                int index = offset;
+                for (int i = from; i < to; i++) {
+                    long value = source[i];
+                    if (filter.filter(value)) {
+                        target[index++] = value;
+                    }
+                }
+                return index - offset;
+            }
+        }, false, parallel);
+    }
+
+    @Override
+    public LongCollectionPromise<P> map(LongMapper mapper) {
+        return map(mapper, false);
+    }
+
+    @Override
+    public LongCollectionPromise<P> mapParallel(LongMapper mapper) {
+        return map(mapper, true);
+    }
+
+    private LongCollectionPromise<P> map(final LongMapper mapper, boolean parallel) {
+        return then(new AwexLongCollectionPromise<P>(mAwex), new RangeOperation<long[], long[]>() {
+            @Override
+            public int apply(long[] source, int from, int to, long[] target, int offset) {
+                for (int i = from; i < to; i++) {
+                    target[offset + i - from] = mapper.map(source[i]);
+                }
+                return to - from;
+            }
+        }, true, parallel);
+    }
+
+    @Override
+    public Promise<Long, P> reduce(LongReducer reducer) {
+        return reduce(reducer, false);
+    }
+
+    @Override
+    public Promise<Long, P> reduceParallel(LongReducer reducer) {
+        return reduce(reducer, true);
+    }
+
+    private Promise<Long, P> reduce(final LongReducer reducer, boolean parallel) {
+        return reduce(new RangeReduction<long[], Long>() {
+            @Override
+            public Long reduce(long[] source, int from, int to) {
+                long reduced = source[from];
+                for (int i = from + 1; i < to; i++) {
+                    reduced = reducer.reduce(reduced, source[i]);
+                }
+                return reduced;
+            }
+
+            @Override
+            public Long combine(Long v1, Long v2) {
+                return reducer.reduce(v1, v2);
+            }
+        }, parallel);
+    }
+
+    @Override
+    public CollectionPromise<Long, P> boxed() {
+        return boxAll();
+    }
+}
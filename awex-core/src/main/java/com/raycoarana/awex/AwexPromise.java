@@ -13,19 +13,63 @@ import com.raycoarana.awex.callbacks.UIFailCallback;
 import com.raycoarana.awex.callbacks.UIProgressCallback;
 import com.raycoarana.awex.transform.Filter;
 import com.raycoarana.awex.transform.Mapper;
-import com.raycoarana.awex.util.ObjectPool;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Implementation of task promise
  */
 class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progress> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AwexPromise> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(AwexPromise.class, "mState");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, Object> DONE_CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, Object.class, "mDoneCallbacks");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, Object> FAIL_CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, Object.class, "mFailCallbacks");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, Object> PROGRESS_CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, Object.class, "mProgressCallbacks");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, Object> CANCEL_CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, Object.class, "mCancelCallbacks");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, Object> ALWAYS_CALLBACKS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, Object.class, "mAlwaysCallbacks");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AwexPromise, WaitNode> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(AwexPromise.class, WaitNode.class, "mWaiters");
+
+    /**
+     * Internal state of the promise while the thread that won the transition out of pending
+     * stores the result, it is seen as pending from outside
+     */
+    private static final int STATE_COMPLETING = -1;
+
+    private static final int CALLBACK_DONE = 0;
+    private static final int CALLBACK_FAIL = 1;
+    private static final int CALLBACK_PROGRESS = 2;
+    private static final int CALLBACK_CANCEL = 3;
+    private static final int CALLBACK_ALWAYS = 4;
+
+    private static final Object SEALED = new Object();
+
+    /**
+     * Times the state is checked before parking a thread that asked to spin
+     */
+    private static final int SPIN_TRIES = 1024;
+
     protected final Awex mAwex;
     private final Task mTask;
 
@@ -33,88 +77,38 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
     private final Logger mLogger;
     private final long mId;
 
-    private int mState;
+    private volatile int mState;
     private Result mResult;
     private Exception mException;
-    private Callbacks<Result, Progress> mCallbacks;
-
-    private final Object mProgressInOrderSyncObject = new Object();
-    private final Object mBlockingObject = new Object();
-
-    private static class Callbacks<Result, Progress> {
-        public static final Callbacks EMPTY = new Callbacks(true);
-
-        private final List<DoneCallback<Result>> mDoneCallbacks;
-        private final List<FailCallback> mFailCallbacks;
-        private final List<ProgressCallback<Progress>> mProgressCallbacks;
-        private final List<CancelCallback> mCancelCallbacks;
-        private final List<AlwaysCallback> mAlwaysCallbacks;
-
-        private static final ObjectPool<Callbacks> sObjectPool = new ObjectPool<>(30);
-
-        @SuppressWarnings("unchecked")
-        public static <R, P> Callbacks<R, P> get() {
-            Callbacks<R, P> callbacks = (Callbacks<R, P>) sObjectPool.acquire();
-            if (callbacks == null) {
-                callbacks = new Callbacks<>(false);
-            }
-            return callbacks;
-        }
-
-        private Callbacks(boolean empty) {
-            if (empty) {
-                mDoneCallbacks = Collections.emptyList();
-                mFailCallbacks = Collections.emptyList();
-                mProgressCallbacks = Collections.emptyList();
-                mCancelCallbacks = Collections.emptyList();
-                mAlwaysCallbacks = Collections.emptyList();
-            } else {
-                mDoneCallbacks = new ArrayList<>();
-                mFailCallbacks = new ArrayList<>();
-                mProgressCallbacks = new ArrayList<>();
-                mCancelCallbacks = new ArrayList<>();
-                mAlwaysCallbacks = new ArrayList<>();
-            }
-        }
-
-        public List<DoneCallback<Result>> cloneDoneCallbacks() {
-            return clone(mDoneCallbacks);
-        }
 
-        public List<FailCallback> cloneFailCallbacks() {
-            return clone(mFailCallbacks);
-        }
+    // Every slot holds null, a single callback, a chain of CallbackNode (newest first) or SEALED
+    private volatile Object mDoneCallbacks;
+    private volatile Object mFailCallbacks;
+    private volatile Object mProgressCallbacks;
+    private volatile Object mCancelCallbacks;
+    private volatile Object mAlwaysCallbacks;
 
-        public List<ProgressCallback<Progress>> cloneProgressCallbacks() {
-            return clone(mProgressCallbacks);
-        }
+    // stack of threads blocked waiting for the result
+    private volatile WaitNode mWaiters;
 
-        public List<AlwaysCallback> cloneAlwaysCallbacks() {
-            return clone(mAlwaysCallbacks);
-        }
+    /**
+     * Node of a chain of callbacks, a slot inflates to a chain when a second callback is
+     * registered on it
+     */
+    private static final class CallbackNode {
 
-        public List<CancelCallback> cloneCancelCallbacks() {
-            return clone(mCancelCallbacks);
-        }
+        private final Object mCallback;
+        private CallbackNode mNext;
 
-        @SuppressWarnings("unchecked")
-        private <T> List<T> clone(List<T> items) {
-            return items.size() == 0 ? Collections.<T>emptyList() : (List<T>) ((ArrayList) items).clone();
+        public CallbackNode(Object callback) {
+            mCallback = callback;
         }
+    }
 
-        public void recycle() {
-            if (this.equals(EMPTY)) {
-                return;
-            }
-
-            mDoneCallbacks.clear();
-            mFailCallbacks.clear();
-            mProgressCallbacks.clear();
-            mCancelCallbacks.clear();
-            mAlwaysCallbacks.clear();
+    private static final class WaitNode {
 
-            sObjectPool.release(this);
-        }
+        private volatile Thread mThread = Thread.currentThread();
+        private volatile WaitNode mNext;
     }
 
     public AwexPromise(Awex awex) {
@@ -128,7 +122,6 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         mThreadHelper = awex.provideUIThread();
         mLogger = awex.provideLogger();
         mState = STATE_PENDING;
-        mCallbacks = Callbacks.get();
         printStateChanged("PENDING");
     }
 
@@ -139,35 +132,32 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
      * @throws IllegalStateException if the promise is not in pending state
      * @return this promise
      */
-    @SuppressWarnings("unchecked")
     public Promise<Result, Progress> resolve(Result result) {
-        List<DoneCallback<Result>> doneCallbacks;
-        List<AlwaysCallback> alwaysCallbacks;
-        synchronized (this) {
-            validateInPendingState();
-
-            mState = STATE_RESOLVED;
-            printStateChanged("RESOLVED");
-            mResult = result;
-
-            doneCallbacks = mCallbacks.cloneDoneCallbacks();
-            alwaysCallbacks = mCallbacks.cloneAlwaysCallbacks();
-            clearCallbacks();
-        }
-
-        if (doneCallbacks.size() > 0 || alwaysCallbacks.size() > 0) {
-            triggerAllDones(doneCallbacks);
-            triggerAllAlways(alwaysCallbacks);
+        if (!tryResolve(result)) {
+            throw new IllegalStateException("Illegal promise state for this operation");
         }
-
         return this;
     }
 
-
-    private void triggerAllDones(Collection<DoneCallback<Result>> doneCallbacks) {
-        for (final DoneCallback<Result> callback : doneCallbacks) {
-            triggerDone(callback);
+    /**
+     * Resolves the promise if it is still pending, triggers any done/always callbacks
+     *
+     * @param result value used to resolve the promise
+     * @return true if the promise was resolved by this call
+     */
+    boolean tryResolve(Result result) {
+        if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_COMPLETING)) {
+            return false;
         }
+
+        mResult = result;
+        mState = STATE_RESOLVED;
+        printStateChanged("RESOLVED");
+
+        Object doneCallbacks = seal();
+        triggerAll(CALLBACK_DONE, doneCallbacks);
+        triggerAll(CALLBACK_ALWAYS, seal(ALWAYS_CALLBACKS));
+        return true;
     }
 
     private void triggerDone(final DoneCallback<Result> callback) {
@@ -195,36 +185,35 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
      * Rejects the promise, triggers any fail/always callbacks
      *
      * @param ex exception that represents the rejection of the promise
+     * @throws IllegalStateException if the promise is not in pending state
      * @return this promise
      */
-    @SuppressWarnings("unchecked")
     public Promise<Result, Progress> reject(Exception ex) {
-        List<FailCallback> failCallbacks;
-        List<AlwaysCallback> alwaysCallbacks;
-        synchronized (this) {
-            validateInPendingState();
-
-            mState = STATE_REJECTED;
-            printStateChanged("REJECTED");
-            mException = ex;
-
-            failCallbacks = mCallbacks.cloneFailCallbacks();
-            alwaysCallbacks = mCallbacks.cloneAlwaysCallbacks();
-            clearCallbacks();
-        }
-
-        if (failCallbacks.size() > 0 || alwaysCallbacks.size() > 0) {
-            triggerAllFails(failCallbacks);
-            triggerAllAlways(alwaysCallbacks);
+        if (!tryReject(ex)) {
+            throw new IllegalStateException("Illegal promise state for this operation");
         }
-
         return this;
     }
 
-    private void triggerAllFails(Collection<FailCallback> failCallbacks) {
-        for (final FailCallback callback : failCallbacks) {
-            triggerFail(callback);
+    /**
+     * Rejects the promise if it is still pending, triggers any fail/always callbacks
+     *
+     * @param ex exception that represents the rejection of the promise
+     * @return true if the promise was rejected by this call
+     */
+    boolean tryReject(Exception ex) {
+        if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_COMPLETING)) {
+            return false;
         }
+
+        mException = ex;
+        mState = STATE_REJECTED;
+        printStateChanged("REJECTED");
+
+        Object failCallbacks = seal();
+        triggerAll(CALLBACK_FAIL, failCallbacks);
+        triggerAll(CALLBACK_ALWAYS, seal(ALWAYS_CALLBACKS));
+        return true;
     }
 
     private void triggerFail(final FailCallback callback) {
@@ -248,12 +237,6 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         }
     }
 
-    private void triggerAllAlways(List<AlwaysCallback> alwaysCallbacks) {
-        for (final AlwaysCallback callback : alwaysCallbacks) {
-            triggerAlways(callback);
-        }
-    }
-
     private void triggerAlways(final AlwaysCallback callback) {
         if (callback instanceof UIAlwaysCallback && !mThreadHelper.isCurrentThread()) {
             mThreadHelper.post(new CancellableRunnable() {
@@ -280,31 +263,66 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
      *
      * @param progress amount of progress
      */
-    @SuppressWarnings("unchecked")
     public void notifyProgress(Progress progress) {
-        List<ProgressCallback<Progress>> progressCallbacks;
-        synchronized (this) {
-            validateInPendingState();
+        validateInPendingState();
 
-            if (mLogger.isEnabled()) {
-                mLogger.v("Promise of task " + mId + " progress to " + progress);
-            }
+        triggerAllProgress(progress);
+    }
 
-            progressCallbacks = mCallbacks.cloneProgressCallbacks();
+    /**
+     * Notify progress to all callbacks if the promise is still pending
+     *
+     * @param progress amount of progress
+     * @return true if the progress was notified
+     */
+    boolean tryNotifyProgress(Progress progress) {
+        if (mState != STATE_PENDING) {
+            return false;
         }
-        synchronized (mProgressInOrderSyncObject) {
-            if (progressCallbacks.size() > 0) {
-                triggerAllProgress(progress, progressCallbacks);
+
+        triggerAllProgress(progress);
+        return true;
+    }
+
+    private void triggerAllProgress(Progress progress) {
+        if (mLogger.isEnabled()) {
+            mLogger.v("Promise of task " + mId + " progress to " + progress);
+        }
+
+        Object callbacks = mProgressCallbacks;
+        if (callbacks == null || callbacks == SEALED) {
+            return;
+        }
+        synchronized (this) {
+            if (callbacks instanceof CallbackNode) {
+                // the chain is shared with concurrent registrations, so it is copied instead
+                // of reversed in place to notify in registration order
+                triggerProgressChain((CallbackNode) callbacks, progress);
+            } else {
+                triggerProgress(callbacks, progress);
             }
         }
     }
 
-    private void triggerAllProgress(Progress progress, Collection<ProgressCallback<Progress>> progressCallbacks) {
-        for (final ProgressCallback<Progress> callback : progressCallbacks) {
+    private void triggerProgressChain(CallbackNode head, Progress progress) {
+        int count = 0;
+        for (CallbackNode node = head; node != null; node = node.mNext) {
+            count++;
+        }
+        Object[] callbacks = new Object[count];
+        for (CallbackNode node = head; node != null; node = node.mNext) {
+            callbacks[--count] = node.mCallback;
+        }
+        for (Object callback : callbacks) {
             triggerProgress(callback, progress);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void triggerProgress(Object callback, Progress progress) {
+        triggerProgress((ProgressCallback<Progress>) callback, progress);
+    }
+
     private void triggerProgress(final ProgressCallback<Progress> callback, final Progress progress) {
         if (callback instanceof UIProgressCallback && !mThreadHelper.isCurrentThread()) {
             mThreadHelper.post(new CancellableRunnable() {
@@ -337,47 +355,46 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         cancelTask(false);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public void cancelTask(final boolean mayInterrupt) {
-        final int state;
-        final List<CancelCallback> cancelCallbacks;
-        synchronized (this) {
-            state = mState;
-            if (state == STATE_PENDING) {
-                mState = STATE_CANCELLED;
-                printStateChanged("CANCELLED");
-            }
-            cancelCallbacks = mCallbacks.cloneCancelCallbacks();
-            clearCallbacks();
+    public void cancelTask(boolean mayInterrupt) {
+        tryCancel(mayInterrupt);
+    }
+
+    /**
+     * Cancels the promise if it is still pending, triggers any cancel callbacks
+     *
+     * @param mayInterrupt if the thread executing the task of the promise could be interrupted
+     * @return true if the promise was cancelled by this call
+     */
+    boolean tryCancel(final boolean mayInterrupt) {
+        if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_COMPLETING)) {
+            return false;
         }
-        if (state == STATE_PENDING) {
-            if (mThreadHelper.isCurrentThread() && cancelCallbacks.size() > 0) {
-                mAwex.submit(new Runnable() {
 
-                    @Override
-                    public void run() {
-                        doCancel(mayInterrupt, cancelCallbacks);
-                    }
+        mState = STATE_CANCELLED;
+        printStateChanged("CANCELLED");
 
-                });
-            } else {
-                doCancel(mayInterrupt, cancelCallbacks);
-            }
+        final Object cancelCallbacks = seal();
+        if (mThreadHelper.isCurrentThread() && cancelCallbacks != null) {
+            mAwex.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    doCancel(mayInterrupt, cancelCallbacks);
+                }
+
+            }, this);
+        } else {
+            doCancel(mayInterrupt, cancelCallbacks);
         }
+        return true;
     }
 
-    private void doCancel(boolean mayInterrupt, Collection<CancelCallback> cancelCallbacks) {
+    private void doCancel(boolean mayInterrupt, Object cancelCallbacks) {
         if (mTask != null) {
             mAwex.cancel(mTask, mayInterrupt);
         }
-        triggerAllCancel(cancelCallbacks);
-    }
-
-    private void triggerAllCancel(Collection<CancelCallback> cancelCallbacks) {
-        for (final CancelCallback callback : cancelCallbacks) {
-            triggerCancel(callback);
-        }
+        triggerAll(CALLBACK_CANCEL, cancelCallbacks);
     }
 
     private void triggerCancel(final CancelCallback callback) {
@@ -401,19 +418,121 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void clearCallbacks() {
-        mCallbacks.recycle();
-        mCallbacks = Callbacks.EMPTY;
+    /**
+     * Adds the callback to the slot, the first callback is stored inline and the slot inflates
+     * to a chain of nodes from the second one
+     *
+     * @return false if the promise is not pending anymore, so the callback must be handled
+     * by the caller
+     */
+    @SuppressWarnings("rawtypes")
+    private boolean register(AtomicReferenceFieldUpdater<AwexPromise, Object> slot, Object callback) {
+        CallbackNode node = null;
+        while (true) {
+            Object head = slot.get(this);
+            if (head == SEALED) {
+                return false;
+            }
 
-        synchronized (mBlockingObject) {
-            mBlockingObject.notifyAll();
+            Object newHead;
+            if (head == null) {
+                newHead = callback;
+            } else {
+                if (node == null) {
+                    node = new CallbackNode(callback);
+                }
+                node.mNext = head instanceof CallbackNode ? (CallbackNode) head : new CallbackNode(head);
+                newHead = node;
+            }
+            if (slot.compareAndSet(this, head, newHead)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Seals the slots, so no more callbacks are registered, and unparks any thread blocked
+     * waiting for the result. Must be called after the final state is set. Always callbacks
+     * are sealed later by the caller when the promise is resolved or rejected.
+     *
+     * @return callbacks of the slot that matches the final state, the done callbacks if
+     * resolved, the fail callbacks if rejected or the cancel callbacks if cancelled
+     */
+    private Object seal() {
+        Object doneCallbacks = seal(DONE_CALLBACKS);
+        Object failCallbacks = seal(FAIL_CALLBACKS);
+        Object cancelCallbacks = seal(CANCEL_CALLBACKS);
+        PROGRESS_CALLBACKS.set(this, SEALED);
+        if (mState == STATE_CANCELLED) {
+            ALWAYS_CALLBACKS.set(this, SEALED);
+        }
+
+        releaseWaiters();
+
+        switch (mState) {
+            case STATE_RESOLVED:
+                return doneCallbacks;
+            case STATE_REJECTED:
+                return failCallbacks;
+            default:
+                return cancelCallbacks;
+        }
+    }
+
+    /**
+     * @return the callbacks of the slot, as a chain in registration order if it was inflated
+     */
+    @SuppressWarnings("rawtypes")
+    private Object seal(AtomicReferenceFieldUpdater<AwexPromise, Object> slot) {
+        Object callbacks = slot.getAndSet(this, SEALED);
+        if (!(callbacks instanceof CallbackNode)) {
+            return callbacks;
+        }
+
+        // once sealed no other thread reaches the chain, so it could be reversed in place
+        CallbackNode previous = null;
+        CallbackNode node = (CallbackNode) callbacks;
+        while (node != null) {
+            CallbackNode next = node.mNext;
+            node.mNext = previous;
+            previous = node;
+            node = next;
+        }
+        return previous;
+    }
+
+    private void triggerAll(int kind, Object callbacks) {
+        if (callbacks instanceof CallbackNode) {
+            for (CallbackNode node = (CallbackNode) callbacks; node != null; node = node.mNext) {
+                trigger(kind, node.mCallback);
+            }
+        } else if (callbacks != null) {
+            trigger(kind, callbacks);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void trigger(int kind, Object callback) {
+        switch (kind) {
+            case CALLBACK_DONE:
+                triggerDone((DoneCallback<Result>) callback);
+                break;
+            case CALLBACK_FAIL:
+                triggerFail((FailCallback) callback);
+                break;
+            case CALLBACK_CANCEL:
+                triggerCancel((CancelCallback) callback);
+                break;
+            case CALLBACK_ALWAYS:
+                triggerAlways((AlwaysCallback) callback);
+                break;
         }
     }
 
     @Override
     public int getState() {
-        return mState;
+        int state = mState;
+        return state == STATE_COMPLETING ? STATE_PENDING : state;
     }
 
     @Override
@@ -444,8 +563,26 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
 
     @Override
     public Result getResult() throws Exception {
-        blockWhilePending();
+        blockWhilePending(false, 0, false);
+
+        return getCompletedResult();
+    }
+
+    @Override
+    public Result getResult(long timeout, TimeUnit unit) throws Exception {
+        return getResult(timeout, unit, false);
+    }
+
+    @Override
+    public Result getResult(long timeout, TimeUnit unit, boolean spin) throws Exception {
+        if (!blockWhilePending(true, unit.toNanos(timeout), spin)) {
+            throw new TimeoutException("Promise of task " + mId + " still pending after " + timeout + " " + unit);
+        }
+
+        return getCompletedResult();
+    }
 
+    private Result getCompletedResult() throws Exception {
         switch (mState) {
             case STATE_CANCELLED:
                 throw new IllegalStateException("Couldn't get result from a cancelled promise");
@@ -458,8 +595,21 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
 
     @Override
     public Result getResultOrDefault(Result defaultValue) throws InterruptedException {
-        blockWhilePending();
+        blockWhilePending(false, 0, false);
+
+        return getCompletedResultOrDefault(defaultValue);
+    }
+
+    @Override
+    public Result getResultOrDefault(Result defaultValue, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!blockWhilePending(true, unit.toNanos(timeout), false)) {
+            return defaultValue;
+        }
 
+        return getCompletedResultOrDefault(defaultValue);
+    }
+
+    private Result getCompletedResultOrDefault(Result defaultValue) {
         switch (mState) {
             case STATE_CANCELLED:
             case STATE_REJECTED:
@@ -469,42 +619,120 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         }
     }
 
-    private void blockWhilePending() throws InterruptedException {
-        synchronized (mBlockingObject) {
+    /**
+     * Blocks the current thread while the promise is pending, optionally spinning a bit before
+     * parking it in the stack of waiters
+     *
+     * @return false if the timeout expired before the promise was completed
+     */
+    private boolean blockWhilePending(boolean timed, long nanos, boolean spin) throws InterruptedException {
+        if (!isPending()) {
+            return true;
+        }
+
+        long deadline = timed ? System.nanoTime() + nanos : 0;
+        if (spin) {
+            for (int i = 0; i < SPIN_TRIES; i++) {
+                if (!isPending()) {
+                    return true;
+                }
+            }
+        }
+
+        WaitNode node = new WaitNode();
+        WaitNode head;
+        do {
+            head = mWaiters;
+            node.mNext = head;
+        } while (!WAITERS.compareAndSet(this, head, node));
+
+        try {
+            // the node is published before checking the state again, so the completing thread
+            // either sees the node or this thread sees the final state
             while (isPending()) {
-                try {
-                    mBlockingObject.wait();
-                } catch (InterruptedException ex) {
+                if (Thread.interrupted()) {
                     Thread.currentThread().interrupt();
-                    throw ex;
+                    throw new InterruptedException();
+                }
+                if (timed) {
+                    nanos = deadline - System.nanoTime();
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, nanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            return true;
+        } finally {
+            if (isPending()) {
+                removeWaiter(node);
+            }
+        }
+    }
+
+    /**
+     * Unlinks the node of a thread that stopped waiting, along with any other node already
+     * released, so polling a pending promise with timeouts does not grow the stack
+     */
+    private void removeWaiter(WaitNode node) {
+        node.mThread = null;
+        retry:
+        while (true) {
+            WaitNode previous = null;
+            WaitNode current = mWaiters;
+            while (current != null) {
+                WaitNode next = current.mNext;
+                if (current.mThread != null) {
+                    previous = current;
+                } else if (previous != null) {
+                    previous.mNext = next;
+                    if (previous.mThread == null) {
+                        continue retry;
+                    }
+                } else if (!WAITERS.compareAndSet(this, current, next)) {
+                    continue retry;
                 }
+                current = next;
+            }
+            return;
+        }
+    }
+
+    private void releaseWaiters() {
+        if (mWaiters == null) {
+            return;
+        }
+
+        WaitNode node = WAITERS.getAndSet(this, null);
+        while (node != null) {
+            Thread thread = node.mThread;
+            if (thread != null) {
+                node.mThread = null;
+                LockSupport.unpark(thread);
             }
+            node = node.mNext;
         }
     }
 
     @Override
     public Promise<Result, Progress> done(final DoneCallback<Result> callback) {
-        int state;
-        synchronized (this) {
-            state = mState;
-            if (state == STATE_PENDING) {
-                mCallbacks.mDoneCallbacks.add(callback);
-            }
+        if (register(DONE_CALLBACKS, callback) || mState != STATE_RESOLVED) {
+            return this;
         }
 
-        if (state == STATE_RESOLVED) {
-            if (shouldExecuteInBackground(callback)) {
-                mAwex.submit(new Runnable() {
+        if (shouldExecuteInBackground(callback)) {
+            mAwex.submit(new Runnable() {
 
-                    @Override
-                    public void run() {
-                        tryTrigger(callback, mResult);
-                    }
+                @Override
+                public void run() {
+                    tryTrigger(callback, mResult);
+                }
 
-                });
-            } else {
-                triggerDone(callback);
-            }
+            }, this);
+        } else {
+            triggerDone(callback);
         }
         return this;
     }
@@ -515,26 +743,20 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
 
     @Override
     public Promise<Result, Progress> fail(final FailCallback callback) {
-        int state;
-        synchronized (this) {
-            state = mState;
-            if (state == STATE_PENDING) {
-                mCallbacks.mFailCallbacks.add(callback);
-            }
+        if (register(FAIL_CALLBACKS, callback) || mState != STATE_REJECTED) {
+            return this;
         }
 
-        if (state == STATE_REJECTED) {
-            if (shouldExecuteInBackground(callback)) {
-                mAwex.submit(new Runnable() {
+        if (shouldExecuteInBackground(callback)) {
+            mAwex.submit(new Runnable() {
 
-                    @Override
-                    public void run() {
-                        tryTrigger(callback, mException);
-                    }
-                });
-            } else {
-                triggerFail(callback);
-            }
+                @Override
+                public void run() {
+                    tryTrigger(callback, mException);
+                }
+            }, this);
+        } else {
+            triggerFail(callback);
         }
         return this;
     }
@@ -545,37 +767,26 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
 
     @Override
     public Promise<Result, Progress> progress(final ProgressCallback<Progress> callback) {
-        synchronized (this) {
-            switch (mState) {
-                case STATE_PENDING:
-                    mCallbacks.mProgressCallbacks.add(callback);
-                    break;
-            }
-        }
+        register(PROGRESS_CALLBACKS, callback);
         return this;
     }
 
     @Override
     public Promise<Result, Progress> cancel(final CancelCallback callback) {
-        int state;
-        synchronized (this) {
-            state = mState;
-            if (mState == STATE_PENDING) {
-                mCallbacks.mCancelCallbacks.add(callback);
-            }
+        if (register(CANCEL_CALLBACKS, callback) || mState != STATE_CANCELLED) {
+            return this;
         }
-        if (state == STATE_CANCELLED) {
-            if (shouldExecuteInBackground(callback)) {
-                mAwex.submit(new Runnable() {
 
-                    @Override
-                    public void run() {
-                        tryTrigger(callback);
-                    }
-                });
-            } else {
-                triggerCancel(callback);
-            }
+        if (shouldExecuteInBackground(callback)) {
+            mAwex.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    tryTrigger(callback);
+                }
+            }, this);
+        } else {
+            triggerCancel(callback);
         }
         return this;
     }
@@ -586,14 +797,11 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
 
     @Override
     public Promise<Result, Progress> always(final AlwaysCallback callback) {
-        int state;
-        synchronized (this) {
-            state = mState;
-            if (state == STATE_PENDING) {
-                mCallbacks.mAlwaysCallbacks.add(callback);
-            }
+        if (register(ALWAYS_CALLBACKS, callback)) {
+            return this;
         }
-        switch (state) {
+
+        switch (mState) {
             case STATE_RESOLVED:
             case STATE_REJECTED:
                 if (shouldExecuteInBackground(callback)) {
@@ -603,7 +811,7 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
                         public void run() {
                             tryTrigger(callback);
                         }
-                    });
+                    }, this);
                 } else {
                     triggerAlways(callback);
                 }
@@ -653,29 +861,17 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         done(new DoneCallback<Result>() {
             @Override
             public void onDone(Result result) {
-                synchronized (awexPromise) {
-                    if (awexPromise.isPending()) {
-                        awexPromise.resolve(result);
-                    }
-                }
+                awexPromise.tryResolve(result);
             }
         }).fail(new FailCallback() {
             @Override
             public void onFail(Exception exception) {
-                synchronized (awexPromise) {
-                    if (awexPromise.isPending()) {
-                        awexPromise.reject(exception);
-                    }
-                }
+                awexPromise.tryReject(exception);
             }
         }).progress(new ProgressCallback<Progress>() {
             @Override
             public void onProgress(Progress progress) {
-                synchronized (awexPromise) {
-                    if (awexPromise.isPending()) {
-                        awexPromise.notifyProgress(progress);
-                    }
-                }
+                awexPromise.tryNotifyProgress(progress);
             }
         }).cancel(new CancelCallback() {
             @Override
@@ -716,6 +912,11 @@ class AwexPromise<Result, Progress> implements ResolvablePromise<Result, Progres
         return new AwexCollectionPromise<>(mAwex, this);
     }
 
+    @Override
+    public Future<Result> toFuture() {
+        return new PromiseFuture<>(this);
+    }
+
     private abstract class CancellableRunnable implements Runnable {
 
         @Override
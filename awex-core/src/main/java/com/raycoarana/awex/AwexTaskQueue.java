@@ -1,60 +1,67 @@
 package com.raycoarana.awex;
 
-import java.util.concurrent.PriorityBlockingQueue;
+import com.raycoarana.awex.state.QueueState;
+
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
 
-class AwexTaskQueue {
+/**
+ * Base class of the queues where workers take the tasks to execute from. Implementations must
+ * keep the counters of enqueued tasks and waiting workers up to date, as the queue itself is the
+ * live state of the queue read by the pool policy to decide where to place new tasks.
+ */
+abstract class AwexTaskQueue implements QueueState {
 
-    private static final int INITIAL_CAPACITY = 4;
+    private static final Worker[] NO_WORKERS = new Worker[0];
 
-    private final PriorityBlockingQueue<Task> mTaskQueue;
-    private final AtomicInteger mWaitersCount = new AtomicInteger();
-    private final AtomicInteger mSize = new AtomicInteger();
+    protected final AtomicInteger mWaitersCount = new AtomicInteger();
+    protected final AtomicInteger mSize = new AtomicInteger();
     private final int mId;
-    private boolean mDie = false;
+    protected volatile boolean mDie = false;
+
+    private final Object mWorkersLock = new Object();
+    private volatile Worker[] mWorkers = NO_WORKERS;
 
     public AwexTaskQueue(int id) {
         mId = id;
-        mTaskQueue = new PriorityBlockingQueue<>(INITIAL_CAPACITY, new TaskPriorityComparator());
     }
 
-    public Task take(Worker worker) throws InterruptedException {
-        try {
-            if (mDie) {
-                throw new IllegalStateException("Queue is die!");
-            }
+    /**
+     * Blocks until a task is available and returns it, the task is assigned to the worker.
+     *
+     * @param worker worker that will execute the task
+     * @return the next task to execute
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    public abstract Task take(Worker worker) throws InterruptedException;
 
-            mWaitersCount.incrementAndGet();
-            Task task = mTaskQueue.take();
-            mSize.decrementAndGet();
-            task.setWorker(worker);
-            return task;
-        } finally {
-            mWaitersCount.decrementAndGet();
-        }
-    }
+    public abstract void insert(Task task);
 
-    public synchronized void insert(Task task) {
-        if (mDie) {
-            throw new IllegalStateException("Queue is die!");
+    public void insertAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            insert(task);
         }
-
-        mTaskQueue.offer(task);
-        mSize.incrementAndGet();
     }
 
-    public synchronized <Result, Progress> boolean remove(Task<Result, Progress> task) {
-        if (mDie) {
-            throw new IllegalStateException("Queue is die!");
-        }
+    public abstract <Result, Progress> boolean remove(Task<Result, Progress> task);
 
-        boolean removed = mTaskQueue.remove(task);
-        if (removed) {
-            mSize.decrementAndGet();
-        }
-        return removed;
+    /**
+     * @return the tasks waiting in the queue, the view could be stale but must be safe to iterate
+     * while the queue is modified
+     */
+    protected abstract Iterable<Task> getQueuedTasks();
+
+    /**
+     * Called by a worker when it stops taking tasks from this queue
+     *
+     * @param worker worker that leaves the queue
+     */
+    public void detach(Worker worker) {
     }
 
+    public abstract void destroy();
+
     public int waiters() {
         return mWaitersCount.get();
     }
@@ -63,18 +70,94 @@ class AwexTaskQueue {
         return mSize.get();
     }
 
+    @Override
     public int getId() {
         return mId;
     }
 
-    public synchronized void destroy() {
-        synchronized (this) {
-            mDie = true;
+    @Override
+    public int getEnqueue() {
+        return size();
+    }
+
+    @Override
+    public int getWaiters() {
+        return waiters();
+    }
+
+    @Override
+    public int numberOfWorkers() {
+        return mWorkers.length;
+    }
+
+    @Override
+    public Iterable<Worker> getWorkers() {
+        return Arrays.asList(mWorkers);
+    }
+
+    @Override
+    public long getAverageQueueAge(int priority) {
+        long now = Task.currentTimeMillis();
+        long totalAge = 0;
+        int count = 0;
+        for (Task task : getQueuedTasks()) {
+            if (task.getPriority() == priority) {
+                totalAge += now - task.getQueueTime();
+                count++;
+            }
+        }
+        return count > 0 ? totalAge / count : 0;
+    }
+
+    @Override
+    public long getMaxQueueAge(int priority) {
+        long now = Task.currentTimeMillis();
+        long maxAge = 0;
+        for (Task task : getQueuedTasks()) {
+            if (task.getPriority() == priority) {
+                maxAge = Math.max(maxAge, now - task.getQueueTime());
+            }
+        }
+        return maxAge;
+    }
+
+    public void addWorker(Worker worker) {
+        synchronized (mWorkersLock) {
+            Worker[] workers = Arrays.copyOf(mWorkers, mWorkers.length + 1);
+            workers[mWorkers.length] = worker;
+            mWorkers = workers;
+        }
+    }
+
+    public Worker removeWorker(int workerId) {
+        synchronized (mWorkersLock) {
+            Worker[] workers = mWorkers;
+            for (int i = 0; i < workers.length; i++) {
+                Worker worker = workers[i];
+                if (worker.getId() == workerId) {
+                    Worker[] newWorkers = new Worker[workers.length - 1];
+                    System.arraycopy(workers, 0, newWorkers, 0, i);
+                    System.arraycopy(workers, i + 1, newWorkers, i, workers.length - i - 1);
+                    mWorkers = newWorkers;
+                    return worker;
+                }
+            }
+            return null;
+        }
+    }
+
+    public Worker[] removeAllWorkers() {
+        synchronized (mWorkersLock) {
+            Worker[] workers = mWorkers;
+            mWorkers = NO_WORKERS;
+            return workers;
         }
+    }
 
-        for (Task task : mTaskQueue) {
-            task.getPromise().cancelTask();
+    protected void checkAlive() {
+        if (mDie) {
+            throw new IllegalStateException("Queue is die!");
         }
-        mTaskQueue.clear();
     }
-}
\ No newline at end of file
+
+}
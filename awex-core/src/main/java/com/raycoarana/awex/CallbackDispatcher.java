@@ -0,0 +1,59 @@
+package com.raycoarana.awex;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs callbacks in background on a fixed set of threads. Every callback is dispatched with a
+ * key, usually the promise it belongs to, and all callbacks with the same key run on the same
+ * thread in the same order they were dispatched, while callbacks of different keys could run
+ * in parallel, so a slow callback only delays the ones that share its thread.
+ */
+class CallbackDispatcher {
+
+    private final ExecutorService[] mExecutors;
+
+    public CallbackDispatcher(int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one callback thread is needed");
+        }
+        mExecutors = new ExecutorService[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final String name = "Awex callbacks " + i;
+            mExecutors[i] = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    return new Thread(runnable, name);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param key key that orders the callback, callbacks with equal keys run in order
+     * @param runnable callback to run
+     */
+    public void dispatch(Object key, Runnable runnable) {
+        mExecutors[shardOf(key)].execute(runnable);
+    }
+
+    public int size() {
+        return mExecutors.length;
+    }
+
+    int shardOf(Object key) {
+        if (mExecutors.length == 1) {
+            return 0;
+        }
+        int hash = System.identityHashCode(key);
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % mExecutors.length;
+    }
+
+    public void shutdown() {
+        for (ExecutorService executor : mExecutors) {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,26 +1,254 @@
 package com.raycoarana.awex;
 
+import com.raycoarana.awex.reactive.Publisher;
+import com.raycoarana.awex.transform.Accumulator;
 import com.raycoarana.awex.transform.Filter;
 import com.raycoarana.awex.transform.Func;
 import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+import com.raycoarana.awex.transform.ToDoubleMapper;
+import com.raycoarana.awex.transform.ToIntMapper;
+import com.raycoarana.awex.transform.ToLongMapper;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 public interface CollectionPromise<T, P> extends Promise<Collection<T>, P> {
 
+    /**
+     * Parallel flag: items are split upfront in one contiguous range per thread
+     */
+    int PARALLEL_DEFAULT = 0;
+
+    /**
+     * Parallel flag: items are split in small chunks that threads claim as they finish the
+     * previous one, sized from the measured time per item, so items with skewed cost do not
+     * leave threads idle while one of them processes a slow range
+     */
+    int PARALLEL_DYNAMIC_CHUNKS = 1;
+
+    /**
+     * Parallel flag: the first chunk of items that fails rejects the promise with a
+     * ChunkFailedException and cancels the tasks of the other chunks, interrupting them. Without
+     * it every chunk is processed and, if any failed, the promise is rejected once all are done
+     * with a PartialResultException that has the results of the other chunks.
+     */
+    int PARALLEL_FAIL_FAST = 2;
+
     CollectionPromise<T, P> filter(Filter<T> filter);
 
     CollectionPromise<T, P> filterParallel(Filter<T> filter);
 
+    /**
+     * @param flags parallel flags, @see #PARALLEL_DYNAMIC_CHUNKS and #PARALLEL_FAIL_FAST
+     */
+    CollectionPromise<T, P> filterParallel(Filter<T> filter, int flags);
+
     <U> CollectionPromise<U, P> map(Mapper<T, U> mapper);
 
     <U> CollectionPromise<U, P> mapParallel(Mapper<T, U> mapper);
 
+    /**
+     * @param flags parallel flags, @see #PARALLEL_DYNAMIC_CHUNKS and #PARALLEL_FAIL_FAST
+     */
+    <U> CollectionPromise<U, P> mapParallel(Mapper<T, U> mapper, int flags);
+
     CollectionPromise<T, P> forEach(Func<T> func);
 
     CollectionPromise<T, P> forEachParallel(Func<T> func);
 
+    /**
+     * @param flags parallel flags, @see #PARALLEL_DYNAMIC_CHUNKS and #PARALLEL_FAIL_FAST
+     */
+    CollectionPromise<T, P> forEachParallel(Func<T> func, int flags);
+
     Promise<T, P> singleOrFirst();
 
+    /**
+     * Gets the first item, applying the pending operations of the chain only until an item gets
+     * through all of them. The promise is rejected with AbsentValueException if there is none.
+     */
+    Promise<T, P> findFirst();
+
+    /**
+     * Gets the first item searching in parallel, one range of items per thread. Ranges after the
+     * one where an item is found stop as soon as it is found.
+     *
+     * @see #findFirst()
+     */
+    Promise<T, P> findFirstParallel();
+
+    /**
+     * Gets any item searching in parallel, every range stops as soon as an item is found in
+     * any of them.
+     *
+     * @see #findFirst()
+     */
+    Promise<T, P> findAny();
+
+    /**
+     * Checks if any item matches the filter, stopping at the first item that does
+     */
+    Promise<Boolean, P> anyMatch(Filter<T> filter);
+
+    /**
+     * @see #anyMatch(Filter)
+     * @see #findAny()
+     */
+    Promise<Boolean, P> anyMatchParallel(Filter<T> filter);
+
+    /**
+     * Checks if every item matches the filter, stopping at the first item that does not
+     */
+    Promise<Boolean, P> allMatch(Filter<T> filter);
+
+    /**
+     * @see #allMatch(Filter)
+     * @see #findAny()
+     */
+    Promise<Boolean, P> allMatchParallel(Filter<T> filter);
+
+    /**
+     * Takes the first items, applying the pending operations of the chain only until there are
+     * enough of them
+     *
+     * @param maxItems max number of items to take
+     */
+    CollectionPromise<T, P> limit(int maxItems);
+
+    /**
+     * Sorts the items with a stable sort, applying the pending operations of the chain in the
+     * same pass
+     */
+    CollectionPromise<T, P> sorted(Comparator<? super T> comparator);
+
+    /**
+     * Sorts every range of items in parallel, one range per thread, and merges the sorted ranges
+     * in parallel as a tree. The sort is still stable.
+     *
+     * @see #sorted(Comparator)
+     */
+    CollectionPromise<T, P> sortedParallel(Comparator<? super T> comparator);
+
+    /**
+     * Takes the first k items in the order of the comparator, sorted, keeping only k items at a
+     * time instead of sorting all of them
+     *
+     * @param k number of items to take, it must not be negative
+     */
+    CollectionPromise<T, P> topK(int k, Comparator<? super T> comparator);
+
+    /**
+     * Takes the first k items of every range of items in parallel, one range per thread, and
+     * merges them as a tree
+     *
+     * @see #topK(int, Comparator)
+     */
+    CollectionPromise<T, P> topKParallel(int k, Comparator<? super T> comparator);
+
+    /**
+     * Removes duplicated items, as defined by equals, keeping the first occurrence of every item
+     * in order
+     */
+    CollectionPromise<T, P> distinct();
+
+    /**
+     * Removes duplicated items in parallel, one range of items per thread, sharing a concurrent
+     * set of the items seen. The first occurrence of every item is kept in order.
+     *
+     * @see #distinct()
+     */
+    CollectionPromise<T, P> distinctParallel();
+
+    /**
+     * Maps the items to int values kept in an array, applying the pending operations of the
+     * chain in the same pass, so next operations work with the values unboxed.
+     */
+    IntCollectionPromise<P> mapToInt(ToIntMapper<T> mapper);
+
+    /**
+     * @see #mapToInt(ToIntMapper)
+     */
+    LongCollectionPromise<P> mapToLong(ToLongMapper<T> mapper);
+
+    /**
+     * @see #mapToInt(ToIntMapper)
+     */
+    DoubleCollectionPromise<P> mapToDouble(ToDoubleMapper<T> mapper);
+
+    /**
+     * Reduces the items to a single value, applying the pending operations of the chain to every
+     * item in the same pass. The promise is rejected with AbsentValueException if there are no
+     * items to reduce.
+     */
+    Promise<T, P> reduce(Reducer<T> reducer);
+
+    /**
+     * Reduces the items in parallel, one range of items per thread, and combines the partial
+     * results as a tree keeping the order of the items, so the reducer must be associative.
+     *
+     * @see #reduce(Reducer)
+     */
+    Promise<T, P> reduceParallel(Reducer<T> reducer);
+
+    /**
+     * Folds the items into a value of other type, starting from the identity.
+     *
+     * @param identity initial value of the fold, it must not be modified by the accumulator
+     * @param accumulator folds an item into the accumulated value
+     * @param combiner merges two accumulated values, not used when the fold is not parallel
+     */
+    <U> Promise<U, P> reduce(U identity, Accumulator<T, U> accumulator, Reducer<U> combiner);
+
+    /**
+     * Folds the items in parallel, every range of items starting from the identity, and combines
+     * the partial results with the combiner as a tree keeping the order of the items.
+     *
+     * @see #reduce(Object, Accumulator, Reducer)
+     */
+    <U> Promise<U, P> reduceParallel(U identity, Accumulator<T, U> accumulator, Reducer<U> combiner);
+
+    /**
+     * Groups the items by the key that the mapper gives to every item, applying the pending
+     * operations of the chain in the same pass. Items of every group are kept in order, and
+     * groups in the order of their first item.
+     */
+    <K> Promise<Map<K, List<T>>, P> groupBy(Mapper<T, K> keyMapper);
+
+    /**
+     * Groups the items in parallel, every range of items in its own tables, which are merged in
+     * parallel by partitions of the keys. Items and groups are kept in the same order as
+     * groupBy(Mapper) does.
+     *
+     * @see #groupBy(Mapper)
+     */
+    <K> Promise<Map<K, List<T>>, P> groupByParallel(Mapper<T, K> keyMapper);
+
+    /**
+     * Groups the items by key as groupBy(Mapper) does, reducing the items of every group to a
+     * single value.
+     */
+    <K> Promise<Map<K, T>, P> aggregateBy(Mapper<T, K> keyMapper, Reducer<T> reducer);
+
+    /**
+     * Groups and reduces the items in parallel as groupByParallel(Mapper) does, so the reducer
+     * must be associative.
+     *
+     * @see #aggregateBy(Mapper, Reducer)
+     */
+    <K> Promise<Map<K, T>, P> aggregateByParallel(Mapper<T, K> keyMapper, Reducer<T> reducer);
+
     CollectionPromise<T, P> applyNow();
+
+    /**
+     * Creates a publisher of the items of this promise that emits them only when its subscriber
+     * requests them. Operations of the chain that are not applied yet (see applyNow()) are applied
+     * to each item just before emitting it, once per subscriber, so the result collection is
+     * never materialized. Subscribers receive onError if the promise is rejected or cancelled.
+     *
+     * @return a publisher of the items of this promise
+     */
+    Publisher<T> toPublisher();
 }
@@ -0,0 +1,220 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.reactive.Publisher;
+import com.raycoarana.awex.reactive.Subscriber;
+import com.raycoarana.awex.reactive.Subscription;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the items of the collection of a promise, applying the chain of operations to each
+ * item only when the subscriber has demand for it, so the transformed collection is never
+ * materialized. Every subscriber iterates the collection on its own.
+ *
+ * Items are emitted from the thread that resolves the promise or from the thread that requests
+ * more items, whichever finds pending demand first.
+ */
+class CollectionPublisher<T> implements Publisher<T> {
+
+    private static final Apply[] NO_OPERATIONS = new Apply[0];
+    private static final Object END = new Object();
+
+    private final Promise<? extends Collection, ?> mSourcePromise;
+    private final Apply[] mApplyChain;
+
+    public CollectionPublisher(Promise<? extends Collection, ?> sourcePromise) {
+        this(sourcePromise, NO_OPERATIONS);
+    }
+
+    /**
+     * @param sourcePromise promise with the collection of items to publish
+     * @param applyChain    operations to apply to each item before publishing it
+     */
+    public CollectionPublisher(Promise<? extends Collection, ?> sourcePromise, Apply[] applyChain) {
+        mSourcePromise = sourcePromise;
+        mApplyChain = applyChain;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+
+        final CollectionSubscription<T> subscription = new CollectionSubscription<>(subscriber, mApplyChain);
+        subscriber.onSubscribe(subscription);
+
+        ((Promise<Collection, ?>) mSourcePromise).done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection result) {
+                subscription.onSourceReady(result.iterator());
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                subscription.onSourceFailed(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                subscription.onSourceFailed(new CancellationException("Promise cancelled"));
+            }
+        });
+    }
+
+    static class CollectionSubscription<T> implements Subscription {
+
+        private final Apply[] mApplyChain;
+        private final AtomicLong mRequested = new AtomicLong();
+        private final AtomicInteger mWorkInProgress = new AtomicInteger();
+
+        // released on cancel, so a cancelled subscriber is not kept until the source completes
+        private volatile Subscriber<? super T> mSubscriber;
+        private volatile Iterator mSource;
+        private volatile Throwable mError;
+        private volatile boolean mDone;
+
+        public CollectionSubscription(Subscriber<? super T> subscriber, Apply[] applyChain) {
+            mSubscriber = subscriber;
+            mApplyChain = applyChain;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                mError = new IllegalArgumentException("Requested " + n + " items, it must be greater than zero");
+            } else {
+                addRequested(n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            mDone = true;
+            mSubscriber = null;
+            mSource = null;
+        }
+
+        void onSourceReady(Iterator source) {
+            mSource = source;
+            drain();
+        }
+
+        void onSourceFailed(Throwable error) {
+            mError = error;
+            drain();
+        }
+
+        private void addRequested(long n) {
+            while (true) {
+                long requested = mRequested.get();
+                if (requested == Long.MAX_VALUE) {
+                    return;
+                }
+                long newRequested = requested + n;
+                if (newRequested < 0) {
+                    newRequested = Long.MAX_VALUE;
+                }
+                if (mRequested.compareAndSet(requested, newRequested)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Emits items while there is demand. Only one thread drains at a time, any other thread,
+         * or a request made from onNext, just marks that there is more work for the draining one,
+         * so calls to the subscriber are serialized and never recursive.
+         */
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            if (mWorkInProgress.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                Subscriber<? super T> subscriber = mSubscriber;
+                if (mDone || subscriber == null) {
+                    if (subscriber == null) {
+                        mSource = null;
+                    }
+                    return;
+                }
+                if (mError != null) {
+                    mDone = true;
+                    subscriber.onError(mError);
+                    return;
+                }
+
+                Iterator source = mSource;
+                if (source != null) {
+                    long requested = mRequested.get();
+                    long emitted = 0;
+                    while (emitted != requested) {
+                        Object item;
+                        try {
+                            item = nextItem(source);
+                        } catch (RuntimeException ex) {
+                            mDone = true;
+                            subscriber.onError(ex);
+                            return;
+                        }
+                        if (item == END) {
+                            break;
+                        }
+
+                        subscriber.onNext((T) item);
+                        emitted++;
+                        if (mDone) {
+                            return;
+                        }
+                    }
+                    if (!source.hasNext()) {
+                        mDone = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (emitted != 0 && requested != Long.MAX_VALUE) {
+                        mRequested.addAndGet(-emitted);
+                    }
+                }
+
+                missed = mWorkInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return the next item of the source that is not filtered out, with every operation
+         * applied, or END if there are no more items
+         */
+        @SuppressWarnings("unchecked")
+        private Object nextItem(Iterator source) {
+            while (source.hasNext()) {
+                Object item = source.next();
+                boolean filteredOut = false;
+                for (Apply apply : mApplyChain) {
+                    if (!apply.shouldApply(item)) {
+                        filteredOut = true;
+                        break;
+                    }
+                    item = apply.apply(item);
+                }
+                if (!filteredOut) {
+                    return item;
+                }
+            }
+            return END;
+        }
+    }
+
+}
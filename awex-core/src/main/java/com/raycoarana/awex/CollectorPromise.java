@@ -0,0 +1,247 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.transform.Reducer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the items of a collection promise in a container, applying the pending operations of
+ * its chain to every item in the same pass. In parallel every range of items is collected in its
+ * own container in a task of the pool, and containers are combined in a CombineTree.
+ */
+class CollectorPromise<T, A, P> extends AwexCollectionPromise<T, P> {
+
+    /**
+     * Strategy to collect items into containers of type A
+     */
+    interface Collector<A> {
+
+        A newContainer(int expectedSize);
+
+        void add(A container, Object item);
+
+        /**
+         * Called once all the items of a range are added to its container
+         */
+        A finishRange(A container);
+
+        /**
+         * Combines the containers of two adjacent ranges, first one on the left
+         */
+        A combine(A left, A right);
+
+        Collection toResult(A container);
+    }
+
+    private final Apply[] mApplyChain;
+    private final Collector<A> mCollector;
+    private final boolean mParallel;
+
+    @SuppressWarnings("unchecked")
+    public CollectorPromise(Awex awex, CollectionPromise<T, P> promise, Collector<A> collector, boolean parallel) {
+        super(awex);
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        mCollector = collector;
+        mParallel = parallel;
+
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                if (mParallel && mAwex.getNumberOfThreads() > 1 && items.size() > 1) {
+                    collectInParallel(items);
+                } else {
+                    try {
+                        finish(collect(items, items.size()));
+                    } catch (RuntimeException ex) {
+                        tryReject(ex);
+                    }
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                CollectorPromise.this.cancelTask();
+            }
+        });
+    }
+
+    private void collectInParallel(Collection items) {
+        List<List> ranges = AbstractMultiThreadPromise.split(items, mAwex.getNumberOfThreads());
+        CombineTree combineTree = new CombineTree(ranges.size(), new Reducer<A>() {
+            @Override
+            public A reduce(A left, A right) {
+                return mCollector.combine(left, right);
+            }
+        });
+        for (int i = 0; i < ranges.size() && getState() == STATE_PENDING; i++) {
+            launchCollect(ranges.get(i), i, combineTree);
+        }
+    }
+
+    private void launchCollect(final List range, final int rangeIndex, final CombineTree combineTree) {
+        mAwex.submit(new Task<Void, P>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected Void run() throws InterruptedException {
+                if (CollectorPromise.this.getState() == STATE_PENDING) {
+                    Object result = combineTree.complete(rangeIndex, collect(range, range.size()));
+                    if (result != CombineTree.PENDING) {
+                        finish((A) result);
+                    }
+                }
+                return null;
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                CollectorPromise.this.cancelTask();
+            }
+        });
+    }
+
+    private A collect(Iterable items, int expectedSize) {
+        A container = mCollector.newContainer(expectedSize);
+        for (Object item : items) {
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value != AbstractSingleThreadPromise.FILTERED_OUT) {
+                mCollector.add(container, value);
+            }
+        }
+        return mCollector.finishRange(container);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finish(A container) {
+        tryResolve(mCollector.toResult(container));
+    }
+
+    /**
+     * Sorts every range with a stable sort and merges adjacent ranges taking the item of the
+     * left one on ties, so the whole sort is stable
+     */
+    static class SortCollector implements Collector<List> {
+
+        private final Comparator mComparator;
+
+        public SortCollector(Comparator comparator) {
+            mComparator = comparator;
+        }
+
+        @Override
+        public List newContainer(int expectedSize) {
+            return new ArrayList(expectedSize);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(List container, Object item) {
+            container.add(item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List finishRange(List container) {
+            Collections.sort(container, mComparator);
+            return container;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List combine(List left, List right) {
+            List merged = new ArrayList(left.size() + right.size());
+            int i = 0;
+            int j = 0;
+            while (i < left.size() && j < right.size()) {
+                if (mComparator.compare(right.get(j), left.get(i)) < 0) {
+                    merged.add(right.get(j++));
+                } else {
+                    merged.add(left.get(i++));
+                }
+            }
+            merged.addAll(left.subList(i, left.size()));
+            merged.addAll(right.subList(j, right.size()));
+            return merged;
+        }
+
+        @Override
+        public Collection toResult(List container) {
+            return container;
+        }
+    }
+
+    /**
+     * Keeps the first k items in the order of the comparator in a bounded heap per range, whose
+     * head is the greatest item kept, so every item is compared with it only once it is full
+     */
+    static class TopKCollector implements Collector<PriorityQueue> {
+
+        private final int mK;
+        private final Comparator mComparator;
+
+        public TopKCollector(int k, Comparator comparator) {
+            if (k < 0) {
+                throw new IllegalArgumentException("K must not be negative");
+            }
+            mK = k;
+            mComparator = comparator;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public PriorityQueue newContainer(int expectedSize) {
+            return new PriorityQueue(Math.max(1, Math.min(mK, expectedSize) + 1), Collections.reverseOrder(mComparator));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(PriorityQueue container, Object item) {
+            if (container.size() < mK) {
+                container.offer(item);
+            } else if (mK > 0 && mComparator.compare(item, container.peek()) < 0) {
+                container.poll();
+                container.offer(item);
+            }
+        }
+
+        @Override
+        public PriorityQueue finishRange(PriorityQueue container) {
+            return container;
+        }
+
+        @Override
+        public PriorityQueue combine(PriorityQueue left, PriorityQueue right) {
+            for (Object item : right) {
+                add(left, item);
+            }
+            return left;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Collection toResult(PriorityQueue container) {
+            List result = new ArrayList(container);
+            Collections.sort(result, mComparator);
+            return result;
+        }
+    }
+}
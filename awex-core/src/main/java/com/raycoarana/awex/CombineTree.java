@@ -0,0 +1,86 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.Reducer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binary tree that combines the partial results of contiguous ranges of items, in the order of
+ * the ranges, as they complete. The thread that completes the second child of a node combines
+ * both children and goes up, so combining needs no extra tasks and independent subtrees are
+ * combined concurrently.
+ */
+class CombineTree {
+
+    /**
+     * Returned by complete() while there are ranges pending
+     */
+    static final Object PENDING = new Object();
+
+    private final Node[] mLeafParents;
+    private final boolean[] mLeafIsLeft;
+    private final Reducer<Object> mCombiner;
+
+    /**
+     * @param combiner combines the results of two adjacent ranges, first one on the left
+     */
+    @SuppressWarnings("unchecked")
+    public CombineTree(int numberOfRanges, Reducer<?> combiner) {
+        mLeafParents = new Node[numberOfRanges];
+        mLeafIsLeft = new boolean[numberOfRanges];
+        mCombiner = (Reducer<Object>) combiner;
+        build(0, numberOfRanges, null, true);
+    }
+
+    private void build(int from, int to, Node parent, boolean isLeft) {
+        if (to - from == 1) {
+            mLeafParents[from] = parent;
+            mLeafIsLeft[from] = isLeft;
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        Node node = new Node(parent, isLeft);
+        build(from, middle, node, true);
+        build(middle, to, node, false);
+    }
+
+    /**
+     * Stores the result of a range and combines it with the results of its siblings while they
+     * are complete
+     *
+     * @return the result of all ranges if this range was the last one, PENDING otherwise
+     */
+    Object complete(int range, Object result) {
+        Node node = mLeafParents[range];
+        boolean isLeft = mLeafIsLeft[range];
+        while (node != null) {
+            if (isLeft) {
+                node.mLeft = result;
+            } else {
+                node.mRight = result;
+            }
+            if (node.mPendingChildren.decrementAndGet() != 0) {
+                return PENDING;
+            }
+            result = mCombiner.reduce(node.mLeft, node.mRight);
+            isLeft = node.mIsLeft;
+            node = node.mParent;
+        }
+        return result;
+    }
+
+    private static class Node {
+
+        private final Node mParent;
+        private final boolean mIsLeft;
+        private final AtomicInteger mPendingChildren = new AtomicInteger(2);
+        private Object mLeft;
+        private Object mRight;
+
+        public Node(Node parent, boolean isLeft) {
+            mParent = parent;
+            mIsLeft = isLeft;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes duplicated items of a collection promise keeping the first occurrence of every item,
+ * applying the pending operations of its chain to every item in the same pass.
+ *
+ * In parallel, every range of items is processed in a task that claims the index of the items in
+ * a concurrent map shared by all ranges, keeping the lowest index for every item. Once all ranges
+ * are done, every range keeps in a second task the items whose claimed index is their own, so
+ * results are concatenated in the order of the first occurrences without any lock.
+ */
+class DistinctPromise<T, P> extends AwexCollectionPromise<T, P> {
+
+    // concurrent maps do not allow null keys
+    private static final Object NULL_KEY = new Object();
+
+    private final Apply[] mApplyChain;
+    private final boolean mParallel;
+
+    @SuppressWarnings("unchecked")
+    public DistinctPromise(Awex awex, CollectionPromise<T, P> promise, boolean parallel) {
+        super(awex);
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        mParallel = parallel;
+
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                if (mParallel && mAwex.getNumberOfThreads() > 1 && items.size() > 1) {
+                    distinctInParallel(items);
+                } else {
+                    try {
+                        tryResolve(distinct(items));
+                    } catch (RuntimeException ex) {
+                        tryReject(ex);
+                    }
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                DistinctPromise.this.cancelTask();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<T> distinct(Collection items) {
+        Set<T> results = new LinkedHashSet<>();
+        for (Object item : items) {
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value != AbstractSingleThreadPromise.FILTERED_OUT) {
+                results.add((T) value);
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    private void distinctInParallel(Collection items) {
+        final List<List> ranges = AbstractMultiThreadPromise.split(items, mAwex.getNumberOfThreads());
+        final ConcurrentHashMap<Object, Integer> firstIndexes = new ConcurrentHashMap<>(items.size());
+        final Candidates[] candidates = new Candidates[ranges.size()];
+
+        List<Promise<Void, P>> promises = new ArrayList<>(ranges.size());
+        int rangeStart = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            final int rangeIndex = i;
+            final List range = ranges.get(i);
+            final int firstIndex = rangeStart;
+            promises.add(launch(new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    candidates[rangeIndex] = claim(range, firstIndex, firstIndexes);
+                    return null;
+                }
+            }));
+            rangeStart += range.size();
+        }
+
+        afterAll(promises, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            public void onDone(MultipleResult<Void, P> result) {
+                if (getState() == STATE_PENDING) {
+                    keepFirstOccurrences(candidates, firstIndexes);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the items of the range that got through the chain, with their index
+     */
+    private Candidates claim(List range, int firstIndex, ConcurrentHashMap<Object, Integer> firstIndexes) {
+        Candidates candidates = new Candidates(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, range.get(i));
+            if (value == AbstractSingleThreadPromise.FILTERED_OUT) {
+                continue;
+            }
+
+            Object key = value != null ? value : NULL_KEY;
+            Integer index = firstIndex + i;
+            Integer claimedIndex = firstIndexes.putIfAbsent(key, index);
+            while (claimedIndex != null && claimedIndex > index && !firstIndexes.replace(key, claimedIndex, index)) {
+                claimedIndex = firstIndexes.get(key);
+            }
+            if (claimedIndex == null || claimedIndex > index) {
+                candidates.add(index, value);
+            }
+        }
+        return candidates;
+    }
+
+    private void keepFirstOccurrences(final Candidates[] candidates, final ConcurrentHashMap<Object, Integer> firstIndexes) {
+        final Object[] rangeResults = new Object[candidates.length];
+        List<Promise<Void, P>> promises = new ArrayList<>(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            final int rangeIndex = i;
+            promises.add(launch(new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    rangeResults[rangeIndex] = candidates[rangeIndex].keepClaimed(firstIndexes);
+                    return null;
+                }
+            }));
+        }
+
+        afterAll(promises, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onDone(MultipleResult<Void, P> result) {
+                if (getState() != STATE_PENDING) {
+                    return;
+                }
+                int size = 0;
+                for (Object rangeResult : rangeResults) {
+                    size += ((List) rangeResult).size();
+                }
+                List<T> results = new ArrayList<>(size);
+                for (Object rangeResult : rangeResults) {
+                    results.addAll((List<T>) rangeResult);
+                }
+                tryResolve(results);
+            }
+        });
+    }
+
+    private Promise<Void, P> launch(Task<Void, P> task) {
+        Promise<Void, P> promise = mAwex.submit(task);
+        promise.fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        });
+        return promise;
+    }
+
+    private void afterAll(List<Promise<Void, P>> promises, DoneCallback<MultipleResult<Void, P>> callback) {
+        new AfterAllPromise<>(mAwex, promises).done(callback).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                DistinctPromise.this.cancelTask();
+            }
+        });
+    }
+
+    /**
+     * Items of a range that were the first occurrence when they were claimed
+     */
+    private static class Candidates {
+
+        private final int[] mIndexes;
+        private final Object[] mItems;
+        private int mSize;
+
+        public Candidates(int capacity) {
+            mIndexes = new int[capacity];
+            mItems = new Object[capacity];
+        }
+
+        public void add(int index, Object item) {
+            mIndexes[mSize] = index;
+            mItems[mSize] = item;
+            mSize++;
+        }
+
+        /**
+         * @return the items whose first occurrence is still the one of this range
+         */
+        public List<Object> keepClaimed(ConcurrentHashMap<Object, Integer> firstIndexes) {
+            List<Object> items = new ArrayList<>(mSize);
+            for (int i = 0; i < mSize; i++) {
+                Object key = mItems[i] != null ? mItems[i] : NULL_KEY;
+                if (firstIndexes.get(key) == mIndexes[i]) {
+                    items.add(mItems[i]);
+                }
+            }
+            return items;
+        }
+    }
+}
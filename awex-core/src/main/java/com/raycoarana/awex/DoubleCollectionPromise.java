@@ -0,0 +1,43 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.DoubleFilter;
+import com.raycoarana.awex.transform.DoubleMapper;
+import com.raycoarana.awex.transform.DoubleReducer;
+
+/**
+ * Collection promise of double values backed by an array, so values are never boxed. Operations run
+ * over the whole array as soon as the previous promise is resolved.
+ *
+ * @see CollectionPromise#mapToDouble(com.raycoarana.awex.transform.ToDoubleMapper)
+ * @see Awex#ofDoubles(double[])
+ */
+public interface DoubleCollectionPromise<P> extends Promise<double[], P> {
+
+    DoubleCollectionPromise<P> filter(DoubleFilter filter);
+
+    DoubleCollectionPromise<P> filterParallel(DoubleFilter filter);
+
+    DoubleCollectionPromise<P> map(DoubleMapper mapper);
+
+    DoubleCollectionPromise<P> mapParallel(DoubleMapper mapper);
+
+    /**
+     * Reduces the values to a single one, the promise is rejected with AbsentValueException if
+     * there are no values to reduce.
+     */
+    Promise<Double, P> reduce(DoubleReducer reducer);
+
+    /**
+     * Reduces the values in parallel, one range of values per thread, combining the partial
+     * results in order, so the reducer must be associative.
+     *
+     * @see #reduce(DoubleReducer)
+     */
+    Promise<Double, P> reduceParallel(DoubleReducer reducer);
+
+    /**
+     * @return a collection promise with the values boxed, to continue with operations of the
+     * object form
+     */
+    CollectionPromise<Double, P> boxed();
+}
@@ -0,0 +1,19 @@
+package com.raycoarana.awex;
+
+/**
+ * Sink of the items produced by a StreamingTask
+ *
+ * @param <T> type of the items
+ * @see StreamingTask
+ */
+public interface Emitter<T> {
+
+    /**
+     * Emits the item, it is available to the stages of the stream once its batch is complete
+     * or when the task finishes
+     *
+     * @param item item to emit
+     */
+    void emit(T item);
+
+}
@@ -0,0 +1,349 @@
+package com.raycoarana.awex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue shared by all its workers with one FIFO lane per priority level, from PRIORITY_LOWEST to
+ * PRIORITY_HIGH, so inserting and taking a task are O(1) and tasks with the same priority are
+ * taken in the same order they were inserted. Tasks with any other priority go to an overflow
+ * heap, ordered by priority and then by insertion order.
+ *
+ * With aging enabled, the effective priority of a task grows by one level every aging rate
+ * milliseconds it waits in the queue. As lanes are FIFO the head of a lane is its oldest task,
+ * so only the heads need to be compared on every take. The overflow heap is then ordered by the
+ * aged priority instead, which keeps the same order whatever the time, so its head is also the
+ * task with the highest aged priority.
+ */
+class FifoPriorityTaskQueue extends AwexTaskQueue {
+
+    private static final int NUMBER_OF_LANES = Task.PRIORITY_HIGH - Task.PRIORITY_LOWEST + 1;
+    private static final long NO_AGING = 0;
+
+    private final ReentrantLock mLock = new ReentrantLock();
+    private final Condition mNotEmpty = mLock.newCondition();
+    private final ArrayDeque<Task>[] mLanes;
+    // sum of the queue times of the tasks of every lane, relative to mBaseTime
+    private final long[] mLaneQueueTimes = new long[NUMBER_OF_LANES];
+    private final PriorityQueue<OverflowEntry> mOverflow = new PriorityQueue<>();
+    private final long mAgingRateMs;
+    private final long mBaseTime = Task.currentTimeMillis();
+    private int mNonEmptyLanes;
+    private long mSequence;
+
+    public FifoPriorityTaskQueue(int id) {
+        this(id, NO_AGING);
+    }
+
+    /**
+     * @param id id of the queue
+     * @param agingRateMs milliseconds a task must wait to raise its priority one level, 0 to
+     *                    disable aging
+     */
+    @SuppressWarnings("unchecked")
+    public FifoPriorityTaskQueue(int id, long agingRateMs) {
+        super(id);
+        if (agingRateMs < 0) {
+            throw new IllegalArgumentException("Aging rate must not be negative");
+        }
+        mAgingRateMs = agingRateMs;
+        mLanes = new ArrayDeque[NUMBER_OF_LANES];
+        for (int i = 0; i < NUMBER_OF_LANES; i++) {
+            mLanes[i] = new ArrayDeque<>();
+        }
+    }
+
+    @Override
+    public Task take(Worker worker) throws InterruptedException {
+        checkAlive();
+
+        mWaitersCount.incrementAndGet();
+        try {
+            mLock.lockInterruptibly();
+            try {
+                while (mSize.get() == 0) {
+                    mNotEmpty.await();
+                }
+                Task task = mAgingRateMs != NO_AGING ? pollAged() : poll();
+                mSize.decrementAndGet();
+                task.setWorker(worker);
+                return task;
+            } finally {
+                mLock.unlock();
+            }
+        } finally {
+            mWaitersCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void insert(Task task) {
+        mLock.lock();
+        try {
+            checkAlive();
+
+            add(task);
+            mSize.incrementAndGet();
+            mNotEmpty.signal();
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public void insertAll(Collection<Task> tasks) {
+        mLock.lock();
+        try {
+            checkAlive();
+
+            for (Task task : tasks) {
+                add(task);
+            }
+            mSize.addAndGet(tasks.size());
+            for (int i = 0; i < tasks.size() && mLock.hasWaiters(mNotEmpty); i++) {
+                mNotEmpty.signal();
+            }
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public <Result, Progress> boolean remove(Task<Result, Progress> task) {
+        mLock.lock();
+        try {
+            checkAlive();
+
+            boolean removed;
+            int lane = laneOf(task.getPriority());
+            if (lane >= 0) {
+                removed = mLanes[lane].removeFirstOccurrence(task);
+                if (removed) {
+                    onRemovedFromLane(lane, task);
+                }
+            } else {
+                removed = removeFromOverflow(task);
+            }
+            if (removed) {
+                mSize.decrementAndGet();
+            }
+            return removed;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    protected Iterable<Task> getQueuedTasks() {
+        mLock.lock();
+        try {
+            List<Task> tasks = new ArrayList<>(mSize.get());
+            for (ArrayDeque<Task> lane : mLanes) {
+                tasks.addAll(lane);
+            }
+            for (OverflowEntry entry : mOverflow) {
+                tasks.add(entry.mTask);
+            }
+            return tasks;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public long getAverageQueueAge(int priority) {
+        int lane = laneOf(priority);
+        if (lane < 0) {
+            return super.getAverageQueueAge(priority);
+        }
+
+        mLock.lock();
+        try {
+            int count = mLanes[lane].size();
+            if (count == 0) {
+                return 0;
+            }
+            return Task.currentTimeMillis() - (mBaseTime + mLaneQueueTimes[lane] / count);
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public long getMaxQueueAge(int priority) {
+        int lane = laneOf(priority);
+        if (lane < 0) {
+            return super.getMaxQueueAge(priority);
+        }
+
+        mLock.lock();
+        try {
+            Task oldestTask = mLanes[lane].peekFirst();
+            return oldestTask != null ? Task.currentTimeMillis() - oldestTask.getQueueTime() : 0;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        List<Task> tasks = new ArrayList<>();
+        mLock.lock();
+        try {
+            mDie = true;
+
+            for (ArrayDeque<Task> lane : mLanes) {
+                tasks.addAll(lane);
+                lane.clear();
+            }
+            for (OverflowEntry entry : mOverflow) {
+                tasks.add(entry.mTask);
+            }
+            mOverflow.clear();
+            mNonEmptyLanes = 0;
+            for (int i = 0; i < NUMBER_OF_LANES; i++) {
+                mLaneQueueTimes[i] = 0;
+            }
+        } finally {
+            mLock.unlock();
+        }
+
+        for (Task task : tasks) {
+            task.getPromise().cancelTask();
+        }
+    }
+
+    private void add(Task task) {
+        int lane = laneOf(task.getPriority());
+        if (lane >= 0) {
+            mLanes[lane].addLast(task);
+            mLaneQueueTimes[lane] += task.getQueueTime() - mBaseTime;
+            mNonEmptyLanes |= 1 << lane;
+        } else {
+            mOverflow.offer(new OverflowEntry(task, overflowRank(task), mSequence++));
+        }
+    }
+
+    private Task poll() {
+        OverflowEntry overflowHead = mOverflow.peek();
+        if (overflowHead != null && overflowHead.mPriority > Task.PRIORITY_HIGH) {
+            return mOverflow.poll().mTask;
+        }
+        if (mNonEmptyLanes != 0) {
+            return pollLane(31 - Integer.numberOfLeadingZeros(mNonEmptyLanes));
+        }
+        return mOverflow.poll().mTask;
+    }
+
+    private Task pollAged() {
+        long now = Task.currentTimeMillis();
+        int bestLane = -1;
+        long bestScore = Long.MIN_VALUE;
+        long bestQueueTime = Long.MAX_VALUE;
+        for (int lane = NUMBER_OF_LANES - 1; lane >= 0; lane--) {
+            Task head = mLanes[lane].peekFirst();
+            if (head != null) {
+                long queueTime = head.getQueueTime();
+                long score = agedScore(head.getPriority(), now - queueTime);
+                if (score > bestScore || (score == bestScore && queueTime < bestQueueTime)) {
+                    bestLane = lane;
+                    bestScore = score;
+                    bestQueueTime = queueTime;
+                }
+            }
+        }
+
+        OverflowEntry overflowHead = mOverflow.peek();
+        if (overflowHead != null) {
+            long queueTime = overflowHead.mTask.getQueueTime();
+            long score = agedScore(overflowHead.mPriority, now - queueTime);
+            if (bestLane < 0 || score > bestScore || (score == bestScore && queueTime < bestQueueTime)) {
+                return mOverflow.poll().mTask;
+            }
+        }
+        return pollLane(bestLane);
+    }
+
+    /**
+     * @return the rank of the task in the overflow heap: its priority, or with aging, its aged
+     * score minus the current time, as all tasks age at the same rate
+     */
+    private long overflowRank(Task task) {
+        if (mAgingRateMs == NO_AGING) {
+            return task.getPriority();
+        }
+        return task.getPriority() * mAgingRateMs - (task.getQueueTime() - mBaseTime);
+    }
+
+    /**
+     * Effective priority of a task scaled by the aging rate, so ages are compared without losing
+     * precision: a task gets the score of the next priority level after waiting agingRate ms.
+     */
+    private long agedScore(int priority, long age) {
+        return priority * mAgingRateMs + Math.max(age, 0);
+    }
+
+    private Task pollLane(int lane) {
+        Task task = mLanes[lane].pollFirst();
+        onRemovedFromLane(lane, task);
+        return task;
+    }
+
+    private void onRemovedFromLane(int lane, Task task) {
+        mLaneQueueTimes[lane] -= task.getQueueTime() - mBaseTime;
+        if (mLanes[lane].isEmpty()) {
+            mNonEmptyLanes &= ~(1 << lane);
+            mLaneQueueTimes[lane] = 0;
+        }
+    }
+
+    private boolean removeFromOverflow(Task task) {
+        Iterator<OverflowEntry> iterator = mOverflow.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().mTask == task) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the lane of the priority, or -1 if it goes to the overflow heap
+     */
+    private static int laneOf(int priority) {
+        if (priority < Task.PRIORITY_LOWEST || priority > Task.PRIORITY_HIGH) {
+            return -1;
+        }
+        return priority - Task.PRIORITY_LOWEST;
+    }
+
+    private static class OverflowEntry implements Comparable<OverflowEntry> {
+
+        private final Task mTask;
+        private final int mPriority;
+        private final long mRank;
+        private final long mSequence;
+
+        public OverflowEntry(Task task, long rank, long sequence) {
+            mTask = task;
+            mPriority = task.getPriority();
+            mRank = rank;
+            mSequence = sequence;
+        }
+
+        @Override
+        public int compareTo(OverflowEntry other) {
+            if (mRank != other.mRank) {
+                return mRank > other.mRank ? -1 : 1;
+            }
+            return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+        }
+    }
+}
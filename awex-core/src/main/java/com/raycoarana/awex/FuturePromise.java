@@ -0,0 +1,73 @@
+package com.raycoarana.awex;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Promise completed with the outcome of a future that is not done yet. Plain futures have no way
+ * to notify their completion, so the future is polled from the timer wheel, doubling the delay
+ * between polls up to a maximum, and no worker of the pool is ever blocked waiting for it. Once
+ * the future is done, the promise is completed from a callback thread so the timer is never
+ * delayed by the callbacks of the promise. Cancelling the promise cancels the future.
+ */
+class FuturePromise<Result, Progress> extends AwexPromise<Result, Progress> {
+
+    private static final int FIRST_POLL_DELAY_MS = 10;
+    private static final int MAX_POLL_DELAY_MS = 500;
+
+    private final Future<Result> mFuture;
+    private int mPollDelay = FIRST_POLL_DELAY_MS;
+
+    public FuturePromise(Awex awex, Future<Result> future) {
+        super(awex);
+        mFuture = future;
+        mAwex.schedule(mPoll, mPollDelay);
+    }
+
+    @Override
+    public void cancelTask(boolean mayInterrupt) {
+        if (tryCancel(mayInterrupt)) {
+            mPoll.cancel();
+            mFuture.cancel(mayInterrupt);
+        }
+    }
+
+    private void complete() {
+        try {
+            tryResolve(mFuture.get());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            tryReject(cause instanceof Exception ? (Exception) cause : ex);
+        } catch (CancellationException ex) {
+            cancelTask();
+        } catch (InterruptedException ex) {
+            // a done future never blocks
+            Thread.currentThread().interrupt();
+            tryReject(ex);
+        }
+    }
+
+    private final TimerWheel.Timeout mPoll = new TimerWheel.Timeout() {
+
+        @Override
+        public void run() {
+            if (getState() != STATE_PENDING) {
+                return;
+            }
+            if (mFuture.isDone()) {
+                mAwex.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        complete();
+                    }
+                }, FuturePromise.this);
+            } else {
+                mPollDelay = Math.min(mPollDelay * 2, MAX_POLL_DELAY_MS);
+                mAwex.schedule(this, mPollDelay);
+            }
+        }
+
+    };
+
+}
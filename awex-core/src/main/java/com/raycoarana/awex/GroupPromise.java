@@ -0,0 +1,301 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the items of a collection promise by a key, applying the pending operations of its
+ * chain to every item in the same pass.
+ *
+ * In parallel, every range of items is grouped in a task in its own tables, one per partition of
+ * the keys, so no table is shared while grouping. Once all ranges are done, every partition is
+ * merged in a task of its own, taking the tables of the ranges in order. Every range also keeps
+ * its keys in the order they were first found, so groups end up in the order of their first item
+ * as they do when grouping sequentially.
+ */
+class GroupPromise<T, K, V, P> extends AwexPromise<Map<K, V>, P> {
+
+    /**
+     * Strategy to build the value of a group from its items
+     */
+    interface Grouping<V> {
+
+        V newGroup(Object item);
+
+        V add(V group, Object item);
+
+        /**
+         * Merges the groups of the same key of two ranges, first one on the left
+         */
+        V merge(V left, V right);
+    }
+
+    private final Apply[] mApplyChain;
+    private final Mapper<T, K> mKeyMapper;
+    private final Grouping<V> mGrouping;
+    private final boolean mParallel;
+
+    @SuppressWarnings("unchecked")
+    public GroupPromise(Awex awex, CollectionPromise<T, P> promise, Mapper<T, K> keyMapper, Grouping<V> grouping,
+                        boolean parallel) {
+        super(awex);
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        mKeyMapper = keyMapper;
+        mGrouping = grouping;
+        mParallel = parallel;
+
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                if (mParallel && mAwex.getNumberOfThreads() > 1 && items.size() > 1) {
+                    groupInParallel(items);
+                } else {
+                    try {
+                        Map<K, V> groups = new LinkedHashMap<>();
+                        group(items, new Map[]{groups}, null);
+                        tryResolve(groups);
+                    } catch (RuntimeException ex) {
+                        tryReject(ex);
+                    }
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                GroupPromise.this.cancelTask();
+            }
+        });
+    }
+
+    private void groupInParallel(Collection items) {
+        final List<List> ranges = AbstractMultiThreadPromise.split(items, mAwex.getNumberOfThreads());
+        final int numberOfPartitions = ranges.size();
+        final Map[][] rangeTables = new Map[ranges.size()][];
+        final List[] rangeKeys = new List[ranges.size()];
+
+        List<Promise<Void, P>> promises = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            final int rangeIndex = i;
+            promises.add(launch(new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    Map[] tables = new Map[numberOfPartitions];
+                    List<K> keys = new ArrayList<>();
+                    group(ranges.get(rangeIndex), tables, keys);
+                    rangeTables[rangeIndex] = tables;
+                    rangeKeys[rangeIndex] = keys;
+                    return null;
+                }
+            }));
+        }
+
+        afterAll(promises, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            public void onDone(MultipleResult<Void, P> result) {
+                if (getState() == STATE_PENDING) {
+                    mergePartitions(rangeTables, rangeKeys, numberOfPartitions);
+                }
+            }
+        });
+    }
+
+    /**
+     * Groups the items in the tables, one per partition of the keys, created when needed
+     *
+     * @param keys list where keys are added in the order they are first found, or null
+     */
+    @SuppressWarnings("unchecked")
+    private void group(Iterable items, Map[] tables, List<K> keys) {
+        for (Object item : items) {
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value == AbstractSingleThreadPromise.FILTERED_OUT) {
+                continue;
+            }
+
+            K key = mKeyMapper.map((T) value);
+            int partition = partitionOf(key, tables.length);
+            Map<K, V> table = tables[partition];
+            if (table == null) {
+                table = new HashMap<>();
+                tables[partition] = table;
+            }
+            if (table.containsKey(key)) {
+                table.put(key, mGrouping.add(table.get(key), value));
+            } else {
+                table.put(key, mGrouping.newGroup(value));
+                if (keys != null) {
+                    keys.add(key);
+                }
+            }
+        }
+    }
+
+    private void mergePartitions(final Map[][] rangeTables, final List[] rangeKeys, final int numberOfPartitions) {
+        final Map[] partitions = new Map[numberOfPartitions];
+        List<Promise<Void, P>> promises = new ArrayList<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            final int partition = i;
+            promises.add(launch(new Task<Void, P>() {
+                @Override
+                protected Void run() throws InterruptedException {
+                    partitions[partition] = mergePartition(rangeTables, partition);
+                    return null;
+                }
+            }));
+        }
+
+        afterAll(promises, new DoneCallback<MultipleResult<Void, P>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onDone(MultipleResult<Void, P> result) {
+                if (getState() != STATE_PENDING) {
+                    return;
+                }
+                int size = 0;
+                for (Map partition : partitions) {
+                    size += partition != null ? partition.size() : 0;
+                }
+                Map<K, V> groups = new LinkedHashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+                for (List<K> keys : rangeKeys) {
+                    for (K key : keys) {
+                        if (!groups.containsKey(key)) {
+                            groups.put(key, (V) partitions[partitionOf(key, numberOfPartitions)].get(key));
+                        }
+                    }
+                }
+                tryResolve(groups);
+            }
+        });
+    }
+
+    /**
+     * @return the table of the partition of the first range with the groups of the next ranges
+     * merged into it
+     */
+    @SuppressWarnings("unchecked")
+    private Map<K, V> mergePartition(Map[][] rangeTables, int partition) {
+        Map<K, V> merged = null;
+        for (Map[] tables : rangeTables) {
+            Map<K, V> table = tables[partition];
+            if (table == null) {
+                continue;
+            }
+            if (merged == null) {
+                merged = table;
+                continue;
+            }
+            for (Map.Entry<K, V> entry : table.entrySet()) {
+                K key = entry.getKey();
+                if (merged.containsKey(key)) {
+                    merged.put(key, mGrouping.merge(merged.get(key), entry.getValue()));
+                } else {
+                    merged.put(key, entry.getValue());
+                }
+            }
+        }
+        return merged;
+    }
+
+    private static int partitionOf(Object key, int numberOfPartitions) {
+        if (key == null || numberOfPartitions == 1) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % numberOfPartitions;
+    }
+
+    private Promise<Void, P> launch(Task<Void, P> task) {
+        Promise<Void, P> promise = mAwex.submit(task);
+        promise.fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        });
+        return promise;
+    }
+
+    private void afterAll(List<Promise<Void, P>> promises, DoneCallback<MultipleResult<Void, P>> callback) {
+        new AfterAllPromise<>(mAwex, promises).done(callback).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                GroupPromise.this.cancelTask();
+            }
+        });
+    }
+
+    /**
+     * Keeps the items of every group in a list, in order
+     */
+    static class ListGrouping implements Grouping<List> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List newGroup(Object item) {
+            List group = new ArrayList();
+            group.add(item);
+            return group;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List add(List group, Object item) {
+            group.add(item);
+            return group;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List merge(List left, List right) {
+            left.addAll(right);
+            return left;
+        }
+    }
+
+    /**
+     * Reduces the items of every group in order
+     */
+    static class ReducerGrouping implements Grouping<Object> {
+
+        private final Reducer mReducer;
+
+        public ReducerGrouping(Reducer reducer) {
+            mReducer = reducer;
+        }
+
+        @Override
+        public Object newGroup(Object item) {
+            return item;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object add(Object group, Object item) {
+            return mReducer.reduce(group, item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object merge(Object left, Object right) {
+            return mReducer.reduce(left, right);
+        }
+    }
+}
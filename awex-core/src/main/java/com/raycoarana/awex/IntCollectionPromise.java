@@ -0,0 +1,43 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.IntFilter;
+import com.raycoarana.awex.transform.IntMapper;
+import com.raycoarana.awex.transform.IntReducer;
+
+/**
+ * Collection promise of int values backed by an array, so values are never boxed. Operations run
+ * over the whole array as soon as the previous promise is resolved.
+ *
+ * @see CollectionPromise#mapToInt(com.raycoarana.awex.transform.ToIntMapper)
+ * @see Awex#ofInts(int[])
+ */
+public interface IntCollectionPromise<P> extends Promise<int[], P> {
+
+    IntCollectionPromise<P> filter(IntFilter filter);
+
+    IntCollectionPromise<P> filterParallel(IntFilter filter);
+
+    IntCollectionPromise<P> map(IntMapper mapper);
+
+    IntCollectionPromise<P> mapParallel(IntMapper mapper);
+
+    /**
+     * Reduces the values to a single one, the promise is rejected with AbsentValueException if
+     * there are no values to reduce.
+     */
+    Promise<Integer, P> reduce(IntReducer reducer);
+
+    /**
+     * Reduces the values in parallel, one range of values per thread, combining the partial
+     * results in order, so the reducer must be associative.
+     *
+     * @see #reduce(IntReducer)
+     */
+    Promise<Integer, P> reduceParallel(IntReducer reducer);
+
+    /**
+     * @return a collection promise with the values boxed, to continue with operations of the
+     * object form
+     */
+    CollectionPromise<Integer, P> boxed();
+}
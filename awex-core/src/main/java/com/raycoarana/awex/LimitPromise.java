@@ -0,0 +1,67 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Takes the first items of a collection promise, applying the pending operations of its chain
+ * only until there are enough items, so the rest of the items are never processed.
+ */
+class LimitPromise<T, P> extends AwexCollectionPromise<T, P> {
+
+    private final Apply[] mApplyChain;
+    private final int mMaxItems;
+
+    @SuppressWarnings("unchecked")
+    public LimitPromise(Awex awex, CollectionPromise<T, P> promise, int maxItems) {
+        super(awex);
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("Max items must not be negative");
+        }
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        mMaxItems = maxItems;
+
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                try {
+                    tryResolve(limit(items));
+                } catch (RuntimeException ex) {
+                    tryReject(ex);
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                LimitPromise.this.cancelTask();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<T> limit(Collection items) {
+        List<T> results = new ArrayList<>(Math.min(items.size(), mMaxItems));
+        for (Object item : items) {
+            if (results.size() == mMaxItems) {
+                break;
+            }
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value != AbstractSingleThreadPromise.FILTERED_OUT) {
+                results.add((T) value);
+            }
+        }
+        return results;
+    }
+}
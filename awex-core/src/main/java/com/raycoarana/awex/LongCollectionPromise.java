@@ -0,0 +1,43 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.LongFilter;
+import com.raycoarana.awex.transform.LongMapper;
+import com.raycoarana.awex.transform.LongReducer;
+
+/**
+ * Collection promise of long values backed by an array, so values are never boxed. Operations run
+ * over the whole array as soon as the previous promise is resolved.
+ *
+ * @see CollectionPromise#mapToLong(com.raycoarana.awex.transform.ToLongMapper)
+ * @see Awex#ofLongs(long[])
+ */
+public interface LongCollectionPromise<P> extends Promise<long[], P> {
+
+    LongCollectionPromise<P> filter(LongFilter filter);
+
+    LongCollectionPromise<P> filterParallel(LongFilter filter);
+
+    LongCollectionPromise<P> map(LongMapper mapper);
+
+    LongCollectionPromise<P> mapParallel(LongMapper mapper);
+
+    /**
+     * Reduces the values to a single one, the promise is rejected with AbsentValueException if
+     * there are no values to reduce.
+     */
+    Promise<Long, P> reduce(LongReducer reducer);
+
+    /**
+     * Reduces the values in parallel, one range of values per thread, combining the partial
+     * results in order, so the reducer must be associative.
+     *
+     * @see #reduce(LongReducer)
+     */
+    Promise<Long, P> reduceParallel(LongReducer reducer);
+
+    /**
+     * @return a collection promise with the values boxed, to continue with operations of the
+     * object form
+     */
+    CollectionPromise<Long, P> boxed();
+}
@@ -5,6 +5,13 @@ import com.raycoarana.awex.transform.Filter;
 public class MultiThreadFilterPromise<Result, Progress> extends AbstractMultiThreadPromise<Result, Result, Progress> {
 
     public MultiThreadFilterPromise(Awex awex, CollectionPromise<Result, Progress> promise, final Filter<Result> filter) {
+        this(awex, promise, filter, PARALLEL_DEFAULT);
+    }
+
+    /**
+     * @param flags parallel flags, @see CollectionPromise#PARALLEL_DYNAMIC_CHUNKS
+     */
+    public MultiThreadFilterPromise(Awex awex, CollectionPromise<Result, Progress> promise, final Filter<Result> filter, int flags) {
         super(awex, promise, new Apply<Result, Result>() {
             @Override
             public boolean shouldApply(Result item) {
@@ -15,7 +22,7 @@ public class MultiThreadFilterPromise<Result, Progress> extends AbstractMultiThr
             public Result apply(Result item) {
                 return item;
             }
-        });
+        }, flags);
     }
 
 }
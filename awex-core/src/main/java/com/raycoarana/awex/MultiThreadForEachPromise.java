@@ -5,13 +5,20 @@ import com.raycoarana.awex.transform.Func;
 public class MultiThreadForEachPromise<Result, Progress> extends AbstractMultiThreadPromise<Result, Result, Progress> {
 
     public MultiThreadForEachPromise(Awex awex, CollectionPromise<Result, Progress> promise, final Func<Result> func) {
+        this(awex, promise, func, PARALLEL_DEFAULT);
+    }
+
+    /**
+     * @param flags parallel flags, @see CollectionPromise#PARALLEL_DYNAMIC_CHUNKS
+     */
+    public MultiThreadForEachPromise(Awex awex, CollectionPromise<Result, Progress> promise, final Func<Result> func, int flags) {
         super(awex, promise, new Apply.ApplyAdapter<Result, Result>() {
             @Override
             public Result apply(Result item) {
                 func.run(item);
                 return item;
             }
-        });
+        }, flags);
     }
 
 }
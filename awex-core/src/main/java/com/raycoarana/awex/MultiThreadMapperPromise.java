@@ -5,12 +5,19 @@ import com.raycoarana.awex.transform.Mapper;
 public class MultiThreadMapperPromise<T, U, Progress> extends AbstractMultiThreadPromise<T, U, Progress> {
 
     public MultiThreadMapperPromise(Awex awex, CollectionPromise<T, Progress> promise, final Mapper<T, U> mapper) {
+        this(awex, promise, mapper, PARALLEL_DEFAULT);
+    }
+
+    /**
+     * @param flags parallel flags, @see CollectionPromise#PARALLEL_DYNAMIC_CHUNKS
+     */
+    public MultiThreadMapperPromise(Awex awex, CollectionPromise<T, Progress> promise, final Mapper<T, U> mapper, int flags) {
         super(awex, promise, new Apply.ApplyAdapter<T, U>() {
             @Override
             public U apply(T item) {
                 return mapper.map(item);
             }
-        });
+        }, flags);
     }
 
 }
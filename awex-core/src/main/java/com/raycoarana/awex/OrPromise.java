@@ -24,11 +24,7 @@ class OrPromise<T, P> extends AwexPromise<T, P> {
                                 .fail(new FailCallback() {
                                     @Override
                                     public void onFail(Exception secondChoiceException) {
-                                        synchronized (OrPromise.this) {
-                                            if (getState() == STATE_PENDING) {
-                                                reject(new OrException(mainException, secondChoiceException));
-                                            }
-                                        }
+                                        tryReject(new OrException(mainException, secondChoiceException));
                                     }
                                 })
                                 .cancel(mCancellCallback);
@@ -39,32 +35,24 @@ class OrPromise<T, P> extends AwexPromise<T, P> {
 
     @Override
     public void cancelTask(boolean mayInterrupt) {
-        synchronized (this) {
-            super.cancelTask(mayInterrupt);
-            mMainPromise.cancelTask(mayInterrupt);
-            mSecondChoicePromise.cancelTask(mayInterrupt);
+        if (!tryCancel(mayInterrupt)) {
+            return;
         }
+        mMainPromise.cancelTask(mayInterrupt);
+        mSecondChoicePromise.cancelTask(mayInterrupt);
     }
 
     private final DoneCallback<T> mDoneCallback = new DoneCallback<T>() {
         @Override
         public void onDone(T result) {
-            synchronized (OrPromise.this) {
-                if (getState() == STATE_PENDING) {
-                    resolve(result);
-                }
-            }
+            tryResolve(result);
         }
     };
 
     private final CancelCallback mCancellCallback = new CancelCallback() {
         @Override
         public void onCancel() {
-            synchronized (OrPromise.this) {
-                if (getState() == STATE_PENDING) {
-                    cancelTask(false);
-                }
-            }
+            cancelTask(false);
         }
     };
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.raycoarana.awex;
 
+import java.util.Collection;
+
 public interface PoolManager {
 
     void createQueue(int queueId);
+    void createQueue(int queueId, int queueType);
+    void createAgingQueue(int queueId, long agingRateMs);
     void removeQueue(int queueId);
 
     void executeImmediately(Task task);
     void queueTask(int queueId, Task task);
+    void queueTasks(int queueId, Collection<Task> tasks);
     void mergeTask(Task taskInQueue, Task taskToMerge);
 
     int createWorker(int queueId, int priority);
     void removeWorker(int queueId, int workerId, boolean shouldInterrupt);
 
+    void scheduleWakeUp(long delayMs);
+
 }
\ No newline at end of file
@@ -2,8 +2,28 @@ package com.raycoarana.awex;
 
 import com.raycoarana.awex.state.PoolState;
 
+import java.util.Collection;
+
 public abstract class PoolPolicy {
 
+    /**
+     * Queue type: single queue shared by all its workers, sorted by task priority
+     */
+    public static final int QUEUE_TYPE_PRIORITY = 0;
+
+    /**
+     * Queue type: every worker owns a local deque and steals from its siblings when it runs out
+     * of tasks. Tasks submitted from a worker of the queue are pushed to its local deque. Best
+     * suited for many short tasks on many cores, where a single shared queue becomes contended.
+     */
+    public static final int QUEUE_TYPE_WORK_STEALING = 1;
+
+    /**
+     * Queue type: single queue shared by all its workers with a FIFO lane per priority level.
+     * Insert and take are O(1) and tasks with the same priority are executed in insertion order.
+     */
+    public static final int QUEUE_TYPE_FIFO_PRIORITY = 2;
+
     private PoolManager mPoolManager;
 
     public void initialize(PoolManager poolManager) {
@@ -20,6 +40,28 @@ public abstract class PoolPolicy {
         mPoolManager.createQueue(queueId);
     }
 
+    /**
+     * Creates a new queue of the provided type in the pool
+     *
+     * @param queueId id of the queue
+     * @param queueType type of the queue, @see QUEUE_TYPE_PRIORITY and QUEUE_TYPE_WORK_STEALING
+     */
+    public void createQueue(int queueId, int queueType) {
+        mPoolManager.createQueue(queueId, queueType);
+    }
+
+    /**
+     * Creates a new queue with FIFO lanes per priority (@see QUEUE_TYPE_FIFO_PRIORITY) where
+     * the priority of a task rises one level every agingRateMs it waits in the queue, so low
+     * priority tasks are not starved under a sustained load of higher priority ones.
+     *
+     * @param queueId id of the queue
+     * @param agingRateMs milliseconds a task must wait to raise its priority one level
+     */
+    public void createAgingQueue(int queueId, long agingRateMs) {
+        mPoolManager.createAgingQueue(queueId, agingRateMs);
+    }
+
     /**
      * Removes the queue from the pool, any worker associated with that queue will be interrupted
      *
@@ -39,6 +81,16 @@ public abstract class PoolPolicy {
         mPoolManager.queueTask(queueId, task);
     }
 
+    /**
+     * Queue all the tasks in the queue with the provided id at once
+     *
+     * @param queueId id of the destination queue
+     * @param tasks tasks to be queue
+     */
+    public void queueTasks(int queueId, Collection<Task> tasks) {
+        mPoolManager.queueTasks(queueId, tasks);
+    }
+
     /**
      * Merges a not queue task with an already queue (and maybe even already being executed) task,
      * so any result, error or progress from the task in the queue will be redirected to the
@@ -54,8 +106,8 @@ public abstract class PoolPolicy {
     }
 
     /**
-     * Create a temporal worker and executes the task in it immediately, after that the worker is
-     * aborted and the thread killed.
+     * Executes the task immediately in a real-time worker. Idle real-time workers are reused,
+     * if there is none a new one is created. Real-time workers die once they are idle for a while.
      *
      * @param task task to execute immediately
      */
@@ -103,6 +155,17 @@ public abstract class PoolPolicy {
         mPoolManager.removeWorker(queueId, workerId, interrupt);
     }
 
+    /**
+     * Schedules a call to onWakeUp after the delay, replacing any previously scheduled one. It
+     * lets the policy manage the pool when no other event will be dispatched, for example to
+     * remove idle workers.
+     *
+     * @param delayMs delay in milliseconds
+     */
+    public void scheduleWakeUp(long delayMs) {
+        mPoolManager.scheduleWakeUp(delayMs);
+    }
+
     /**
      * The pool is starting-up, its time to create the basic work queues and workers
      */
@@ -120,6 +183,19 @@ public abstract class PoolPolicy {
      */
     public abstract void onTaskAdded(PoolState poolState, Task task);
 
+    /**
+     * A batch of tasks is added to the pool. By default every task is placed calling
+     * onTaskAdded, override it to place the whole batch at once (@see queueTasks).
+     *
+     * @param poolState thread pool state
+     * @param tasks tasks added to the pool
+     */
+    public void onTasksAdded(PoolState poolState, Collection<Task> tasks) {
+        for (Task task : tasks) {
+            onTaskAdded(poolState, task);
+        }
+    }
+
     /**
      * Event dispatched when a task finishes. Policy could manage the state of the pool, reducing
      * the resources consumed by removing workers (@see removeWorker) or removing queues (@see remove
@@ -148,4 +224,13 @@ public abstract class PoolPolicy {
      */
     public abstract void onTaskExecutionTimeout(PoolState poolState, Task task);
 
+    /**
+     * Event dispatched when a wake up scheduled by the policy expires (@see scheduleWakeUp). It
+     * runs in the timer thread, so it must not block.
+     *
+     * @param poolState thread pool state
+     */
+    public void onWakeUp(PoolState poolState) {
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.raycoarana.awex;
+
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Queue shared by all its workers, backed by a single priority heap
+ */
+class PriorityTaskQueue extends AwexTaskQueue {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final PriorityBlockingQueue<Task> mTaskQueue;
+
+    public PriorityTaskQueue(int id) {
+        super(id);
+        mTaskQueue = new PriorityBlockingQueue<>(INITIAL_CAPACITY, new TaskPriorityComparator());
+    }
+
+    @Override
+    public Task take(Worker worker) throws InterruptedException {
+        checkAlive();
+
+        mWaitersCount.incrementAndGet();
+        try {
+            Task task = mTaskQueue.take();
+            mSize.decrementAndGet();
+            task.setWorker(worker);
+            return task;
+        } finally {
+            mWaitersCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized void insert(Task task) {
+        checkAlive();
+
+        mTaskQueue.offer(task);
+        mSize.incrementAndGet();
+    }
+
+    @Override
+    public synchronized void insertAll(Collection<Task> tasks) {
+        checkAlive();
+
+        mTaskQueue.addAll(tasks);
+        mSize.addAndGet(tasks.size());
+    }
+
+    @Override
+    public synchronized <Result, Progress> boolean remove(Task<Result, Progress> task) {
+        checkAlive();
+
+        boolean removed = mTaskQueue.remove(task);
+        if (removed) {
+            mSize.decrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    protected Iterable<Task> getQueuedTasks() {
+        return mTaskQueue;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        mDie = true;
+
+        for (Task task : mTaskQueue) {
+            task.getPromise().cancelTask();
+        }
+        mTaskQueue.clear();
+    }
+}
@@ -10,6 +10,9 @@ import com.raycoarana.awex.transform.Filter;
 import com.raycoarana.awex.transform.Mapper;
 
 import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public interface Promise<Result, Progress> {
 
@@ -84,6 +87,49 @@ public interface Promise<Result, Progress> {
      */
     Result getResultOrDefault(Result defaultValue) throws InterruptedException;
 
+    /**
+     * Will block the current thread until the promise if resolved, rejected or cancelled or the timeout
+     * expires. It will return the value of the promise in case of resolved or throw an exception in any
+     * other case.
+     *
+     * @param timeout max time to wait
+     * @param unit    unit of the timeout
+     * @return the result of the task if any
+     * @throws TimeoutException      if the promise is still pending when the timeout expires
+     * @throws IllegalStateException if the state of the promise is STATE_CANCELLED
+     * @throws Exception             an exception if the task fails to execute
+     */
+    Result getResult(long timeout, TimeUnit unit) throws Exception;
+
+    /**
+     * Same as getResult(long, TimeUnit), but when spin is true the current thread busy waits for a
+     * short time before parking, to react sooner to promises that are about to complete at the
+     * cost of some CPU.
+     *
+     * @param timeout max time to wait
+     * @param unit    unit of the timeout
+     * @param spin    true to spin before parking the thread
+     * @return the result of the task if any
+     * @throws TimeoutException      if the promise is still pending when the timeout expires
+     * @throws IllegalStateException if the state of the promise is STATE_CANCELLED
+     * @throws Exception             an exception if the task fails to execute
+     */
+    Result getResult(long timeout, TimeUnit unit, boolean spin) throws Exception;
+
+    /**
+     * Will block the current thread until the promise if resolved, rejected or cancelled or the timeout
+     * expires. It will return the value of the promise in case of resolved or return the defaultValue
+     * in any other case.
+     *
+     * @param defaultValue default value to return in case that the promise was rejected, cancelled or
+     *                     still pending when the timeout expires
+     * @param timeout      max time to wait
+     * @param unit         unit of the timeout
+     * @throws InterruptedException when the thread is interrupted while waiting for result
+     * @return the result of the task if any
+     */
+    Result getResultOrDefault(Result defaultValue, long timeout, TimeUnit unit) throws InterruptedException;
+
     Promise<Result, Progress> done(DoneCallback<Result> callback);
 
     Promise<Result, Progress> fail(FailCallback callback);
@@ -142,4 +188,13 @@ public interface Promise<Result, Progress> {
      */
     <T> CollectionPromise<T, Progress> stream();
 
+    /**
+     * Returns a future view of this promise, getting its value blocks on this promise and
+     * cancelling it cancels the task of this promise with Promise#cancelTask(boolean). A
+     * rejection is thrown by the future wrapped in an ExecutionException.
+     *
+     * @return a future backed by this promise
+     */
+    Future<Result> toFuture();
+
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.raycoarana.awex;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Future view of a promise, it holds no state of its own so waiting and cancelling go straight
+ * to the promise
+ */
+class PromiseFuture<Result> implements Future<Result> {
+
+    private final Promise<Result, ?> mPromise;
+
+    public PromiseFuture(Promise<Result, ?> promise) {
+        mPromise = promise;
+    }
+
+    Promise<Result, ?> getPromise() {
+        return mPromise;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!mPromise.isPending()) {
+            return false;
+        }
+        mPromise.cancelTask(mayInterruptIfRunning);
+        return mPromise.isCancelled();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return mPromise.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return mPromise.isCompleted();
+    }
+
+    @Override
+    public Result get() throws InterruptedException, ExecutionException {
+        try {
+            return mPromise.getResult();
+        } catch (Exception ex) {
+            throw translate(ex);
+        }
+    }
+
+    @Override
+    public Result get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return mPromise.getResult(timeout, unit);
+        } catch (TimeoutException ex) {
+            if (mPromise.isPending()) {
+                throw ex;
+            }
+            throw translate(ex);
+        } catch (Exception ex) {
+            throw translate(ex);
+        }
+    }
+
+    private ExecutionException translate(Exception ex) throws InterruptedException {
+        if (mPromise.isRejected()) {
+            return new ExecutionException(ex);
+        }
+        if (mPromise.isCancelled()) {
+            throw new CancellationException();
+        }
+        if (ex instanceof InterruptedException) {
+            throw (InterruptedException) ex;
+        }
+        return new ExecutionException(ex);
+    }
+
+}
@@ -1,20 +1,36 @@
 package com.raycoarana.awex;
 
+import java.util.concurrent.locks.LockSupport;
+
 class RealTimeWorker implements Runnable {
 
     private final long mId;
-    private final Task mTask;
+    private final Thread mThread;
+    private final RealTimeWorkerPool mPool;
     private final ThreadHelper mThreadHelper;
     private final Logger mLogger;
 
-    public RealTimeWorker(long id, Task task, ThreadHelper threadHelper, Logger logger) {
+    private volatile Task mTask;
+
+    public RealTimeWorker(long id, Task task, RealTimeWorkerPool pool, ThreadHelper threadHelper, Logger logger) {
         mId = id;
-        Thread thread = new Thread(this, "Awex real-time worker " + id);
+        mThread = new Thread(this, "Awex real-time worker " + id);
         mTask = task;
+        mPool = pool;
         mThreadHelper = threadHelper;
         mLogger = logger;
 
-        thread.start();
+        mThread.start();
+    }
+
+    /**
+     * Gives the next task to this idle worker
+     *
+     * @param task task to execute
+     */
+    void handOff(Task task) {
+        mTask = task;
+        LockSupport.unpark(mThread);
     }
 
     @Override
@@ -24,18 +40,59 @@ class RealTimeWorker implements Runnable {
             mLogger.v("Worker " + mId + " starting...");
         }
         try {
+            Task task = mTask;
+            while (task != null) {
+                execute(task);
+                task = waitForNextTask();
+            }
+        } finally {
+            mPool.onWorkerDied();
             if (mLogger.isEnabled()) {
-                mLogger.v("Worker " + mId + " start executing task " + mTask.getId());
+                mLogger.v("Worker " + mId + " dies");
             }
-            mTask.execute();
+        }
+    }
+
+    private void execute(Task task) {
+        try {
             if (mLogger.isEnabled()) {
-                mLogger.v("Worker " + mId + " ends executing task " + mTask.getId());
+                mLogger.v("Worker " + mId + " start executing task " + task.getId());
+            }
+            task.execute();
+            if (mLogger.isEnabled()) {
+                mLogger.v("Worker " + mId + " ends executing task " + task.getId());
             }
         } catch (InterruptedException ignored) {
         } finally {
-            if (mLogger.isEnabled()) {
-                mLogger.v("Worker " + mId + " dies");
+            Thread.interrupted();
+        }
+    }
+
+    private Task waitForNextTask() {
+        mTask = null;
+        mPool.onWorkerIdle(this);
+
+        long deadline = System.nanoTime() + mPool.getKeepAliveNanos();
+        boolean expired = false;
+        while (true) {
+            Task task = mTask;
+            if (task != null) {
+                return task;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (!expired && remaining <= 0) {
+                if (mPool.onWorkerExpired(this)) {
+                    return null;
+                }
+                expired = true;
+            }
+            if (expired) {
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, remaining);
             }
+            Thread.interrupted();
         }
     }
 
@@ -0,0 +1,82 @@
+package com.raycoarana.awex;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of real-time workers. Workers that finish a task wait parked for the next one during
+ * the keep-alive time before its thread dies, so a burst of real-time tasks does not pay the
+ * creation of a thread for each task.
+ */
+class RealTimeWorkerPool {
+
+    static final long DEFAULT_KEEP_ALIVE_MS = 10000;
+
+    private final AtomicInteger mThreadIdProvider;
+    private final ThreadHelper mThreadHelper;
+    private final Logger mLogger;
+    private final long mKeepAliveNanos;
+    private final ConcurrentLinkedQueue<RealTimeWorker> mIdleWorkers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mNumberOfWorkers = new AtomicInteger();
+    private final AtomicInteger mNumberOfIdleWorkers = new AtomicInteger();
+
+    public RealTimeWorkerPool(AtomicInteger threadIdProvider, ThreadHelper threadHelper, Logger logger, long keepAliveMs) {
+        mThreadIdProvider = threadIdProvider;
+        mThreadHelper = threadHelper;
+        mLogger = logger;
+        mKeepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMs);
+    }
+
+    public void execute(Task task) {
+        RealTimeWorker worker = mIdleWorkers.poll();
+        if (worker != null) {
+            mNumberOfIdleWorkers.decrementAndGet();
+            worker.handOff(task);
+        } else {
+            mNumberOfWorkers.incrementAndGet();
+            new RealTimeWorker(mThreadIdProvider.incrementAndGet(), task, this, mThreadHelper, mLogger);
+        }
+    }
+
+    /**
+     * Total number of real-time workers alive, either executing a task or waiting for one
+     */
+    public int size() {
+        return mNumberOfWorkers.get();
+    }
+
+    /**
+     * Number of real-time workers waiting for a task
+     */
+    public int idle() {
+        return mNumberOfIdleWorkers.get();
+    }
+
+    long getKeepAliveNanos() {
+        return mKeepAliveNanos;
+    }
+
+    void onWorkerIdle(RealTimeWorker worker) {
+        mNumberOfIdleWorkers.incrementAndGet();
+        mIdleWorkers.offer(worker);
+    }
+
+    /**
+     * Called by an idle worker when its keep-alive expires
+     *
+     * @return true if the worker could leave the pool, false if a task is being handed off to it
+     */
+    boolean onWorkerExpired(RealTimeWorker worker) {
+        if (mIdleWorkers.remove(worker)) {
+            mNumberOfIdleWorkers.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    void onWorkerDied() {
+        mNumberOfWorkers.decrementAndGet();
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.exceptions.AbsentValueException;
+import com.raycoarana.awex.transform.Accumulator;
+import com.raycoarana.awex.transform.Reducer;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Folds the items of a collection promise into a single value, applying the pending operations
+ * of its chain to every item in the same pass, so the mapped collection is never materialized.
+ *
+ * In parallel, items are split in one contiguous range per thread and every range is folded in a
+ * task of the pool. Partial results are combined in a CombineTree, that keeps the order of the
+ * ranges, for combiners that are associative but not commutative.
+ */
+class ReducePromise<T, U, P> extends AwexPromise<U, P> {
+
+    private static final Object NO_VALUE = new Object();
+
+    private final Apply[] mApplyChain;
+    private final Object mIdentity;
+    private final Accumulator<Object, Object> mAccumulator;
+    private final Reducer<Object> mCombiner;
+    private final boolean mParallel;
+
+    /**
+     * Reduces the items with the reducer, rejecting with AbsentValueException when there are no
+     * items to reduce
+     */
+    @SuppressWarnings("unchecked")
+    public ReducePromise(Awex awex, CollectionPromise<T, P> promise, final Reducer<T> reducer, boolean parallel) {
+        this(awex, promise, (U) NO_VALUE, (Accumulator) new Accumulator<Object, Object>() {
+            @Override
+            public Object accumulate(Object accumulated, Object value) {
+                return accumulated == NO_VALUE ? value : reducer.reduce((T) accumulated, (T) value);
+            }
+        }, (Reducer) new Reducer<Object>() {
+            @Override
+            public Object reduce(Object v1, Object v2) {
+                if (v1 == NO_VALUE) {
+                    return v2;
+                }
+                return v2 == NO_VALUE ? v1 : reducer.reduce((T) v1, (T) v2);
+            }
+        }, parallel);
+    }
+
+    /**
+     * Folds the items starting from the identity with the accumulator. In parallel every range
+     * starts from the identity and partial results are merged with the combiner.
+     */
+    @SuppressWarnings("unchecked")
+    public ReducePromise(Awex awex, CollectionPromise<T, P> promise,
+                         U identity, Accumulator<T, U> accumulator, Reducer<U> combiner, boolean parallel) {
+        super(awex);
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        mIdentity = identity;
+        mAccumulator = (Accumulator<Object, Object>) (Accumulator) accumulator;
+        mCombiner = (Reducer<Object>) (Reducer) combiner;
+        mParallel = parallel;
+
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                if (mParallel && mAwex.getNumberOfThreads() > 1 && items.size() > 1) {
+                    reduceInParallel(items);
+                } else {
+                    reduce(items);
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                ReducePromise.this.cancelTask();
+            }
+        });
+    }
+
+    private void reduce(Collection items) {
+        try {
+            finish(fold(items));
+        } catch (RuntimeException ex) {
+            tryReject(ex);
+        }
+    }
+
+    private void reduceInParallel(Collection items) {
+        List<List> ranges = AbstractMultiThreadPromise.split(items, mAwex.getNumberOfThreads());
+        CombineTree combineTree = new CombineTree(ranges.size(), mCombiner);
+        for (int i = 0; i < ranges.size() && getState() == STATE_PENDING; i++) {
+            launchFold(ranges.get(i), i, combineTree);
+        }
+    }
+
+    private void launchFold(final List range, final int rangeIndex, final CombineTree combineTree) {
+        mAwex.submit(new Task<Void, P>() {
+            @Override
+            protected Void run() throws InterruptedException {
+                if (ReducePromise.this.getState() == STATE_PENDING) {
+                    Object result = combineTree.complete(rangeIndex, fold(range));
+                    if (result != CombineTree.PENDING) {
+                        finish(result);
+                    }
+                }
+                return null;
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                ReducePromise.this.cancelTask();
+            }
+        });
+    }
+
+    private Object fold(Iterable items) {
+        Object accumulated = mIdentity;
+        for (Object item : items) {
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value != AbstractSingleThreadPromise.FILTERED_OUT) {
+                accumulated = mAccumulator.accumulate(accumulated, value);
+            }
+        }
+        return accumulated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finish(Object result) {
+        if (result == NO_VALUE) {
+            tryReject(new AbsentValueException());
+        } else {
+            tryResolve((U) result);
+        }
+    }
+}
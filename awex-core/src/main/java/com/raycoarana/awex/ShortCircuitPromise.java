@@ -0,0 +1,253 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.CancelCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+import com.raycoarana.awex.callbacks.FailCallback;
+import com.raycoarana.awex.exceptions.AbsentValueException;
+import com.raycoarana.awex.transform.Filter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Searches the items of a collection promise for one that matches, applying the pending
+ * operations of its chain to every item only until the search is decided.
+ *
+ * In parallel, items are split in one contiguous range per thread searched in a task each. Once
+ * a range finds a match every range that could not change the outcome stops at its next item,
+ * and tasks that did not start yet are cancelled. When looking for the first item, a match in a
+ * range decides the search only after every previous range finished without one.
+ */
+class ShortCircuitPromise<T, R, P> extends AwexPromise<R, P> {
+
+    /**
+     * Resolves with the first item in order, or rejects with AbsentValueException
+     */
+    static final int FIND_FIRST = 0;
+
+    /**
+     * Resolves with any item, or rejects with AbsentValueException
+     */
+    static final int FIND_ANY = 1;
+
+    /**
+     * Resolves with true if any item matches the filter
+     */
+    static final int ANY_MATCH = 2;
+
+    /**
+     * Resolves with true if every item matches the filter
+     */
+    static final int ALL_MATCH = 3;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Apply[] mApplyChain;
+    private final int mOperation;
+    private final Filter<T> mFilter;
+    private final boolean mParallel;
+    private final Object mLock = new Object();
+
+    private Promise[] mRangePromises;
+    private Object[] mRangeResults;
+    private boolean[] mCompletedRanges;
+    // ranges after this one can not change the outcome of the search
+    private volatile int mCutoffRange = Integer.MAX_VALUE;
+
+    /**
+     * @param filter filter of ANY_MATCH and ALL_MATCH, null for FIND_FIRST and FIND_ANY
+     */
+    @SuppressWarnings("unchecked")
+    public ShortCircuitPromise(Awex awex, CollectionPromise<T, P> promise, int operation, Filter<T> filter,
+                               boolean parallel) {
+        super(awex);
+        Apply[] pendingApplyChain = AbstractSingleThreadPromise.pendingApplyChainOf(promise);
+        mApplyChain = pendingApplyChain != null ? pendingApplyChain : new Apply[0];
+        mOperation = operation;
+        mFilter = filter;
+        mParallel = parallel;
+
+        Promise source = AbstractSingleThreadPromise.chainStarterOf(promise, pendingApplyChain);
+        source.done(new DoneCallback<Collection>() {
+            @Override
+            public void onDone(Collection items) {
+                if (mParallel && mAwex.getNumberOfThreads() > 1 && items.size() > 1) {
+                    searchInParallel(items);
+                } else {
+                    try {
+                        decide(search(items, 0));
+                    } catch (RuntimeException ex) {
+                        tryReject(ex);
+                    }
+                }
+            }
+        }).fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                tryReject(exception);
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                ShortCircuitPromise.this.cancelTask();
+            }
+        });
+
+        cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                cancelRangesAfter(-1);
+            }
+        });
+    }
+
+    private void searchInParallel(Collection items) {
+        List<List> ranges = AbstractMultiThreadPromise.split(items, mAwex.getNumberOfThreads());
+        int numberOfRanges = ranges.size();
+        synchronized (mLock) {
+            mRangePromises = new Promise[numberOfRanges];
+            mRangeResults = new Object[numberOfRanges];
+            mCompletedRanges = new boolean[numberOfRanges];
+        }
+
+        for (int i = 0; i < numberOfRanges && getState() == STATE_PENDING && i <= mCutoffRange; i++) {
+            Promise<Object, P> promise = launch(ranges.get(i), i);
+            synchronized (mLock) {
+                mRangePromises[i] = promise;
+            }
+            if (getState() != STATE_PENDING || i > mCutoffRange) {
+                promise.cancelTask();
+            }
+        }
+    }
+
+    private Promise<Object, P> launch(final List range, final int rangeIndex) {
+        Promise<Object, P> promise = mAwex.submit(new Task<Object, P>() {
+            @Override
+            protected Object run() throws InterruptedException {
+                onRangeCompleted(rangeIndex, search(range, rangeIndex));
+                return null;
+            }
+        });
+        promise.fail(new FailCallback() {
+            @Override
+            public void onFail(Exception exception) {
+                if (tryReject(exception)) {
+                    cancelRangesAfter(-1);
+                }
+            }
+        }).cancel(new CancelCallback() {
+            @Override
+            public void onCancel() {
+                if (rangeIndex <= mCutoffRange) {
+                    ShortCircuitPromise.this.cancelTask();
+                }
+            }
+        });
+        return promise;
+    }
+
+    private Object search(Iterable items, int rangeIndex) {
+        for (Object item : items) {
+            if (rangeIndex > mCutoffRange || getState() != STATE_PENDING) {
+                return NOT_FOUND;
+            }
+            Object value = AbstractSingleThreadPromise.applyChain(mApplyChain, item);
+            if (value != AbstractSingleThreadPromise.FILTERED_OUT && matches(value)) {
+                return value;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean matches(Object item) {
+        switch (mOperation) {
+            case ANY_MATCH:
+                return mFilter.filter((T) item);
+            case ALL_MATCH:
+                return !mFilter.filter((T) item);
+            default:
+                return true;
+        }
+    }
+
+    private void onRangeCompleted(int rangeIndex, Object result) {
+        Object decision = NOT_FOUND;
+        boolean decided = false;
+        int cutoffRange;
+        synchronized (mLock) {
+            mCompletedRanges[rangeIndex] = true;
+            mRangeResults[rangeIndex] = result;
+            if (result != NOT_FOUND && rangeIndex < mCutoffRange) {
+                mCutoffRange = mOperation == FIND_FIRST ? rangeIndex : -1;
+            }
+
+            int numberOfRanges = mCompletedRanges.length;
+            int i = 0;
+            if (mOperation == FIND_FIRST) {
+                while (i < numberOfRanges && mCompletedRanges[i] && mRangeResults[i] == NOT_FOUND) {
+                    i++;
+                }
+                if (i == numberOfRanges || mCompletedRanges[i]) {
+                    decided = true;
+                    decision = i == numberOfRanges ? NOT_FOUND : mRangeResults[i];
+                }
+            } else if (result != NOT_FOUND) {
+                decided = true;
+                decision = result;
+            } else {
+                while (i < numberOfRanges && mCompletedRanges[i]) {
+                    i++;
+                }
+                decided = i == numberOfRanges;
+            }
+            cutoffRange = mCutoffRange;
+        }
+
+        if (decided) {
+            decide(decision);
+            cancelRangesAfter(-1);
+        } else if (cutoffRange < Integer.MAX_VALUE) {
+            cancelRangesAfter(cutoffRange);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void decide(Object result) {
+        boolean found = result != NOT_FOUND;
+        switch (mOperation) {
+            case ANY_MATCH:
+                tryResolve((R) Boolean.valueOf(found));
+                break;
+            case ALL_MATCH:
+                tryResolve((R) Boolean.valueOf(!found));
+                break;
+            default:
+                if (found) {
+                    tryResolve((R) result);
+                } else {
+                    tryReject(new AbsentValueException());
+                }
+        }
+    }
+
+    /**
+     * Cancels the tasks of the ranges after the one passed that are still pending, so queued
+     * ones never start
+     */
+    private void cancelRangesAfter(int rangeIndex) {
+        Promise[] rangePromises;
+        synchronized (mLock) {
+            if (mRangePromises == null) {
+                return;
+            }
+            rangePromises = mRangePromises.clone();
+        }
+        for (int i = rangeIndex + 1; i < rangePromises.length; i++) {
+            if (rangePromises[i] != null) {
+                rangePromises[i].cancelTask();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.raycoarana.awex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Promise of a StreamingTask, it keeps the emitted items and delivers every batch to the stages
+ * attached to it, replaying the batches already emitted to stages attached late.
+ */
+class StreamingPromise<T, Progress> extends AwexCollectionPromise<T, Progress> {
+
+    interface BatchListener<T> {
+        void onBatch(List<T> batch);
+    }
+
+    private final List<List<T>> mBatches = new ArrayList<>();
+    private final List<BatchListener<T>> mListeners = new ArrayList<>();
+    private int mNumberOfItems;
+
+    public StreamingPromise(Awex awex, Task task) {
+        super(awex, task);
+    }
+
+    void emitBatch(List<T> batch) {
+        synchronized (mBatches) {
+            mBatches.add(batch);
+            mNumberOfItems += batch.size();
+            // delivered under the lock so a listener never sees batches out of order
+            for (BatchListener<T> listener : mListeners) {
+                listener.onBatch(batch);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener of the batches, it receives every batch already emitted before returning.
+     * The end of the stream is notified through the done callback of this promise.
+     */
+    void addBatchListener(BatchListener<T> listener) {
+        synchronized (mBatches) {
+            for (List<T> batch : mBatches) {
+                listener.onBatch(batch);
+            }
+            mListeners.add(listener);
+        }
+    }
+
+    Collection<T> getEmittedItems() {
+        synchronized (mBatches) {
+            List<T> items = new ArrayList<>(mNumberOfItems);
+            for (List<T> batch : mBatches) {
+                items.addAll(batch);
+            }
+            return Collections.unmodifiableList(items);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.raycoarana.awex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Base class for tasks that produce a collection incrementally. Emitted items are delivered in
+ * batches to the filter/map/forEach stages of the stream of the task, that process every batch
+ * in a task of the pool as soon as it is available, so the first results are ready before the
+ * producer finishes. The promise of the task is resolved with all the emitted items.
+ *
+ * Batches of a stage could be processed concurrently by different workers, the results are
+ * always kept in emission order.
+ *
+ * @see Awex#submitStreaming(StreamingTask)
+ */
+public abstract class StreamingTask<T, Progress> extends Task<Collection<T>, Progress> {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final int mBatchSize;
+
+    public StreamingTask() {
+        this(PRIORITY_NORMAL, DEFAULT_BATCH_SIZE);
+    }
+
+    public StreamingTask(int priority) {
+        this(priority, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param priority  priority of the task
+     * @param batchSize number of emitted items delivered at once to the stages of the stream
+     */
+    public StreamingTask(int priority, int batchSize) {
+        super(priority);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+        mBatchSize = batchSize;
+    }
+
+    @Override
+    protected final Collection<T> run() throws InterruptedException {
+        StreamingPromise<T, Progress> promise = (StreamingPromise<T, Progress>) getPromise();
+        BatchEmitter emitter = new BatchEmitter(promise);
+        run(emitter);
+        emitter.flush();
+        return promise.getEmittedItems();
+    }
+
+    /**
+     * Produces the items of the stream
+     *
+     * @param emitter sink of the produced items
+     * @throws InterruptedException if the task is interrupted
+     */
+    protected abstract void run(Emitter<T> emitter) throws InterruptedException;
+
+    @Override
+    AwexPromise<Collection<T>, Progress> createPromise(Awex awex) {
+        return new StreamingPromise<>(awex, this);
+    }
+
+    private class BatchEmitter implements Emitter<T> {
+
+        private final StreamingPromise<T, Progress> mPromise;
+        private List<T> mBatch;
+
+        public BatchEmitter(StreamingPromise<T, Progress> promise) {
+            mPromise = promise;
+            mBatch = new ArrayList<>(mBatchSize);
+        }
+
+        @Override
+        public void emit(T item) {
+            mBatch.add(item);
+            if (mBatch.size() >= mBatchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!mBatch.isEmpty()) {
+                mPromise.emitBatch(mBatch);
+                mBatch = new ArrayList<>(mBatchSize);
+            }
+        }
+    }
+
+}
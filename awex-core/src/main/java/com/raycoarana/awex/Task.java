@@ -1,6 +1,6 @@
 package com.raycoarana.awex;
 
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -36,10 +36,11 @@ public abstract class Task<Result, Progress> {
     private int mCurrentState = STATE_NOT_INITIALIZED;
     private Worker mWorker;
     private AwexTaskQueue mTaskQueue;
+    private volatile long mQueueTime;
     private final int mQueueTimeout;
-    private TimerTask mQueueTimeoutTimerTask;
+    private TimerWheel.Timeout mQueueTimeoutTimerTask;
     private final int mExecutionTimeout;
-    private TimerTask mExecutionTimeoutTimerTask;
+    private TimerWheel.Timeout mExecutionTimeoutTimerTask;
 
     public Task() {
         this(PRIORITY_NORMAL, -1, -1);
@@ -67,22 +68,26 @@ public abstract class Task<Result, Progress> {
         mCurrentState = STATE_NOT_QUEUE;
         printStateChanged("NOT_QUEUE");
 
-        mPromise = new AwexPromise<>(awex, this);
+        mPromise = createPromise(awex);
 
-        mQueueTimeoutTimerTask = new TimerTask() {
-            @Override
-            public void run() {
-                if (mTaskQueue != null && mTaskQueue.remove(Task.this)) {
-                    mAwex.onTaskQueueTimeout(Task.this);
+        if (mQueueTimeout > 0 && mQueueTimeoutTimerTask == null) {
+            mQueueTimeoutTimerTask = new TimerWheel.Timeout() {
+                @Override
+                public void run() {
+                    if (mTaskQueue != null && mTaskQueue.remove(Task.this)) {
+                        mAwex.onTaskQueueTimeout(Task.this);
+                    }
                 }
-            }
-        };
-        mExecutionTimeoutTimerTask = new TimerTask() {
-            @Override
-            public void run() {
-                mAwex.onTaskExecutionTimeout(Task.this);
-            }
-        };
+            };
+        }
+        if (mExecutionTimeout > 0 && mExecutionTimeoutTimerTask == null) {
+            mExecutionTimeoutTimerTask = new TimerWheel.Timeout() {
+                @Override
+                public void run() {
+                    mAwex.onTaskExecutionTimeout(Task.this);
+                }
+            };
+        }
     }
 
     public long getId() {
@@ -135,12 +140,16 @@ public abstract class Task<Result, Progress> {
 
     protected abstract Result run() throws InterruptedException;
 
+    AwexPromise<Result, Progress> createPromise(Awex awex) {
+        return new AwexPromise<>(awex, this);
+    }
+
     final ReentrantLock lock = new ReentrantLock();
 
     final void execute() throws InterruptedException {
         checkInitialized();
 
-        mQueueTimeoutTimerTask.cancel();
+        cancelTimeout(mQueueTimeoutTimerTask);
         mCurrentState = STATE_RUNNING;
         printStateChanged("RUNNING");
         mAwex.schedule(mExecutionTimeoutTimerTask, mExecutionTimeout);
@@ -156,21 +165,25 @@ public abstract class Task<Result, Progress> {
             Thread.currentThread().interrupt();
             throw ex;
         } catch (Exception ex) {
-            mPromise.reject(ex);
+            mPromise.tryReject(ex);
         } finally {
-            mExecutionTimeoutTimerTask.cancel();
+            cancelTimeout(mExecutionTimeoutTimerTask);
         }
 
         resolveWithResult(result);
     }
 
+    private void cancelTimeout(TimerWheel.Timeout timeout) {
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
     private void resolveWithResult(Result result) {
         try {
             lock.lock();
 
-            if (mPromise.isPending()) {
-                mPromise.resolve(result);
-            }
+            mPromise.tryResolve(result);
 
             if (mCurrentState == STATE_CANCELLING) {
                 mCurrentState = STATE_CANCELLED;
@@ -201,6 +214,7 @@ public abstract class Task<Result, Progress> {
         checkInitialized();
 
         mTaskQueue = taskQueue;
+        mQueueTime = currentTimeMillis();
         mCurrentState = STATE_QUEUE;
         printStateChanged("QUEUE");
         mAwex.schedule(mQueueTimeoutTimerTask, mQueueTimeout);
@@ -225,6 +239,17 @@ public abstract class Task<Result, Progress> {
         mWorker = worker;
     }
 
+    /**
+     * @return time in milliseconds, measured from System.nanoTime(), when the task was queued
+     */
+    final long getQueueTime() {
+        return mQueueTime;
+    }
+
+    static long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
     final AwexTaskQueue getQueue() {
         return mTaskQueue;
     }
@@ -0,0 +1,233 @@
+package com.raycoarana.awex;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timer wheel used to fire the timeouts of the tasks. Every timeout is linked in the
+ * bucket of the tick when it expires, so scheduling and cancelling are O(1) and only lock that
+ * bucket. Timeouts are intrusive nodes, so scheduling does not allocate anything.
+ *
+ * A single thread advances the wheel one tick at a time and runs the expired timeouts, which
+ * must be short. When there is nothing scheduled the thread waits until something is.
+ */
+class TimerWheel {
+
+    private static final long DEFAULT_TICK_DURATION_MS = 10;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Logger mLogger;
+    private final long mTickDuration;
+    private final Bucket[] mBuckets;
+    private final int mMask;
+    private final long mStartTime;
+    private final AtomicInteger mPendingTimeouts = new AtomicInteger();
+    private final Object mIdleLock = new Object();
+    private final Thread mThread;
+
+    private volatile long mCurrentTick;
+    private volatile boolean mStopped = false;
+
+    public TimerWheel(Logger logger) {
+        this(logger, DEFAULT_TICK_DURATION_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param logger logger to report errors of the expired timeouts
+     * @param tickDurationMs duration of a tick in milliseconds, the precision of the wheel
+     * @param wheelSize number of buckets, rounded up to the next power of two
+     */
+    public TimerWheel(Logger logger, long tickDurationMs, int wheelSize) {
+        mLogger = logger;
+        mTickDuration = TimeUnit.MILLISECONDS.toNanos(tickDurationMs);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        mBuckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            mBuckets[i] = new Bucket();
+        }
+        mMask = size - 1;
+        mStartTime = System.nanoTime();
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWheel();
+            }
+        }, "Awex timer");
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Schedules the timeout to run after the delay, if it was already scheduled it is
+     * rescheduled. Scheduling and cancelling the same timeout are serialized on the timeout, so
+     * it could be rescheduled from several threads at once.
+     *
+     * @param timeout timeout to schedule
+     * @param delayMs delay in milliseconds
+     */
+    public void schedule(Timeout timeout, long delayMs) {
+        boolean wasIdle;
+        synchronized (timeout) {
+            timeout.cancel();
+            wasIdle = mPendingTimeouts.getAndIncrement() == 0;
+
+            long deadline = System.nanoTime() - mStartTime + TimeUnit.MILLISECONDS.toNanos(delayMs);
+            long tick = Math.max((deadline + mTickDuration - 1) / mTickDuration, mCurrentTick);
+            while (true) {
+                Bucket bucket = mBuckets[(int) (tick & mMask)];
+                synchronized (bucket) {
+                    if (bucket.mLastProcessedTick < tick) {
+                        timeout.mTick = tick;
+                        bucket.link(timeout);
+                        break;
+                    }
+                }
+                tick++;
+            }
+        }
+
+        if (wasIdle) {
+            synchronized (mIdleLock) {
+                mIdleLock.notify();
+            }
+        }
+    }
+
+    public void stop() {
+        mStopped = true;
+        mThread.interrupt();
+    }
+
+    private void runWheel() {
+        long tick = 0;
+        try {
+            while (!mStopped) {
+                if (mPendingTimeouts.get() == 0) {
+                    waitForTimeouts();
+                    // skip the ticks elapsed while idle, but keep a whole turn so any timeout
+                    // scheduled meanwhile is still found when its bucket is visited
+                    long currentTick = (System.nanoTime() - mStartTime) / mTickDuration;
+                    tick = Math.max(tick, currentTick - mMask);
+                }
+
+                long sleepTime = mStartTime + (tick + 1) * mTickDuration - System.nanoTime();
+                if (sleepTime > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepTime);
+                }
+
+                mCurrentTick = tick + 1;
+                expire(mBuckets[(int) (tick & mMask)], tick);
+                tick++;
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private void waitForTimeouts() throws InterruptedException {
+        synchronized (mIdleLock) {
+            while (mPendingTimeouts.get() == 0 && !mStopped) {
+                mIdleLock.wait();
+            }
+        }
+    }
+
+    private void expire(Bucket bucket, long tick) {
+        Timeout expired = null;
+        synchronized (bucket) {
+            bucket.mLastProcessedTick = tick;
+            Timeout timeout = bucket.mHead;
+            while (timeout != null) {
+                Timeout next = timeout.mNext;
+                if (timeout.mTick <= tick) {
+                    bucket.unlink(timeout);
+                    timeout.mNextExpired = expired;
+                    expired = timeout;
+                }
+                timeout = next;
+            }
+        }
+
+        while (expired != null) {
+            Timeout next = expired.mNextExpired;
+            expired.mNextExpired = null;
+            mPendingTimeouts.decrementAndGet();
+            try {
+                expired.run();
+            } catch (RuntimeException ex) {
+                mLogger.e("Error when running timeout", ex);
+            }
+            expired = next;
+        }
+    }
+
+    /**
+     * Action to execute when a timeout expires, it could be scheduled again once it expires or
+     * is cancelled.
+     */
+    abstract static class Timeout implements Runnable {
+
+        private volatile Bucket mBucket;
+        private Timeout mPrev;
+        private Timeout mNext;
+        private long mTick;
+        // chain of the timeouts expired in the same tick, kept apart from the links of the
+        // buckets as the timeout could be scheduled again before it runs
+        private Timeout mNextExpired;
+
+        /**
+         * Cancels the timeout if it is scheduled
+         *
+         * @return true if the timeout was scheduled and now it will not be executed
+         */
+        public synchronized boolean cancel() {
+            Bucket bucket = mBucket;
+            if (bucket == null) {
+                return false;
+            }
+            return bucket.cancel(this);
+        }
+
+    }
+
+    private class Bucket {
+
+        private Timeout mHead;
+        private long mLastProcessedTick = -1;
+
+        void link(Timeout timeout) {
+            timeout.mBucket = this;
+            timeout.mPrev = null;
+            timeout.mNext = mHead;
+            if (mHead != null) {
+                mHead.mPrev = timeout;
+            }
+            mHead = timeout;
+        }
+
+        boolean cancel(Timeout timeout) {
+            synchronized (this) {
+                if (timeout.mBucket != this) {
+                    return false;
+                }
+                unlink(timeout);
+            }
+            mPendingTimeouts.decrementAndGet();
+            return true;
+        }
+
+        void unlink(Timeout timeout) {
+            if (timeout.mPrev != null) {
+                timeout.mPrev.mNext = timeout.mNext;
+            } else {
+                mHead = timeout.mNext;
+            }
+            if (timeout.mNext != null) {
+                timeout.mNext.mPrev = timeout.mPrev;
+            }
+            timeout.mPrev = null;
+            timeout.mNext = null;
+            timeout.mBucket = null;
+        }
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.raycoarana.awex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queue where every worker owns a local deque. Tasks submitted from a worker of this queue (for
+ * example, a task that submits new tasks while running) are pushed to the deque of that worker,
+ * any other submission goes to a shared deque. Workers take from its own deque first, then from
+ * the shared one and at last steal from its siblings, so there is no single lock that every
+ * worker must go through.
+ *
+ * Priorities are honoured by lanes, every deque has one lane per priority level and a worker
+ * never takes a task from a lane while there is a task in any higher priority lane of any deque.
+ * Priorities above PRIORITY_HIGH share the highest lane. Inside a lane, the owner of a deque takes
+ * its newest task while thieves and the shared deque take the oldest one.
+ */
+class WorkStealingTaskQueue extends AwexTaskQueue {
+
+    private static final int NUMBER_OF_LANES = Task.PRIORITY_HIGH - Task.PRIORITY_LOWEST + 2;
+    private static final long PENDING_PUSH_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LocalDeque mSharedDeque = new LocalDeque();
+    private final ThreadLocal<LocalDeque> mLocalDeque = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<Thread> mIdleThreads = new ConcurrentLinkedQueue<>();
+    private final Object mDequesLock = new Object();
+    private volatile LocalDeque[] mDeques = new LocalDeque[0];
+
+    public WorkStealingTaskQueue(int id) {
+        super(id);
+    }
+
+    @Override
+    public Task take(Worker worker) throws InterruptedException {
+        checkAlive();
+
+        LocalDeque localDeque = getOrRegisterLocalDeque();
+        mWaitersCount.incrementAndGet();
+        try {
+            Thread currentThread = Thread.currentThread();
+            while (true) {
+                Task task = poll(localDeque);
+                if (task != null) {
+                    mSize.decrementAndGet();
+                    task.setWorker(worker);
+                    return task;
+                }
+
+                mIdleThreads.offer(currentThread);
+                if (!mDie) {
+                    if (mSize.get() == 0) {
+                        LockSupport.park(this);
+                    } else {
+                        // the task is counted before it is pushed, wait a bit for the push to land
+                        // instead of spinning, allocating a node in mIdleThreads every time
+                        LockSupport.parkNanos(this, PENDING_PUSH_PARK_NANOS);
+                    }
+                }
+                mIdleThreads.remove(currentThread);
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                checkAlive();
+            }
+        } finally {
+            mWaitersCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void insert(Task task) {
+        checkAlive();
+
+        mSize.incrementAndGet();
+        LocalDeque localDeque = mLocalDeque.get();
+        if (localDeque != null) {
+            localDeque.push(task);
+        } else {
+            mSharedDeque.push(task);
+        }
+        wakeUpIdleWorker();
+    }
+
+    @Override
+    public void insertAll(Collection<Task> tasks) {
+        checkAlive();
+
+        mSize.addAndGet(tasks.size());
+        LocalDeque localDeque = mLocalDeque.get();
+        if (localDeque != null) {
+            localDeque.pushAll(tasks);
+        } else {
+            mSharedDeque.pushAll(tasks);
+        }
+        for (int i = 0; i < tasks.size() && !mIdleThreads.isEmpty(); i++) {
+            wakeUpIdleWorker();
+        }
+    }
+
+    @Override
+    public <Result, Progress> boolean remove(Task<Result, Progress> task) {
+        checkAlive();
+
+        boolean removed = mSharedDeque.remove(task);
+        if (!removed) {
+            for (LocalDeque localDeque : mDeques) {
+                if (localDeque.remove(task)) {
+                    removed = true;
+                    break;
+                }
+            }
+        }
+        if (removed) {
+            mSize.decrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    public void detach(Worker worker) {
+        LocalDeque localDeque = mLocalDeque.get();
+        if (localDeque == null) {
+            return;
+        }
+        mLocalDeque.remove();
+
+        synchronized (mDequesLock) {
+            List<LocalDeque> deques = new ArrayList<>(mDeques.length);
+            for (LocalDeque deque : mDeques) {
+                if (deque != localDeque) {
+                    deques.add(deque);
+                }
+            }
+            mDeques = deques.toArray(new LocalDeque[deques.size()]);
+        }
+
+        if (!mDie) {
+            localDeque.drainTo(mSharedDeque);
+            wakeUpIdleWorker();
+        }
+    }
+
+    @Override
+    protected Iterable<Task> getQueuedTasks() {
+        List<Task> tasks = new ArrayList<>();
+        mSharedDeque.copyTo(tasks);
+        for (LocalDeque localDeque : mDeques) {
+            localDeque.copyTo(tasks);
+        }
+        return tasks;
+    }
+
+    @Override
+    public void destroy() {
+        mDie = true;
+
+        List<Task> tasks = new ArrayList<>();
+        mSharedDeque.drainTo(tasks);
+        for (LocalDeque localDeque : mDeques) {
+            localDeque.drainTo(tasks);
+        }
+        for (Task task : tasks) {
+            task.getPromise().cancelTask();
+        }
+
+        Thread thread;
+        while ((thread = mIdleThreads.poll()) != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private Task poll(LocalDeque localDeque) {
+        LocalDeque[] deques = mDeques;
+        int start = deques.length > 0 ? (int) (Thread.currentThread().getId() % deques.length) : 0;
+        for (int lane = NUMBER_OF_LANES - 1; lane >= 0; lane--) {
+            Task task = localDeque.pollNewest(lane);
+            if (task == null) {
+                task = mSharedDeque.pollOldest(lane);
+            }
+            for (int i = 0; task == null && i < deques.length; i++) {
+                LocalDeque victim = deques[(start + i) % deques.length];
+                if (victim != localDeque) {
+                    task = victim.pollOldest(lane);
+                }
+            }
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void wakeUpIdleWorker() {
+        Thread idleThread = mIdleThreads.poll();
+        if (idleThread != null) {
+            LockSupport.unpark(idleThread);
+        }
+    }
+
+    private LocalDeque getOrRegisterLocalDeque() {
+        LocalDeque localDeque = mLocalDeque.get();
+        if (localDeque == null) {
+            localDeque = new LocalDeque();
+            mLocalDeque.set(localDeque);
+            synchronized (mDequesLock) {
+                LocalDeque[] deques = new LocalDeque[mDeques.length + 1];
+                System.arraycopy(mDeques, 0, deques, 0, mDeques.length);
+                deques[mDeques.length] = localDeque;
+                mDeques = deques;
+            }
+        }
+        return localDeque;
+    }
+
+    static int laneOf(int priority) {
+        if (priority <= Task.PRIORITY_LOWEST) {
+            return 0;
+        }
+        if (priority > Task.PRIORITY_HIGH) {
+            return NUMBER_OF_LANES - 1;
+        }
+        return priority - Task.PRIORITY_LOWEST;
+    }
+
+    /**
+     * Deque with one lane per priority level, guarded by its own monitor. Most of the time only
+     * its owner touches it, so the lock is not contended.
+     */
+    private static class LocalDeque {
+
+        private final ArrayDeque<Task>[] mLanes;
+
+        @SuppressWarnings("unchecked")
+        public LocalDeque() {
+            mLanes = new ArrayDeque[NUMBER_OF_LANES];
+            for (int i = 0; i < NUMBER_OF_LANES; i++) {
+                mLanes[i] = new ArrayDeque<>();
+            }
+        }
+
+        public synchronized void push(Task task) {
+            mLanes[laneOf(task.getPriority())].addLast(task);
+        }
+
+        public synchronized void pushAll(Collection<Task> tasks) {
+            for (Task task : tasks) {
+                mLanes[laneOf(task.getPriority())].addLast(task);
+            }
+        }
+
+        public synchronized Task pollNewest(int lane) {
+            return mLanes[lane].pollLast();
+        }
+
+        public synchronized Task pollOldest(int lane) {
+            return mLanes[lane].pollFirst();
+        }
+
+        public synchronized boolean remove(Task task) {
+            return mLanes[laneOf(task.getPriority())].removeFirstOccurrence(task);
+        }
+
+        public synchronized void drainTo(LocalDeque deque) {
+            for (ArrayDeque<Task> lane : mLanes) {
+                Task task;
+                while ((task = lane.pollFirst()) != null) {
+                    deque.push(task);
+                }
+            }
+        }
+
+        public synchronized void copyTo(List<Task> tasks) {
+            for (ArrayDeque<Task> lane : mLanes) {
+                tasks.addAll(lane);
+            }
+        }
+
+        public synchronized void drainTo(List<Task> tasks) {
+            for (ArrayDeque<Task> lane : mLanes) {
+                tasks.addAll(lane);
+                lane.clear();
+            }
+        }
+    }
+}
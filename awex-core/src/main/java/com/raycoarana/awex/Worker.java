@@ -1,9 +1,11 @@
 package com.raycoarana.awex;
 
-import com.raycoarana.awex.state.WorkerState.State;
+import com.raycoarana.awex.state.WorkerState;
 import com.raycoarana.awex.state.WorkerStateImpl;
 
-class Worker implements Runnable {
+import java.util.concurrent.TimeUnit;
+
+class Worker implements Runnable, WorkerState {
 
     private final int mId;
     private final Thread mThread;
@@ -13,10 +15,10 @@ class Worker implements Runnable {
     private final WorkerListener mListener;
     private final int mPriority;
 
-    private boolean mExecutingTask;
-    private boolean mDie = false;
-    private Task mCurrentTask;
-    private long mLastTimeActive;
+    private volatile boolean mExecutingTask;
+    private volatile boolean mDie = false;
+    private volatile Task mCurrentTask;
+    private volatile long mLastTimeActive;
 
     public Worker(int id, int priority, AwexTaskQueue workQueue, ThreadHelper threadHelper, Logger logger, WorkerListener listener) {
         mId = id;
@@ -26,14 +28,26 @@ class Worker implements Runnable {
         mWorkQueue = workQueue;
         mLogger = logger;
         mListener = listener;
+        mLastTimeActive = now();
 
         mThread.start();
     }
 
+    @Override
     public int getId() {
         return mId;
     }
 
+    @Override
+    public Task getCurrentTask() {
+        return mCurrentTask;
+    }
+
+    @Override
+    public long getLastTimeActive() {
+        return mLastTimeActive;
+    }
+
     @Override
     public void run() {
         mThreadHelper.setUpPriorityToCurrentThread(mPriority);
@@ -48,7 +62,7 @@ class Worker implements Runnable {
                     synchronized (this) {
                         mCurrentTask = newTask;
                         mExecutingTask = true;
-                        mLastTimeActive = mCurrentTask != null ? System.nanoTime() / 10000000 : mLastTimeActive;
+                        mLastTimeActive = mCurrentTask != null ? now() : mLastTimeActive;
                     }
                     if (mCurrentTask != null) {
                         long taskId = mCurrentTask.getId();
@@ -67,6 +81,7 @@ class Worker implements Runnable {
                     synchronized (this) {
                         mCurrentTask = null;
                         mExecutingTask = false;
+                        mLastTimeActive = executedTask != null ? now() : mLastTimeActive;
                     }
                     if (executedTask != null) {
                         mListener.onTaskFinished(executedTask);
@@ -74,6 +89,7 @@ class Worker implements Runnable {
                 }
             }
         } finally {
+            mWorkQueue.detach(this);
             if (mLogger.isEnabled()) {
                 mLogger.v("Worker " + mId + " dies");
             }
@@ -84,7 +100,8 @@ class Worker implements Runnable {
         return WorkerStateImpl.get(mId, getState(), mCurrentTask, mLastTimeActive);
     }
 
-    private State getState() {
+    @Override
+    public State getState() {
         if (!mExecutingTask) {
             return State.WAITING_FOR_NEXT_TASK;
         }
@@ -105,6 +122,10 @@ class Worker implements Runnable {
         throw new IllegalStateException("Worker in an illegal state");
     }
 
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
     public void interrupt() {
         die();
         mThread.interrupt();
@@ -0,0 +1,47 @@
+package com.raycoarana.awex.exceptions;
+
+/**
+ * A chunk of items of a parallel collection operation failed, the cause is the exception thrown
+ * while processing the item.
+ */
+public class ChunkFailedException extends Exception {
+
+    private final int mFromIndex;
+    private final int mToIndex;
+    private final int mItemIndex;
+    private final Object mItem;
+
+    public ChunkFailedException(int fromIndex, int toIndex, int itemIndex, Object item, Throwable cause) {
+        super("Chunk [" + fromIndex + ", " + toIndex + ") failed at item " + itemIndex, cause);
+        mFromIndex = fromIndex;
+        mToIndex = toIndex;
+        mItemIndex = itemIndex;
+        mItem = item;
+    }
+
+    /**
+     * @return index of the first item of the chunk
+     */
+    public int getFromIndex() {
+        return mFromIndex;
+    }
+
+    /**
+     * @return index after the last item of the chunk
+     */
+    public int getToIndex() {
+        return mToIndex;
+    }
+
+    /**
+     * @return index of the item that failed
+     */
+    public int getItemIndex() {
+        return mItemIndex;
+    }
+
+    public Object getItem() {
+        return mItem;
+    }
+
+}
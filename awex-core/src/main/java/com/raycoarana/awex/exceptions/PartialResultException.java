@@ -0,0 +1,35 @@
+package com.raycoarana.awex.exceptions;
+
+import java.util.Collection;
+
+/**
+ * Some chunks of items of a parallel collection operation failed while the others completed.
+ * The partial result has the results of the completed chunks, in order.
+ */
+public class PartialResultException extends Exception {
+
+    private final Collection<?> mPartialResult;
+    private final ChunkFailedException[] mFailures;
+
+    public PartialResultException(Collection<?> partialResult, ChunkFailedException... failures) {
+        super("Failed chunks: " + failures.length, failures.length > 0 ? failures[0] : null);
+        mPartialResult = partialResult;
+        mFailures = failures;
+    }
+
+    public Collection<?> getPartialResult() {
+        return mPartialResult;
+    }
+
+    /**
+     * @return failure of a chunk, in the order of the items
+     */
+    public ChunkFailedException getFailure(int index) {
+        return mFailures[index];
+    }
+
+    public int getFailureCount() {
+        return mFailures.length;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.raycoarana.awex.policy;
+
+/**
+ * Implemented by tasks that must be coalesced by an explicit key instead of by its equals and
+ * hashCode, @see CoalescingPoolPolicy
+ */
+public interface CoalescableTask {
+
+    /**
+     * @return key of the work done by the task, tasks with equal keys produce the same result.
+     * It must not change while the task is in the pool. If it is null the task is coalesced by its
+     * equals and hashCode, as any other task.
+     */
+    Object getCoalescingKey();
+
+}
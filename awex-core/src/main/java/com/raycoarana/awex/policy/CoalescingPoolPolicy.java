@@ -0,0 +1,141 @@
+package com.raycoarana.awex.policy;
+
+import com.raycoarana.awex.PoolManager;
+import com.raycoarana.awex.PoolPolicy;
+import com.raycoarana.awex.Task;
+import com.raycoarana.awex.callbacks.AlwaysCallback;
+import com.raycoarana.awex.state.PoolState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator of any other policy that merges every new task with an equal task that is already
+ * queued or running (@see PoolPolicy#mergeTask), so a burst of identical tasks is executed only
+ * once and all of them receive the same result. Tasks are equal when they have the same key
+ * if they implement CoalescableTask and the key is not null, or by its equals and hashCode
+ * otherwise.
+ *
+ * Tasks not merged are placed by the decorated policy. A merged task follows the task it was
+ * merged with, if that task is cancelled or fails the merged task is cancelled or fails too.
+ */
+public class CoalescingPoolPolicy extends PoolPolicy {
+
+    private final PoolPolicy mPoolPolicy;
+    private final ConcurrentHashMap<Object, Task> mInFlightTasks = new ConcurrentHashMap<>();
+    private final AtomicLong mSubmittedTasks = new AtomicLong();
+    private final AtomicLong mMergedTasks = new AtomicLong();
+
+    public CoalescingPoolPolicy(PoolPolicy poolPolicy) {
+        mPoolPolicy = poolPolicy;
+    }
+
+    @Override
+    public void initialize(PoolManager poolManager) {
+        super.initialize(poolManager);
+        mPoolPolicy.initialize(poolManager);
+    }
+
+    @Override
+    public void onStartUp() {
+
+    }
+
+    @Override
+    public void onTaskAdded(PoolState poolState, Task task) {
+        if (!tryToMerge(task)) {
+            mPoolPolicy.onTaskAdded(poolState, task);
+        }
+    }
+
+    @Override
+    public void onTasksAdded(PoolState poolState, Collection<Task> tasks) {
+        List<Task> tasksToPlace = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (!tryToMerge(task)) {
+                tasksToPlace.add(task);
+            }
+        }
+        if (!tasksToPlace.isEmpty()) {
+            mPoolPolicy.onTasksAdded(poolState, tasksToPlace);
+        }
+    }
+
+    @Override
+    public void onTaskFinished(PoolState poolState, Task task) {
+        mInFlightTasks.remove(keyOf(task), task);
+        mPoolPolicy.onTaskFinished(poolState, task);
+    }
+
+    @Override
+    public void onTaskQueueTimeout(PoolState poolState, Task task) {
+        mInFlightTasks.remove(keyOf(task), task);
+        mPoolPolicy.onTaskQueueTimeout(poolState, task);
+    }
+
+    @Override
+    public void onTaskExecutionTimeout(PoolState poolState, Task task) {
+        mPoolPolicy.onTaskExecutionTimeout(poolState, task);
+    }
+
+    @Override
+    public void onWakeUp(PoolState poolState) {
+        mPoolPolicy.onWakeUp(poolState);
+    }
+
+    /**
+     * @return number of tasks added to the pool through this policy
+     */
+    public long getSubmittedTasks() {
+        return mSubmittedTasks.get();
+    }
+
+    /**
+     * @return number of tasks merged with an equal task, that is, the executions saved
+     */
+    public long getMergedTasks() {
+        return mMergedTasks.get();
+    }
+
+    private boolean tryToMerge(final Task task) {
+        mSubmittedTasks.incrementAndGet();
+        final Object key = keyOf(task);
+        while (true) {
+            Task inFlightTask = mInFlightTasks.putIfAbsent(key, task);
+            if (inFlightTask == null) {
+                task.getPromise().always(new AlwaysCallback() {
+                    @Override
+                    public void onAlways() {
+                        mInFlightTasks.remove(key, task);
+                    }
+                });
+                return false;
+            }
+
+            int state = inFlightTask.getState();
+            if ((state == Task.STATE_QUEUE || state == Task.STATE_RUNNING) && inFlightTask.getPromise().isPending()) {
+                mergeTask(inFlightTask, task);
+                mMergedTasks.incrementAndGet();
+                return true;
+            }
+            if (state == Task.STATE_NOT_QUEUE) {
+                // the equal task is still being placed, there is nothing to merge with yet
+                return false;
+            }
+            mInFlightTasks.remove(key, inFlightTask);
+        }
+    }
+
+    private static Object keyOf(Task task) {
+        if (task instanceof CoalescableTask) {
+            Object key = ((CoalescableTask) task).getCoalescingKey();
+            if (key != null) {
+                return key;
+            }
+        }
+        return task;
+    }
+}
@@ -0,0 +1,172 @@
+package com.raycoarana.awex.policy;
+
+import com.raycoarana.awex.PoolPolicy;
+import com.raycoarana.awex.Task;
+import com.raycoarana.awex.state.PoolState;
+import com.raycoarana.awex.state.QueueState;
+import com.raycoarana.awex.state.WorkerState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Policy with a single queue that grows from a core number of workers up to a max number of
+ * them when tasks are queued faster than they are executed, and shrinks back to the core size
+ * once the extra workers have been idle for the keep alive time. Real time tasks are executed
+ * immediately when the queue is busy, like in LinearWithRealTimePriorityPolicy.
+ *
+ * When the backlog of the queue grows between two submissions the policy creates as many extra
+ * workers as the backlog grew, so the pool catches up with a burst before it piles up.
+ */
+public class ElasticPoolPolicy extends PoolPolicy {
+
+    public static final long DEFAULT_KEEP_ALIVE_MS = 60000;
+
+    private static final int QUEUE_ID = 1;
+
+    private final int mDefaultPriority;
+    private final int mCoreThreads;
+    private final int mMaxThreads;
+    private final long mKeepAliveMs;
+    private final int mQueueType;
+    private final AtomicBoolean mWakeUpScheduled = new AtomicBoolean();
+
+    private volatile int mLastObservedBacklog;
+
+    public ElasticPoolPolicy(int defaultPriority, int coreThreads, int maxThreads) {
+        this(defaultPriority, coreThreads, maxThreads, DEFAULT_KEEP_ALIVE_MS);
+    }
+
+    public ElasticPoolPolicy(int defaultPriority, int coreThreads, int maxThreads, long keepAliveMs) {
+        this(defaultPriority, coreThreads, maxThreads, keepAliveMs, QUEUE_TYPE_PRIORITY);
+    }
+
+    /**
+     * @param defaultPriority priority of the worker threads
+     * @param coreThreads number of workers that are kept alive even when idle
+     * @param maxThreads max number of workers to create
+     * @param keepAliveMs time in milliseconds a worker over the core size could be idle before it is removed
+     * @param queueType type of the queue shared by the workers, @see PoolPolicy#QUEUE_TYPE_PRIORITY
+     */
+    public ElasticPoolPolicy(int defaultPriority, int coreThreads, int maxThreads, long keepAliveMs, int queueType) {
+        if (coreThreads < 0 || maxThreads < 1 || maxThreads < coreThreads || keepAliveMs <= 0) {
+            throw new IllegalArgumentException("Invalid pool sizes or keep alive time");
+        }
+        mDefaultPriority = defaultPriority;
+        mCoreThreads = coreThreads;
+        mMaxThreads = maxThreads;
+        mKeepAliveMs = keepAliveMs;
+        mQueueType = queueType;
+    }
+
+    @Override
+    public void onStartUp() {
+        createQueue(QUEUE_ID, mQueueType);
+        for (int i = 0; i < mCoreThreads; i++) {
+            createWorker(QUEUE_ID, mDefaultPriority);
+        }
+    }
+
+    @Override
+    public void onTaskAdded(PoolState poolState, Task task) {
+        QueueState queueState = poolState.getQueue(QUEUE_ID);
+
+        boolean isRealTimeTask = task.getPriority() == Task.PRIORITY_REAL_TIME;
+        if (isRealTimeTask && (queueState.getEnqueue() != 0 || queueState.getWaiters() == 0)) {
+            executeImmediately(task);
+        } else {
+            createWorkersFor(queueState, 1);
+            queueTask(QUEUE_ID, task);
+        }
+    }
+
+    @Override
+    public void onTasksAdded(PoolState poolState, Collection<Task> tasks) {
+        QueueState queueState = poolState.getQueue(QUEUE_ID);
+
+        List<Task> tasksToQueue = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            boolean isRealTimeTask = task.getPriority() == Task.PRIORITY_REAL_TIME;
+            if (isRealTimeTask && (queueState.getEnqueue() != 0 || queueState.getWaiters() == 0 || !tasksToQueue.isEmpty())) {
+                executeImmediately(task);
+            } else {
+                tasksToQueue.add(task);
+            }
+        }
+
+        createWorkersFor(queueState, tasksToQueue.size());
+        queueTasks(QUEUE_ID, tasksToQueue);
+    }
+
+    @Override
+    public void onTaskFinished(PoolState poolState, Task task) {
+
+    }
+
+    @Override
+    public void onTaskQueueTimeout(PoolState poolState, Task task) {
+        task.getPromise().cancelTask();
+    }
+
+    @Override
+    public void onTaskExecutionTimeout(PoolState poolState, Task task) {
+        task.getPromise().cancelTask();
+    }
+
+    @Override
+    public void onWakeUp(PoolState poolState) {
+        mWakeUpScheduled.set(false);
+        QueueState queueState = poolState.getQueue(QUEUE_ID);
+        if (queueState != null) {
+            removeIdleWorkers(queueState);
+        }
+    }
+
+    private synchronized void createWorkersFor(QueueState queueState, int newTasks) {
+        int backlog = queueState.getEnqueue();
+        int growth = backlog - mLastObservedBacklog;
+        mLastObservedBacklog = backlog;
+
+        int workersToCreate = Math.min(newTasks - queueState.getWaiters() + Math.max(growth, 0),
+                mMaxThreads - queueState.numberOfWorkers());
+        for (int i = 0; i < workersToCreate; i++) {
+            createWorker(QUEUE_ID, mDefaultPriority);
+        }
+        if (queueState.numberOfWorkers() > mCoreThreads) {
+            scheduleWakeUpIfNeeded(mKeepAliveMs);
+        }
+    }
+
+    private synchronized void removeIdleWorkers(QueueState queueState) {
+        long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        long nextExpiration = mKeepAliveMs;
+        int numberOfWorkers = queueState.numberOfWorkers();
+        for (WorkerState worker : queueState.getWorkers()) {
+            if (numberOfWorkers <= mCoreThreads) {
+                break;
+            }
+            if (worker.getState() != WorkerState.State.WAITING_FOR_NEXT_TASK) {
+                continue;
+            }
+            long idleTime = now - worker.getLastTimeActive();
+            if (idleTime >= mKeepAliveMs) {
+                removeWorker(QUEUE_ID, worker.getId());
+                numberOfWorkers--;
+            } else {
+                nextExpiration = Math.min(nextExpiration, mKeepAliveMs - idleTime);
+            }
+        }
+        if (numberOfWorkers > mCoreThreads) {
+            scheduleWakeUpIfNeeded(nextExpiration);
+        }
+    }
+
+    private void scheduleWakeUpIfNeeded(long delayMs) {
+        if (mWakeUpScheduled.compareAndSet(false, true)) {
+            scheduleWakeUp(delayMs);
+        }
+    }
+}
@@ -5,25 +5,40 @@ import com.raycoarana.awex.Task;
 import com.raycoarana.awex.state.PoolState;
 import com.raycoarana.awex.state.QueueState;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public class LinearWithRealTimePriorityPolicy extends PoolPolicy {
 
     private static final int QUEUE_ID = 1;
 
     private final int mDefaultPriority;
     private final int mMaxThreads;
+    private final int mQueueType;
 
     public LinearWithRealTimePriorityPolicy(int defaultPriority) {
         this(defaultPriority, Runtime.getRuntime().availableProcessors());
     }
 
     public LinearWithRealTimePriorityPolicy(int defaultPriority, int maxThreads) {
+        this(defaultPriority, maxThreads, QUEUE_TYPE_PRIORITY);
+    }
+
+    /**
+     * @param defaultPriority priority of the worker threads
+     * @param maxThreads max number of workers to create
+     * @param queueType type of the queue shared by the workers, @see PoolPolicy#QUEUE_TYPE_PRIORITY
+     */
+    public LinearWithRealTimePriorityPolicy(int defaultPriority, int maxThreads, int queueType) {
         mDefaultPriority = defaultPriority;
         mMaxThreads = maxThreads;
+        mQueueType = queueType;
     }
 
     @Override
     public void onStartUp() {
-        createQueue(QUEUE_ID);
+        createQueue(QUEUE_ID, mQueueType);
         createWorker(QUEUE_ID, mDefaultPriority);
     }
 
@@ -42,6 +57,28 @@ public class LinearWithRealTimePriorityPolicy extends PoolPolicy {
         }
     }
 
+    @Override
+    public void onTasksAdded(PoolState poolState, Collection<Task> tasks) {
+        QueueState queueState = poolState.getQueue(QUEUE_ID);
+
+        List<Task> tasksToQueue = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            boolean isRealTimeTask = task.getPriority() == Task.PRIORITY_REAL_TIME;
+            if (isRealTimeTask && (queueState.getEnqueue() != 0 || queueState.getWaiters() == 0 || !tasksToQueue.isEmpty())) {
+                executeImmediately(task);
+            } else {
+                tasksToQueue.add(task);
+            }
+        }
+
+        int workersToCreate = Math.min(tasksToQueue.size() - queueState.getWaiters(),
+                mMaxThreads - queueState.numberOfWorkers());
+        for (int i = 0; i < workersToCreate; i++) {
+            createWorker(QUEUE_ID, mDefaultPriority);
+        }
+        queueTasks(QUEUE_ID, tasksToQueue);
+    }
+
     @Override
     public void onTaskFinished(PoolState poolState, Task task) {
 
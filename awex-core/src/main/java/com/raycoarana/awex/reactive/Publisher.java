@@ -0,0 +1,14 @@
+package com.raycoarana.awex.reactive;
+
+/**
+ * Provider of a potentially unbounded number of items, published according to the demand
+ * received from its subscribers. Same contract as org.reactivestreams.Publisher, so adapting
+ * it to any Reactive Streams implementation is a matter of delegating the calls.
+ *
+ * @param <T> type of the published items
+ */
+public interface Publisher<T> {
+
+    void subscribe(Subscriber<? super T> subscriber);
+
+}
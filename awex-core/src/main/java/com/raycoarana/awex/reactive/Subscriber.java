@@ -0,0 +1,19 @@
+package com.raycoarana.awex.reactive;
+
+/**
+ * Receiver of the items of a publisher, no item is received until demand is signaled through
+ * the subscription. Calls to a subscriber are never concurrent.
+ *
+ * @param <T> type of the received items
+ */
+public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+
+}
@@ -0,0 +1,18 @@
+package com.raycoarana.awex.reactive;
+
+/**
+ * One to one link between a publisher and a subscriber, used to request items or to stop
+ * receiving them.
+ */
+public interface Subscription {
+
+    /**
+     * Adds n items to the demand of the subscriber, Long.MAX_VALUE means unbounded demand
+     *
+     * @param n number of items, must be greater than zero
+     */
+    void request(long n);
+
+    void cancel();
+
+}
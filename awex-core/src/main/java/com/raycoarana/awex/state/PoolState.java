@@ -2,8 +2,24 @@ package com.raycoarana.awex.state;
 
 import com.raycoarana.awex.Task;
 
+/**
+ * Live view of the state of the pool. Values are read from the counters kept by queues and
+ * workers at the moment of each call, so two calls could return different values while the
+ * pool is running.
+ */
 public interface PoolState {
     QueueState getQueue(int queueId);
 
     Task getEqualTaskInQueue(Task task);
+
+    /**
+     * Number of real-time workers alive, either executing a task or waiting for a new one
+     */
+    int numberOfRealTimeWorkers();
+
+    /**
+     * Number of real-time workers waiting for a new task, the next real-time tasks will reuse
+     * them instead of starting a new thread
+     */
+    int numberOfIdleRealTimeWorkers();
 }
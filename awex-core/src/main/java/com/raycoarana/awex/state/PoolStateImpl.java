@@ -4,10 +4,15 @@ import com.raycoarana.awex.Task;
 import com.raycoarana.awex.util.Map;
 import com.raycoarana.awex.util.ObjectPool;
 
+/**
+ * Snapshot of the state of the pool, only used to dump the state of the pool
+ */
 public class PoolStateImpl implements PoolState {
 
     private final Map<Integer, QueueStateImpl> mQueueStateMap = Map.Provider.get();
     private Map<Task, Task> mTasks;
+    private int mRealTimeWorkers;
+    private int mIdleRealTimeWorkers;
 
     private PoolStateImpl() {
     }
@@ -38,6 +43,21 @@ public class PoolStateImpl implements PoolState {
         mTasks = tasks;
     }
 
+    public void setRealTimeWorkers(int realTimeWorkers, int idleRealTimeWorkers) {
+        mRealTimeWorkers = realTimeWorkers;
+        mIdleRealTimeWorkers = idleRealTimeWorkers;
+    }
+
+    @Override
+    public int numberOfRealTimeWorkers() {
+        return mRealTimeWorkers;
+    }
+
+    @Override
+    public int numberOfIdleRealTimeWorkers() {
+        return mIdleRealTimeWorkers;
+    }
+
     public void recycle() {
         synchronized (sObjectPool) {
             for (QueueStateImpl queueState : mQueueStateMap.values()) {
@@ -8,4 +8,20 @@ public interface QueueState {
     int getWaiters();
 
     int numberOfWorkers();
+
+    Iterable<? extends WorkerState> getWorkers();
+
+    /**
+     * @param priority priority of the tasks
+     * @return average time in milliseconds the tasks with that priority currently in the queue
+     * have been waiting, 0 if there is none
+     */
+    long getAverageQueueAge(int priority);
+
+    /**
+     * @param priority priority of the tasks
+     * @return time in milliseconds the oldest task with that priority currently in the queue
+     * has been waiting, 0 if there is none
+     */
+    long getMaxQueueAge(int priority);
 }
@@ -1,13 +1,19 @@
 package com.raycoarana.awex.state;
 
+import com.raycoarana.awex.Task;
 import com.raycoarana.awex.util.Map;
 import com.raycoarana.awex.util.ObjectPool;
 
+/**
+ * Snapshot of the state of a queue, only used to dump the state of the pool
+ */
 public class QueueStateImpl implements QueueState {
 
     private int mId;
     private int mEnqueue;
     private int mWaiters;
+    private final long[] mAverageQueueAges = new long[Task.PRIORITY_HIGH - Task.PRIORITY_LOWEST + 1];
+    private final long[] mMaxQueueAges = new long[Task.PRIORITY_HIGH - Task.PRIORITY_LOWEST + 1];
     private final Map<Integer, WorkerStateImpl> mWorkers = Map.Provider.get();
 
     private final static ObjectPool<QueueStateImpl> sObjectPool = new ObjectPool<>(30);
@@ -58,6 +64,40 @@ public class QueueStateImpl implements QueueState {
         return mWorkers.size();
     }
 
+    @Override
+    public Iterable<WorkerStateImpl> getWorkers() {
+        return mWorkers.values();
+    }
+
+    /**
+     * Average queue age of the tasks with that priority, only priorities from PRIORITY_LOWEST
+     * to PRIORITY_HIGH are kept in the snapshot
+     */
+    @Override
+    public long getAverageQueueAge(int priority) {
+        return isSnapshotPriority(priority) ? mAverageQueueAges[priority - Task.PRIORITY_LOWEST] : 0;
+    }
+
+    /**
+     * Max queue age of the tasks with that priority, only priorities from PRIORITY_LOWEST
+     * to PRIORITY_HIGH are kept in the snapshot
+     */
+    @Override
+    public long getMaxQueueAge(int priority) {
+        return isSnapshotPriority(priority) ? mMaxQueueAges[priority - Task.PRIORITY_LOWEST] : 0;
+    }
+
+    public void setQueueAge(int priority, long averageQueueAge, long maxQueueAge) {
+        if (isSnapshotPriority(priority)) {
+            mAverageQueueAges[priority - Task.PRIORITY_LOWEST] = averageQueueAge;
+            mMaxQueueAges[priority - Task.PRIORITY_LOWEST] = maxQueueAge;
+        }
+    }
+
+    private static boolean isSnapshotPriority(int priority) {
+        return priority >= Task.PRIORITY_LOWEST && priority <= Task.PRIORITY_HIGH;
+    }
+
     public void addWorker(int id, WorkerStateImpl workerState) {
         mWorkers.put(id, workerState);
     }
@@ -67,6 +107,10 @@ public class QueueStateImpl implements QueueState {
             workerState.recycle();
         }
         mWorkers.clear();
+        for (int i = 0; i < mAverageQueueAges.length; i++) {
+            mAverageQueueAges[i] = 0;
+            mMaxQueueAges[i] = 0;
+        }
         synchronized (sObjectPool) {
             sObjectPool.release(this);
         }
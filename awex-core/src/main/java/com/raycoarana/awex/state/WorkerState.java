@@ -11,6 +11,10 @@ public interface WorkerState {
 
     Task getCurrentTask();
 
+    /**
+     * @return time in milliseconds, measured from System.nanoTime(), when the worker started or
+     * finished its last task, or when it was created if it has not executed any task yet
+     */
     long getLastTimeActive();
 
     enum State {
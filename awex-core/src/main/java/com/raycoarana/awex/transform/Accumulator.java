@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface Accumulator<T, U> {
+    U accumulate(U accumulated, T value);
+}
@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface DoubleMapper {
+    double map(double value);
+}
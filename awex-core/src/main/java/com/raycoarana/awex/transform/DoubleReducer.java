@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface DoubleReducer {
+    double reduce(double v1, double v2);
+}
@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface IntFilter {
+    boolean filter(int value);
+}
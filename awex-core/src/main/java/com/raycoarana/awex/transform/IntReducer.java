@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface IntReducer {
+    int reduce(int v1, int v2);
+}
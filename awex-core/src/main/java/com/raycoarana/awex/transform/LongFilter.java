@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface LongFilter {
+    boolean filter(long value);
+}
@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface LongMapper {
+    long map(long value);
+}
@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface LongReducer {
+    long reduce(long v1, long v2);
+}
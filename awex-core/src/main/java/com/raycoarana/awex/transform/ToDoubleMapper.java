@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface ToDoubleMapper<T> {
+    double map(T value);
+}
@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface ToIntMapper<T> {
+    int map(T value);
+}
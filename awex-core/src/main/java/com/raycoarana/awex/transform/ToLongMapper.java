@@ -0,0 +1,5 @@
+package com.raycoarana.awex.transform;
+
+public interface ToLongMapper<T> {
+    long map(T value);
+}
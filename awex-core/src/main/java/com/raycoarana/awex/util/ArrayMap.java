@@ -461,6 +461,26 @@ public class ArrayMap<K, V> implements Map<K, V> {
         return null;
     }
 
+    /**
+     * Remove an existing key from the array map only if it is mapped to the given value
+     * instance, values are compared by identity.
+     *
+     * @param key   The key of the mapping to remove.
+     * @param value The value expected to be stored under the key.
+     * @return Returns true if the mapping was removed.
+     */
+    @Override
+    public boolean remove(K key, V value) {
+        final int index = indexOfKey(key);
+        if (index >= 0) {
+            if (mArray[(index << 1) + 1] == value) {
+                removeAt(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Remove the key/value mapping at the given index.
      *
@@ -11,6 +11,14 @@ public interface Map<K, V> {
 
     V remove(K key);
 
+    /**
+     * Removes the entry of the key only if it is currently mapped to that same value instance,
+     * an equal but distinct value does not match
+     *
+     * @return true if the entry was removed
+     */
+    boolean remove(K key, V value);
+
     Iterable<V> values();
 
     ArrayMap<K, V> clone();
@@ -25,5 +33,9 @@ public interface Map<K, V> {
         public static <K, V> Map<K, V> getSync() {
             return new SyncArrayMap<>();
         }
+
+        public static <K, V> Map<K, V> getConcurrent() {
+            return new SyncHashMap<>();
+        }
     }
 }
@@ -58,6 +58,16 @@ public class SyncArrayMap<K, V> extends ArrayMap<K, V> {
         }
     }
 
+    @Override
+    public boolean remove(K key, V value) {
+        try {
+            mWriteLock.lock();
+            return super.remove(key, value);
+        } finally {
+            mWriteLock.unlock();
+        }
+    }
+
     @Override
     public Iterable<V> values() {
         throw new UnsupportedOperationException("Clone this object and then call values().");
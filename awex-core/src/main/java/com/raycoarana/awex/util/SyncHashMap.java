@@ -0,0 +1,90 @@
+package com.raycoarana.awex.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe map backed by a ConcurrentHashMap, so reads never block and writes only lock
+ * the segment of the key. Unlike SyncArrayMap, put and remove are O(1) whatever the size of
+ * the map, so it fits maps with many entries written from many threads. Null keys and values
+ * are not supported, a get or remove of a null key just returns null.
+ */
+public class SyncHashMap<K, V> implements Map<K, V> {
+
+    private final ConcurrentHashMap<K, V> mMap = new ConcurrentHashMap<>();
+
+    @Override
+    public int size() {
+        return mMap.size();
+    }
+
+    @Override
+    public V get(Object key) {
+        return key != null ? mMap.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && mMap.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return mMap.put(key, value);
+    }
+
+    @Override
+    public V remove(K key) {
+        return key != null ? mMap.remove(key) : null;
+    }
+
+    /**
+     * Removes the entry only if the key is mapped to that same value instance. The map compares
+     * values calling equals on the given one, so it is wrapped to compare by identity.
+     */
+    @Override
+    public boolean remove(K key, V value) {
+        return key != null && value != null && mMap.remove(key, new SameInstance(value));
+    }
+
+    /**
+     * @return a weakly consistent view of the values, safe to iterate while the map is modified
+     */
+    @Override
+    public Iterable<V> values() {
+        return mMap.values();
+    }
+
+    @Override
+    public ArrayMap<K, V> clone() {
+        ArrayMap<K, V> map = new ArrayMap<>(mMap.size());
+        for (java.util.Map.Entry<K, V> entry : mMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Override
+    public void clear() {
+        mMap.clear();
+    }
+
+    private static class SameInstance {
+
+        private final Object mValue;
+
+        public SameInstance(Object value) {
+            mValue = value;
+        }
+
+        @Override
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        public boolean equals(Object other) {
+            return other == mValue;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mValue);
+        }
+    }
+}
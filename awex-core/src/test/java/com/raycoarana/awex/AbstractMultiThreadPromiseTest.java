@@ -0,0 +1,79 @@
+package com.raycoarana.awex;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AbstractMultiThreadPromiseTest {
+
+    @Test
+    public void shouldSplitInContiguousRangesOfSimilarSize() {
+        List<Integer> items = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        List<List> ranges = AbstractMultiThreadPromise.split(items, 4);
+
+        assertEquals(4, ranges.size());
+        assertEquals(Arrays.asList(0, 1), ranges.get(0));
+        assertEquals(Arrays.asList(2, 3, 4), ranges.get(1));
+        assertEquals(Arrays.asList(5, 6), ranges.get(2));
+        assertEquals(Arrays.asList(7, 8, 9), ranges.get(3));
+    }
+
+    @Test
+    public void shouldSplitRandomAccessListInViews() {
+        List<Integer> items = new ArrayList<>(Arrays.asList(0, 1, 2, 3));
+
+        List<List> ranges = AbstractMultiThreadPromise.split(items, 2);
+        items.set(3, 42);
+
+        assertEquals(Arrays.asList(2, 42), ranges.get(1));
+    }
+
+    @Test
+    public void shouldSplitAnyCollectionKeepingItsOrder() {
+        List<Integer> items = new LinkedList<>(Arrays.asList(0, 1, 2, 3, 4));
+
+        List<List> ranges = AbstractMultiThreadPromise.split(items, 2);
+
+        assertEquals(Arrays.asList(0, 1), ranges.get(0));
+        assertEquals(Arrays.asList(2, 3, 4), ranges.get(1));
+    }
+
+    @Test
+    public void shouldNotCreateMoreRangesThanItems() {
+        List<List> ranges = AbstractMultiThreadPromise.split(Arrays.asList(0, 1), 4);
+
+        assertEquals(2, ranges.size());
+    }
+
+    @Test
+    public void shouldSizeChunksToTakeTheTargetTime() {
+        long nanosPerItem = 1000;
+        long processedItems = 10;
+
+        int chunkSize = AbstractMultiThreadPromise.nextChunkSize(nanosPerItem * processedItems,
+                processedItems, 100000, 4);
+
+        assertEquals(AbstractMultiThreadPromise.TARGET_CHUNK_NANOS / nanosPerItem, chunkSize);
+    }
+
+    @Test
+    public void shouldShrinkChunksWhenFewItemsRemain() {
+        int chunkSize = AbstractMultiThreadPromise.nextChunkSize(10, 10, 80, 4);
+
+        assertEquals(10, chunkSize);
+    }
+
+    @Test
+    public void shouldClaimAtLeastOneItemPerChunk() {
+        assertEquals(1, AbstractMultiThreadPromise.nextChunkSize(
+                AbstractMultiThreadPromise.TARGET_CHUNK_NANOS * 10, 1, 100000, 4));
+        assertEquals(1, AbstractMultiThreadPromise.nextChunkSize(10, 10, 3, 4));
+    }
+
+}
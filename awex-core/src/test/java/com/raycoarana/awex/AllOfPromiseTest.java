@@ -2,10 +2,14 @@ package com.raycoarana.awex;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class AllOfPromiseTest extends BasePromiseTest {
@@ -63,6 +67,29 @@ public class AllOfPromiseTest extends BasePromiseTest {
         assertTrue(mAllOfPromise.isCancelled());
     }
 
+    @Test
+    public void shouldCancelEveryPromiseOnlyOnceWhenAnyPromiseIsCancelled() throws Exception {
+        setUpAwex();
+
+        final AtomicInteger cancelCalls = new AtomicInteger();
+        List<Promise<Integer, Float>> promises = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            promises.add(new AwexPromise<Integer, Float>(mAwex, mTask) {
+                @Override
+                public void cancelTask(boolean mayInterrupt) {
+                    cancelCalls.incrementAndGet();
+                    super.cancelTask(mayInterrupt);
+                }
+            });
+        }
+        mAllOfPromise = new AllOfPromise<>(mAwex, promises);
+
+        promises.get(0).cancelTask();
+
+        assertTrue(mAllOfPromise.isCancelled());
+        assertEquals(1 + promises.size(), cancelCalls.get());
+    }
+
     private void setUpPromises() {
         mFirstPromise = new AwexPromise<>(mAwex, mTask);
         mSecondPromise = new AwexPromise<>(mAwex, mTask);
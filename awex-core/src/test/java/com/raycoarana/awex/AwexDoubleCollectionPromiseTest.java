@@ -0,0 +1,53 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.DoubleFilter;
+import com.raycoarana.awex.transform.DoubleMapper;
+import com.raycoarana.awex.transform.DoubleReducer;
+import com.raycoarana.awex.transform.ToDoubleMapper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AwexDoubleCollectionPromiseTest extends BasePromiseTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void shouldMapFilterAndReduceInParallel() throws Exception {
+        setUpAwex();
+        AwexPromise<Collection<String>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        DoubleCollectionPromise<Float> values = collectionPromise.<String>stream().mapToDouble(new ToDoubleMapper<String>() {
+            @Override
+            public double map(String value) {
+                return Double.parseDouble(value);
+            }
+        }).filterParallel(new DoubleFilter() {
+            @Override
+            public boolean filter(double value) {
+                return value >= 0;
+            }
+        }).mapParallel(new DoubleMapper() {
+            @Override
+            public double map(double value) {
+                return value / 2;
+            }
+        });
+        Promise<Double, Float> max = values.reduceParallel(new DoubleReducer() {
+            @Override
+            public double reduce(double v1, double v2) {
+                return Math.max(v1, v2);
+            }
+        });
+        collectionPromise.resolve(Arrays.asList("1.5", "-2", "7", "0.25", "-0.5", "3"));
+
+        assertArrayEquals(new double[]{0.75, 3.5, 0.125, 1.5}, values.getResult(), DELTA);
+        assertEquals(3.5, max.getResult(), DELTA);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.exceptions.AbsentValueException;
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.IntFilter;
+import com.raycoarana.awex.transform.IntMapper;
+import com.raycoarana.awex.transform.IntReducer;
+import com.raycoarana.awex.transform.ToIntMapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AwexIntCollectionPromiseTest extends BasePromiseTest {
+
+    private static final IntFilter IS_EVEN = new IntFilter() {
+        @Override
+        public boolean filter(int value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private static final IntMapper SQUARE = new IntMapper() {
+        @Override
+        public int map(int value) {
+            return value * value;
+        }
+    };
+
+    private static final IntReducer SUM = new IntReducer() {
+        @Override
+        public int reduce(int v1, int v2) {
+            return v1 + v2;
+        }
+    };
+
+    private AwexIntCollectionPromise<Float> mPromise;
+
+    @Test
+    public void shouldFilterAndMapTheValues() throws Exception {
+        setUpAwex();
+        givenAPromise();
+
+        IntCollectionPromise<Float> squares = mPromise.filter(IS_EVEN).map(SQUARE);
+        mPromise.resolve(new int[]{1, 2, 3, 4, 5, 6});
+
+        assertArrayEquals(new int[]{4, 16, 36}, squares.getResult());
+    }
+
+    @Test
+    public void shouldFilterAndMapInParallelKeepingTheOrder() throws Exception {
+        setUpAwex();
+        givenAPromise();
+        int[] values = new int[103];
+        int[] expected = new int[52];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+            if (i % 2 == 0) {
+                expected[i / 2] = i * i;
+            }
+        }
+
+        IntCollectionPromise<Float> squares = mPromise.filterParallel(IS_EVEN).mapParallel(SQUARE);
+        mPromise.resolve(values);
+
+        assertArrayEquals(expected, squares.getResult());
+    }
+
+    @Test
+    public void shouldReduceTheValues() throws Exception {
+        setUpAwex();
+        givenAPromise();
+
+        Promise<Integer, Float> sum = mPromise.reduce(SUM);
+        Promise<Integer, Float> parallelSum = mPromise.reduceParallel(SUM);
+        mPromise.resolve(new int[]{1, 2, 3, 4, 5, 6, 7});
+
+        assertEquals(28, (int) sum.getResult());
+        assertEquals(28, (int) parallelSum.getResult());
+    }
+
+    @Test(expected = AbsentValueException.class)
+    public void shouldRejectWhenThereAreNoValuesToReduce() throws Exception {
+        setUpAwex();
+        givenAPromise();
+
+        Promise<Integer, Float> sum = mPromise.filter(IS_EVEN).reduceParallel(SUM);
+        mPromise.resolve(new int[]{1, 3});
+
+        sum.getResult();
+    }
+
+    @Test
+    public void shouldMapFromObjectFormApplyingThePendingChain() throws Exception {
+        setUpAwex();
+        AwexPromise<Collection<String>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        IntCollectionPromise<Float> lengths = collectionPromise.<String>stream().filter(new Filter<String>() {
+            @Override
+            public boolean filter(String value) {
+                return !value.isEmpty();
+            }
+        }).mapToInt(new ToIntMapper<String>() {
+            @Override
+            public int map(String value) {
+                return value.length();
+            }
+        });
+        collectionPromise.resolve(Arrays.asList("a", "", "abc", "ab"));
+
+        assertArrayEquals(new int[]{1, 3, 2}, lengths.getResult());
+    }
+
+    @Test
+    public void shouldBoxTheValues() throws Exception {
+        setUpAwex();
+        givenAPromise();
+
+        CollectionPromise<Integer, Float> boxed = mPromise.boxed();
+        mPromise.resolve(new int[]{3, 1, 2});
+
+        assertEquals(Arrays.asList(3, 1, 2), new ArrayList<>(boxed.getResult()));
+    }
+
+    @Test
+    public void shouldRejectWhenAnOperationFailsInParallel() {
+        setUpAwex();
+        givenAPromise();
+
+        IntCollectionPromise<Float> mapped = mPromise.mapParallel(new IntMapper() {
+            @Override
+            public int map(int value) {
+                if (value == 5) {
+                    throw new IllegalArgumentException();
+                }
+                return value;
+            }
+        });
+        mPromise.resolve(new int[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertEquals(Promise.STATE_REJECTED, mapped.getState());
+    }
+
+    @Test
+    public void shouldPropagateRejectionAndCancellation() {
+        setUpAwex();
+        givenAPromise();
+        IntCollectionPromise<Float> rejected = mPromise.map(SQUARE);
+        mPromise.reject(new Exception());
+
+        givenAPromise();
+        IntCollectionPromise<Float> cancelled = mPromise.filterParallel(IS_EVEN);
+        mPromise.cancelTask();
+
+        assertEquals(Promise.STATE_REJECTED, rejected.getState());
+        assertEquals(Promise.STATE_CANCELLED, cancelled.getState());
+    }
+
+    private void givenAPromise() {
+        mPromise = new AwexIntCollectionPromise<>(mAwex);
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.LongFilter;
+import com.raycoarana.awex.transform.LongMapper;
+import com.raycoarana.awex.transform.LongReducer;
+import com.raycoarana.awex.transform.ToLongMapper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AwexLongCollectionPromiseTest extends BasePromiseTest {
+
+    @Test
+    public void shouldMapFilterAndReduceInParallel() throws Exception {
+        setUpAwex();
+        AwexPromise<Collection<Integer>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        LongCollectionPromise<Float> values = collectionPromise.<Integer>stream().mapToLong(new ToLongMapper<Integer>() {
+            @Override
+            public long map(Integer value) {
+                return value * 1000000000L;
+            }
+        }).filterParallel(new LongFilter() {
+            @Override
+            public boolean filter(long value) {
+                return value > 1000000000L;
+            }
+        }).mapParallel(new LongMapper() {
+            @Override
+            public long map(long value) {
+                return value + 1;
+            }
+        });
+        Promise<Long, Float> sum = values.reduceParallel(new LongReducer() {
+            @Override
+            public long reduce(long v1, long v2) {
+                return v1 + v2;
+            }
+        });
+        collectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5));
+
+        assertArrayEquals(new long[]{2000000001L, 3000000001L, 4000000001L, 5000000001L}, values.getResult());
+        assertEquals(14000000004L, (long) sum.getResult());
+        assertEquals(Arrays.asList(2000000001L, 3000000001L, 4000000001L, 5000000001L),
+                values.boxed().getResult());
+    }
+
+}
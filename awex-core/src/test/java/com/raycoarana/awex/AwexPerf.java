@@ -2,11 +2,23 @@ package com.raycoarana.awex;
 
 import com.raycoarana.awex.policy.LinearWithRealTimePriorityPolicy;
 
+import com.raycoarana.awex.transform.Func;
+import com.raycoarana.awex.transform.IntMapper;
+import com.raycoarana.awex.transform.IntReducer;
+import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -14,7 +26,19 @@ import java.util.concurrent.Future;
 
 public class AwexPerf extends BasePerf {
 
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return lhs.compareTo(rhs);
+        }
+    };
+
     int numberOfTasks = 1000;
+    int numberOfItems = 4000;
+    // the first quarter of the items, the first range of the upfront split, is 100 times slower
+    long slowItemNanos = 20000;
+    long fastItemNanos = 200;
+    int numberOfValues = 1000000;
 
     private ThreadHelper mThreadHelper = new ThreadHelper() {
         @Override
@@ -94,6 +118,129 @@ public class AwexPerf extends BasePerf {
         }
     }
 
+    @Test
+    public void benchMapParallelWithSkewedCost() throws Exception {
+        mapParallelWithSkewedCost(CollectionPromise.PARALLEL_DEFAULT);
+    }
+
+    @Test
+    public void benchMapParallelWithSkewedCostInDynamicChunks() throws Exception {
+        mapParallelWithSkewedCost(CollectionPromise.PARALLEL_DYNAMIC_CHUNKS);
+    }
+
+    private void mapParallelWithSkewedCost(int flags) throws Exception {
+        final List<Integer> items = new ArrayList<>(numberOfItems);
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(i);
+        }
+        mAwex.submit(new Task<Collection<Integer>, Void>() {
+            @Override
+            protected Collection<Integer> run() throws InterruptedException {
+                return items;
+            }
+        }).<Integer>stream().mapParallel(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer item) {
+                busyWait(item < numberOfItems / 4 ? slowItemNanos : fastItemNanos);
+                return item;
+            }
+        }, flags).getResult();
+    }
+
+    @Test
+    public void benchMapAndReduceBoxedValues() throws Exception {
+        List<Integer> values = new ArrayList<>(numberOfValues);
+        for (int i = 0; i < numberOfValues; i++) {
+            values.add(i);
+        }
+        mAwex.of((Collection<Integer>) values).<Integer>stream().mapParallel(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                return value * 3;
+            }
+        }).reduceParallel(new Reducer<Integer>() {
+            @Override
+            public Integer reduce(Integer v1, Integer v2) {
+                return v1 ^ v2;
+            }
+        }).getResult();
+    }
+
+    @Test
+    public void benchMapAndReduceIntValues() throws Exception {
+        int[] values = new int[numberOfValues];
+        for (int i = 0; i < numberOfValues; i++) {
+            values[i] = i;
+        }
+        mAwex.ofInts(values).mapParallel(new IntMapper() {
+            @Override
+            public int map(int value) {
+                return value * 3;
+            }
+        }).reduceParallel(new IntReducer() {
+            @Override
+            public int reduce(int v1, int v2) {
+                return v1 ^ v2;
+            }
+        }).getResult();
+    }
+
+    @Test
+    public void benchSortOnCaller() throws Exception {
+        List<Integer> values = new ArrayList<>(mAwex.of(givenShuffledValues()).getResult());
+        Collections.sort(values, NATURAL_ORDER);
+    }
+
+    @Test
+    public void benchSortedParallel() throws Exception {
+        mAwex.of(givenShuffledValues()).<Integer>stream().sortedParallel(NATURAL_ORDER).getResult();
+    }
+
+    @Test
+    public void benchSumByKeyInSharedMap() throws Exception {
+        final Map<Integer, Integer> sums = new HashMap<>();
+        mAwex.of(givenShuffledValues()).<Integer>stream().forEachParallel(new Func<Integer>() {
+            @Override
+            public void run(Integer value) {
+                synchronized (sums) {
+                    Integer sum = sums.get(value % 1000);
+                    sums.put(value % 1000, sum != null ? sum + value : value);
+                }
+            }
+        }).getResult();
+    }
+
+    @Test
+    public void benchSumByKeyWithAggregateBy() throws Exception {
+        mAwex.of(givenShuffledValues()).<Integer>stream().aggregateByParallel(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                return value % 1000;
+            }
+        }, new Reducer<Integer>() {
+            @Override
+            public Integer reduce(Integer v1, Integer v2) {
+                return v1 + v2;
+            }
+        }).getResult();
+    }
+
+    private Collection<Integer> givenShuffledValues() {
+        List<Integer> values = new ArrayList<>(numberOfValues);
+        for (int i = 0; i < numberOfValues; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(42));
+        return values;
+    }
+
+    private static void busyWait(long nanos) {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            // spin
+        }
+    }
+
     private int doSomething() {
         /*
         Random r = new Random();
@@ -18,13 +18,19 @@ import org.mockito.Mock;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
@@ -102,6 +108,105 @@ public class AwexPromiseTest extends BasePromiseTest {
         assertEquals(SOME_DEFAULT_RESULT, mPromise.getResultOrDefault(SOME_DEFAULT_RESULT));
     }
 
+    @Test(expected = TimeoutException.class)
+    public void shouldFailToGetResultWhenTimeoutExpires() throws Exception {
+        setUpAwex();
+
+        mPromise = new AwexPromise<>(mAwex, mTask);
+        mPromise.getResult(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void shouldReturnDefaultValueWhenTimeoutExpires() throws InterruptedException {
+        setUpAwex();
+
+        mPromise = new AwexPromise<>(mAwex, mTask);
+        assertEquals(SOME_DEFAULT_RESULT, mPromise.getResultOrDefault(SOME_DEFAULT_RESULT, 10, TimeUnit.MILLISECONDS));
+        assertTrue(mPromise.isPending());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldGetResultResolvedFromOtherThreadWhileWaiting() throws Exception {
+        setUpAwex();
+
+        mPromise = new AwexPromise<>(mAwex, mTask);
+        givenResolvedFromOtherThread(mPromise);
+
+        assertEquals(SOME_RESULT, mPromise.getResult(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5000)
+    public void shouldGetResultResolvedFromOtherThreadWhileSpinning() throws Exception {
+        setUpAwex();
+
+        mPromise = new AwexPromise<>(mAwex, mTask);
+        givenResolvedFromOtherThread(mPromise);
+
+        assertEquals(SOME_RESULT, mPromise.getResult(5, TimeUnit.SECONDS, true));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSeeResultOnceResolvedStateIsVisibleFromOtherThread() throws Exception {
+        setUpAwex();
+
+        for (int i = 0; i < 1000; i++) {
+            final AwexPromise<Integer, Float> promise = new AwexPromise<>(mAwex, mTask);
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    promise.resolve(SOME_RESULT);
+                }
+            });
+            thread.start();
+
+            while (!promise.isResolved()) {
+                Thread.yield();
+            }
+            assertEquals(SOME_RESULT, promise.getResult());
+            thread.join();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSeeExceptionOnceRejectedStateIsVisibleFromOtherThread() throws Exception {
+        setUpAwex();
+
+        for (int i = 0; i < 1000; i++) {
+            final AwexPromise<Integer, Float> promise = new AwexPromise<>(mAwex, mTask);
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    promise.reject(REJECT_EXCEPTION);
+                }
+            });
+            thread.start();
+
+            while (!promise.isRejected()) {
+                Thread.yield();
+            }
+            try {
+                promise.getResult();
+                fail("Rejected promise returned a result");
+            } catch (Exception ex) {
+                assertSame(REJECT_EXCEPTION, ex);
+            }
+            thread.join();
+        }
+    }
+
+    private void givenResolvedFromOtherThread(final AwexPromise<Integer, Float> promise) {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ignored) {
+                }
+                promise.resolve(SOME_RESULT);
+            }
+        }).start();
+    }
+
     @Test
     public void shouldResolveThePromise() throws Exception {
         setUpAwex();
@@ -136,6 +241,32 @@ public class AwexPromiseTest extends BasePromiseTest {
         verify(mAlwaysCallback).onAlways();
     }
 
+    @Test
+    public void shouldExecuteCallbacksInRegistrationOrder() throws Exception {
+        setUpAwex();
+
+        final List<Integer> order = new ArrayList<>();
+        mPromise = new AwexPromise<>(mAwex, mTask);
+        for (int i = 0; i < 3; i++) {
+            final int index = i;
+            mPromise.done(new DoneCallback<Integer>() {
+                @Override
+                public void onDone(Integer result) {
+                    order.add(index);
+                }
+            }).progress(new ProgressCallback<Float>() {
+                @Override
+                public void onProgress(Float progress) {
+                    order.add(-index);
+                }
+            });
+        }
+        mPromise.notifyProgress(SOME_PROGRESS);
+        mPromise.resolve(SOME_RESULT);
+
+        assertArrayEquals(new Integer[]{0, -1, -2, 0, 1, 2}, order.toArray(new Integer[6]));
+    }
+
     @Test
     public void shouldExecuteDoneCallbackAddedAfterResolveThePromise() throws Exception {
         setUpAwex();
@@ -174,7 +305,7 @@ public class AwexPromiseTest extends BasePromiseTest {
                 .always(mUIAlwaysCallback);
 
         verify(mThreadHelper, never()).post(any(Runnable.class));
-        verify(mAwex, never()).submit(any(Runnable.class));
+        verify(mAwex, never()).submit(any(Runnable.class), any());
         verify(mUIDoneCallback).onDone(SOME_RESULT);
         verify(mUIAlwaysCallback).onAlways();
     }
@@ -190,7 +321,7 @@ public class AwexPromiseTest extends BasePromiseTest {
                 .always(mAlwaysCallback);
 
         verify(mThreadHelper, never()).post(any(Runnable.class));
-        verify(mAwex, times(2)).submit(any(Runnable.class));
+        verify(mAwex, times(2)).submit(any(Runnable.class), any());
         verify(mDoneCallback).onDone(SOME_RESULT);
         verify(mAlwaysCallback).onAlways();
     }
@@ -333,7 +464,7 @@ public class AwexPromiseTest extends BasePromiseTest {
                 .always(mAlwaysCallback);
 
         verify(mThreadHelper, never()).post(any(Runnable.class));
-        verify(mAwex, times(2)).submit(any(Runnable.class));
+        verify(mAwex, times(2)).submit(any(Runnable.class), any());
         verify(mFailCallback).onFail(any(RuntimeException.class));
         verify(mAlwaysCallback).onAlways();
     }
@@ -431,7 +562,7 @@ public class AwexPromiseTest extends BasePromiseTest {
         mPromise.cancelTask();
 
         verify(mThreadHelper, never()).post(any(Runnable.class));
-        verify(mAwex).submit(any(Runnable.class));
+        verify(mAwex).submit(any(Runnable.class), any());
         verify(mCancelCallback).onCancel();
     }
 
@@ -445,7 +576,7 @@ public class AwexPromiseTest extends BasePromiseTest {
         mPromise.cancel(mCancelCallback);
 
         verify(mThreadHelper, never()).post(any(Runnable.class));
-        verify(mAwex).submit(any(Runnable.class));
+        verify(mAwex).submit(any(Runnable.class), any());
         verify(mCancelCallback).onCancel();
     }
 
@@ -642,4 +773,48 @@ public class AwexPromiseTest extends BasePromiseTest {
         assertArrayEquals(new Integer[]{1, 2, 3}, values.toArray(new Integer[3]));
     }
 
-}
\ No newline at end of file
+    @Test(timeout = 5000)
+    public void shouldResolveOnceAndTriggerEveryCallbackOnceWhenRacingWithRegistrations() throws Exception {
+        setUpAwex();
+
+        final int numberOfThreads = 8;
+        final AwexPromise<Integer, Float> promise = new AwexPromise<>(mAwex, mTask);
+        final AtomicInteger resolutions = new AtomicInteger();
+        final AtomicInteger doneCallbacks = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int value = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ignored) {
+                        return;
+                    }
+                    promise.done(new DoneCallback<Integer>() {
+                        @Override
+                        public void onDone(Integer result) {
+                            doneCallbacks.incrementAndGet();
+                        }
+                    });
+                    if (promise.tryResolve(value)) {
+                        resolutions.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, resolutions.get());
+        assertEquals(numberOfThreads, doneCallbacks.get());
+        assertTrue(promise.isResolved());
+    }
+
+}
@@ -2,6 +2,8 @@ package com.raycoarana.awex;
 
 import com.raycoarana.awex.exceptions.EmptyTasksException;
 import com.raycoarana.awex.policy.LinearWithRealTimePriorityPolicy;
+import com.raycoarana.awex.state.PoolState;
+import com.raycoarana.awex.state.QueueState;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -14,13 +16,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 public class AwexTest {
@@ -29,6 +40,7 @@ public class AwexTest {
     private static final Integer SOME_OTHER_VALUE = 43;
     public static final String ANY_ERROR = "Argument not valid!";
     public static final String ANY_OTHER_ERROR = "Other not valid!";
+    private static final int QUEUE_ID = 1;
 
 
     @Mock
@@ -305,6 +317,29 @@ public class AwexTest {
         waitingPromise.getResult();
     }
 
+    @Test(timeout = 1000)
+    public void shouldSubmitAllTasksOfABatch() throws Exception {
+        setUpAwex();
+
+        List<Task<Integer, Float>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int value = i;
+            tasks.add(new Task<Integer, Float>() {
+                @Override
+                protected Integer run() throws InterruptedException {
+                    return value;
+                }
+            });
+        }
+
+        List<Promise<Integer, Float>> promises = mAwex.submitAll(tasks);
+
+        assertEquals(tasks.size(), promises.size());
+        for (int i = 0; i < promises.size(); i++) {
+            assertEquals(Integer.valueOf(i), promises.get(i).getResult());
+        }
+    }
+
     @Test
     public void shouldCreateAllOfPromise() {
         setUpAwex();
@@ -462,6 +497,320 @@ public class AwexTest {
 
 
 
+    @Test
+    public void shouldResolvePromiseFromFutureWhenItIsDone() throws Exception {
+        setUpAwex();
+
+        FutureTask<Integer> future = new FutureTask<>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return SOME_VALUE;
+            }
+        });
+        Promise<Integer, Void> promise = mAwex.fromFuture(future);
+        new Thread(future).start();
+
+        assertEquals(SOME_VALUE, promise.getResult());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldNotBlockWorkersWhileWaitingForMoreFuturesThanWorkers() throws Exception {
+        setUpAwex();
+
+        final List<FutureTask<Integer>> futures = new ArrayList<>();
+        List<Promise<Integer, Void>> promises = new ArrayList<>();
+        for (int i = 0; i < mAwex.getNumberOfThreads() * 2 + 2; i++) {
+            FutureTask<Integer> future = new FutureTask<>(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return SOME_VALUE;
+                }
+            });
+            futures.add(future);
+            promises.add(mAwex.<Integer, Void>fromFuture(future));
+        }
+
+        // futures are completed from the pool, that would never run it if its workers were waiting for them
+        mAwex.submit(new Task<Void, Void>() {
+            @Override
+            protected Void run() throws InterruptedException {
+                for (FutureTask<Integer> future : futures) {
+                    future.run();
+                }
+                return null;
+            }
+        });
+
+        for (Promise<Integer, Void> promise : promises) {
+            assertEquals(SOME_VALUE, promise.getResult());
+        }
+    }
+
+    @Test
+    public void shouldRejectPromiseFromFailedFuture() throws Exception {
+        setUpAwex();
+
+        final IllegalArgumentException exception = new IllegalArgumentException(ANY_ERROR);
+        FutureTask<Integer> future = new FutureTask<>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw exception;
+            }
+        });
+        future.run();
+
+        Promise<Integer, Void> promise = mAwex.fromFuture(future);
+
+        assertTrue(promise.isRejected());
+        assertEquals(SOME_OTHER_VALUE, promise.getResultOrDefault(SOME_OTHER_VALUE));
+    }
+
+    @Test
+    public void shouldCancelFutureWhenPromiseFromFutureIsCancelled() throws Exception {
+        setUpAwex();
+
+        FutureTask<Integer> future = new FutureTask<>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return SOME_VALUE;
+            }
+        });
+        Promise<Integer, Void> promise = mAwex.fromFuture(future);
+        promise.cancelTask(true);
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void shouldUnwrapPromiseFromItsFuture() throws Exception {
+        setUpAwex();
+
+        Promise<Integer, Void> promise = mAwex.newAwexPromise();
+
+        assertSame(promise, mAwex.fromFuture(promise.toFuture()));
+    }
+
+    @Test
+    public void shouldGetResultOfPromiseFromItsFuture() throws Exception {
+        setUpAwex();
+
+        mTaskPromise = mAwex.submit(new Task<Integer, Float>() {
+            @Override
+            protected Integer run() throws InterruptedException {
+                return SOME_VALUE;
+            }
+        });
+
+        assertEquals(SOME_VALUE, mTaskPromise.toFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldWrapRejectionOfPromiseInExecutionException() throws Exception {
+        setUpAwex();
+
+        final IllegalArgumentException exception = new IllegalArgumentException(ANY_ERROR);
+        mTaskPromise = mAwex.submit(new Task<Integer, Float>() {
+            @Override
+            protected Integer run() throws InterruptedException {
+                throw exception;
+            }
+        });
+
+        try {
+            mTaskPromise.toFuture().get();
+            fail("Rejection not thrown");
+        } catch (ExecutionException ex) {
+            assertSame(exception, ex.getCause());
+        }
+    }
+
+    @Test
+    public void shouldCancelPromiseWhenItsFutureIsCancelled() throws Exception {
+        setUpAwex();
+
+        ResolvablePromise<Integer, Void> promise = mAwex.newAwexPromise();
+        Future<Integer> future = promise.toFuture();
+
+        assertTrue(future.cancel(false));
+        assertTrue(promise.isCancelled());
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldSeeLiveWorkerAndEnqueueCountsFromOnTaskAdded() throws Exception {
+        final List<Integer> workerCounts = new ArrayList<>();
+        final List<Integer> enqueueCounts = new ArrayList<>();
+        final List<Integer> waiterCounts = new ArrayList<>();
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(), new PoolPolicy() {
+            @Override
+            public void onStartUp() {
+                createQueue(QUEUE_ID);
+            }
+
+            @Override
+            public void onTaskAdded(PoolState poolState, Task task) {
+                QueueState queueState = poolState.getQueue(QUEUE_ID);
+                if (queueState.numberOfWorkers() < 2) {
+                    workerCounts.add(queueState.numberOfWorkers());
+                    createWorker(QUEUE_ID, 0);
+                    workerCounts.add(queueState.numberOfWorkers());
+                    queueTask(QUEUE_ID, task);
+                } else {
+                    waiterCounts.add(queueState.getWaiters());
+                    enqueueCounts.add(queueState.getEnqueue());
+                    queueTask(QUEUE_ID, task);
+                    enqueueCounts.add(queueState.getEnqueue());
+                }
+            }
+
+            @Override
+            public void onTaskFinished(PoolState poolState, Task task) {
+
+            }
+
+            @Override
+            public void onTaskQueueTimeout(PoolState poolState, Task task) {
+
+            }
+
+            @Override
+            public void onTaskExecutionTimeout(PoolState poolState, Task task) {
+
+            }
+        });
+
+        final Semaphore workIsRunning = new Semaphore(0);
+        final Semaphore releaseWork = new Semaphore(0);
+        for (int i = 0; i < 2; i++) {
+            mAwex.submit(new BlockingTask(workIsRunning, releaseWork));
+        }
+        workIsRunning.acquire(2);
+        List<Promise<Integer, Float>> promises = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            promises.add(mAwex.submit(new Task<Integer, Float>() {
+                @Override
+                protected Integer run() throws InterruptedException {
+                    return SOME_VALUE;
+                }
+            }));
+        }
+        releaseWork.release(2);
+        for (Promise<Integer, Float> promise : promises) {
+            promise.getResult();
+        }
+
+        assertEquals(Arrays.asList(0, 1, 1, 2), workerCounts);
+        assertEquals(Arrays.asList(0, 1, 1, 2), enqueueCounts);
+        assertEquals(Arrays.asList(0, 0), waiterCounts);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldSeeLiveEnqueueAndWaiterCountsFromOnTaskFinished() throws Exception {
+        final CountDownLatch tasksFinished = new CountDownLatch(3);
+        final List<Integer> enqueueCounts = new ArrayList<>();
+        final List<Integer> waiterCounts = new ArrayList<>();
+        final List<Integer> workerCounts = new ArrayList<>();
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(), new PoolPolicy() {
+            @Override
+            public void onStartUp() {
+                createQueue(QUEUE_ID);
+                createWorker(QUEUE_ID, 0);
+            }
+
+            @Override
+            public void onTaskAdded(PoolState poolState, Task task) {
+                queueTask(QUEUE_ID, task);
+            }
+
+            @Override
+            public void onTaskFinished(PoolState poolState, Task task) {
+                QueueState queueState = poolState.getQueue(QUEUE_ID);
+                enqueueCounts.add(queueState.getEnqueue());
+                waiterCounts.add(queueState.getWaiters());
+                workerCounts.add(queueState.numberOfWorkers());
+                tasksFinished.countDown();
+            }
+
+            @Override
+            public void onTaskQueueTimeout(PoolState poolState, Task task) {
+
+            }
+
+            @Override
+            public void onTaskExecutionTimeout(PoolState poolState, Task task) {
+
+            }
+        });
+
+        final Semaphore workIsRunning = new Semaphore(0);
+        final Semaphore releaseWork = new Semaphore(0);
+        mAwex.submit(new BlockingTask(workIsRunning, releaseWork));
+        workIsRunning.acquire();
+        for (int i = 0; i < 2; i++) {
+            mAwex.submit(new Task<Integer, Float>() {
+                @Override
+                protected Integer run() throws InterruptedException {
+                    return SOME_VALUE;
+                }
+            });
+        }
+        releaseWork.release();
+        tasksFinished.await();
+
+        assertEquals(Arrays.asList(2, 1, 0), enqueueCounts);
+        assertEquals(Arrays.asList(0, 0, 0), waiterCounts);
+        assertEquals(Arrays.asList(1, 1, 1), workerCounts);
+    }
+
+    private static class BlockingTask extends Task<Integer, Float> {
+
+        private final Semaphore mWorkIsRunning;
+        private final Semaphore mReleaseWork;
+
+        public BlockingTask(Semaphore workIsRunning, Semaphore releaseWork) {
+            mWorkIsRunning = workIsRunning;
+            mReleaseWork = releaseWork;
+        }
+
+        @Override
+        protected Integer run() throws InterruptedException {
+            mWorkIsRunning.release();
+            mReleaseWork.acquire();
+            return SOME_VALUE;
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRegisterEveryTaskOfABatchBeforeItCanFinish() throws Exception {
+        final AtomicInteger unregisteredTasks = new AtomicInteger();
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(), new LinearWithRealTimePriorityPolicy(0, 4) {
+            @Override
+            public void onTaskFinished(PoolState poolState, Task task) {
+                if (poolState.getEqualTaskInQueue(task) != task) {
+                    unregisteredTasks.incrementAndGet();
+                }
+            }
+        });
+
+        for (int i = 0; i < 50; i++) {
+            List<Task<Integer, Void>> tasks = new ArrayList<>();
+            for (int j = 0; j < 100; j++) {
+                tasks.add(new Task<Integer, Void>() {
+                    @Override
+                    protected Integer run() throws InterruptedException {
+                        return SOME_VALUE;
+                    }
+                });
+            }
+            for (Promise<Integer, Void> promise : mAwex.submitAll(tasks)) {
+                promise.getResult();
+            }
+        }
+
+        assertEquals(0, unregisteredTasks.get());
+    }
+
     private void setUpAwex() {
         mAwex = new Awex(mThreadHelper, new ConsoleLogger(), new LinearWithRealTimePriorityPolicy(0, 1));
     }
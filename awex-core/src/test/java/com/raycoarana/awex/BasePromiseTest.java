@@ -6,6 +6,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
@@ -63,6 +64,14 @@ public class BasePromiseTest {
                 return null;
             }
         }).when(mAwex).submit(isA(Runnable.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(mAwex).submit(isA(Runnable.class), any());
     }
 
     private void givenAWork() {
@@ -0,0 +1,86 @@
+package com.raycoarana.awex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.assertEquals;
+
+public class CallbackDispatcherTest {
+
+    private static final int NUMBER_OF_THREADS = 4;
+    private static final int NUMBER_OF_CALLBACKS = 1000;
+
+    private CallbackDispatcher mCallbackDispatcher;
+
+    @Before
+    public void setUp() {
+        mCallbackDispatcher = new CallbackDispatcher(NUMBER_OF_THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        mCallbackDispatcher.shutdown();
+    }
+
+    @Test(timeout = 5000)
+    public void shouldRunCallbacksWithSameKeyInOrder() throws Exception {
+        Object key = new Object();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch latch = new CountDownLatch(NUMBER_OF_CALLBACKS);
+        for (int i = 0; i < NUMBER_OF_CALLBACKS; i++) {
+            final int value = i;
+            mCallbackDispatcher.dispatch(key, new Runnable() {
+                @Override
+                public void run() {
+                    executed.add(value);
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        for (int i = 0; i < NUMBER_OF_CALLBACKS; i++) {
+            assertEquals(Integer.valueOf(i), executed.get(i));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void shouldNotBlockCallbacksOfOtherKeysWhenOneIsSlow() throws Exception {
+        Object slowKey = new Object();
+        Object otherKey = new Object();
+        while (mCallbackDispatcher.shardOf(otherKey) == mCallbackDispatcher.shardOf(slowKey)) {
+            otherKey = new Object();
+        }
+
+        final Semaphore release = new Semaphore(0);
+        final Semaphore otherExecuted = new Semaphore(0);
+        mCallbackDispatcher.dispatch(slowKey, new Runnable() {
+            @Override
+            public void run() {
+                release.acquireUninterruptibly();
+            }
+        });
+        mCallbackDispatcher.dispatch(otherKey, new Runnable() {
+            @Override
+            public void run() {
+                otherExecuted.release();
+            }
+        });
+
+        otherExecuted.acquire();
+        release.release();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWithoutThreads() {
+        new CallbackDispatcher(0);
+    }
+
+}
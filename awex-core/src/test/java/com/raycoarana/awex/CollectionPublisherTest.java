@@ -0,0 +1,216 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.reactive.Subscriber;
+import com.raycoarana.awex.reactive.Subscription;
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CollectionPublisherTest extends BasePromiseTest {
+
+    @Test
+    public void shouldApplyOperationsOnlyToRequestedItems() {
+        setUpAwex();
+        final AtomicInteger mappedItems = new AtomicInteger();
+        AwexCollectionPromise<Integer, Float> promise = new AwexCollectionPromise<>(mAwex);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        promise.map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                mappedItems.incrementAndGet();
+                return value * 10;
+            }
+        }).toPublisher().subscribe(subscriber);
+        promise.resolve(Arrays.asList(1, 2, 3, 4, 5));
+
+        subscriber.mSubscription.request(2);
+        assertEquals(Arrays.asList(10, 20), subscriber.mItems);
+        assertEquals(2, mappedItems.get());
+        assertFalse(subscriber.mCompleted);
+
+        subscriber.mSubscription.request(10);
+        assertEquals(Arrays.asList(10, 20, 30, 40, 50), subscriber.mItems);
+        assertTrue(subscriber.mCompleted);
+    }
+
+    @Test
+    public void shouldSkipFilteredItemsWithoutConsumingDemand() {
+        setUpAwex();
+        AwexCollectionPromise<Integer, Float> promise = new AwexCollectionPromise<>(mAwex);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        promise.filter(new Filter<Integer>() {
+            @Override
+            public boolean filter(Integer value) {
+                return value % 2 == 0;
+            }
+        }).toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.request(2);
+        promise.resolve(Arrays.asList(1, 2, 3, 4, 5));
+
+        assertEquals(Arrays.asList(2, 4), subscriber.mItems);
+        assertFalse(subscriber.mCompleted);
+
+        subscriber.mSubscription.request(1);
+        assertEquals(Arrays.asList(2, 4), subscriber.mItems);
+        assertTrue(subscriber.mCompleted);
+    }
+
+    @Test
+    public void shouldNotRecurseWhenRequestingFromOnNext() {
+        setUpAwex();
+        final int numberOfItems = 100000;
+        List<Integer> items = new ArrayList<>(numberOfItems);
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(i);
+        }
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                mSubscription.request(1);
+            }
+        };
+
+        ((CollectionPromise<Integer, Float>) new AwexCollectionPromise<Integer, Float>(mAwex)
+                .resolve(items)).toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.request(1);
+
+        assertEquals(numberOfItems, subscriber.mItems.size());
+        assertTrue(subscriber.mCompleted);
+    }
+
+    @Test
+    public void shouldStopEmittingWhenCancelled() {
+        setUpAwex();
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                mSubscription.cancel();
+            }
+        };
+
+        ((CollectionPromise<Integer, Float>) new AwexCollectionPromise<Integer, Float>(mAwex)
+                .resolve(Arrays.asList(1, 2, 3))).toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList(1), subscriber.mItems);
+        assertFalse(subscriber.mCompleted);
+    }
+
+    @Test
+    public void shouldReleaseCancelledSubscriberWhilePromiseIsPending() throws Exception {
+        setUpAwex();
+        AwexCollectionPromise<Integer, Float> promise = new AwexCollectionPromise<>(mAwex);
+        TestSubscriber subscriber = new TestSubscriber();
+        promise.toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.cancel();
+
+        WeakReference<TestSubscriber> subscriberReference = new WeakReference<>(subscriber);
+        subscriber = null;
+        for (int i = 0; i < 50 && subscriberReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(subscriberReference.get());
+        assertTrue(promise.isPending());
+    }
+
+    @Test
+    public void shouldSignalErrorWhenPromiseIsRejected() {
+        setUpAwex();
+        Exception exception = new Exception();
+        AwexCollectionPromise<Integer, Float> promise = new AwexCollectionPromise<>(mAwex);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        promise.toPublisher().subscribe(subscriber);
+        promise.reject(exception);
+
+        assertSame(exception, subscriber.mError);
+        assertTrue(subscriber.mItems.isEmpty());
+    }
+
+    @Test
+    public void shouldSignalErrorWhenRequestIsNotPositive() {
+        setUpAwex();
+        TestSubscriber subscriber = new TestSubscriber();
+
+        ((CollectionPromise<Integer, Float>) new AwexCollectionPromise<Integer, Float>(mAwex)
+                .resolve(Arrays.asList(1, 2, 3))).toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.request(0);
+
+        assertThat(subscriber.mError, instanceOf(IllegalArgumentException.class));
+        assertTrue(subscriber.mItems.isEmpty());
+    }
+
+    @Test
+    public void shouldPublishMaterializedResultWhenAlreadyApplied() {
+        setUpAwex();
+        final AtomicInteger mappedItems = new AtomicInteger();
+        AwexCollectionPromise<Integer, Float> promise = new AwexCollectionPromise<>(mAwex);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        CollectionPromise<Integer, Float> mapped = promise.map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                mappedItems.incrementAndGet();
+                return value + 1;
+            }
+        }).applyNow();
+        promise.resolve(Arrays.asList(1, 2, 3));
+        mapped.toPublisher().subscribe(subscriber);
+        subscriber.mSubscription.request(3);
+
+        assertEquals(Arrays.asList(2, 3, 4), subscriber.mItems);
+        assertEquals(3, mappedItems.get());
+        assertNull(subscriber.mError);
+    }
+
+    private static class TestSubscriber implements Subscriber<Integer> {
+
+        protected Subscription mSubscription;
+        protected final Collection<Integer> mItems = new ArrayList<>();
+        protected Throwable mError;
+        protected boolean mCompleted;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mSubscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            mItems.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            mError = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            mCompleted = true;
+        }
+    }
+
+}
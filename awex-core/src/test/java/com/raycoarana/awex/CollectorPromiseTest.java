@@ -0,0 +1,187 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class CollectorPromiseTest extends BasePromiseTest {
+
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return lhs.compareTo(rhs);
+        }
+    };
+
+    // compares only the tens, so items with the same tens are equal
+    private static final Comparator<Integer> BY_TENS = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return Integer.valueOf(lhs / 10).compareTo(rhs / 10);
+        }
+    };
+
+    private AwexPromise<Collection<Integer>, Float> mCollectionPromise;
+
+    @Test
+    public void shouldSortTheItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> sorted = mCollectionPromise.<Integer>stream().sorted(NATURAL_ORDER);
+        mCollectionPromise.resolve(Arrays.asList(5, 3, 1, 4, 2));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), sorted.getResult());
+    }
+
+    @Test
+    public void shouldSortTheItemsInParallel() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        List<Integer> items = givenRandomItems(1001);
+
+        CollectionPromise<Integer, Float> sorted = mCollectionPromise.<Integer>stream().sortedParallel(NATURAL_ORDER);
+        mCollectionPromise.resolve(items);
+
+        List<Integer> expected = new ArrayList<>(items);
+        Collections.sort(expected);
+        assertEquals(expected, sorted.getResult());
+    }
+
+    @Test
+    public void shouldKeepTheOrderOfEqualItemsWhenSortingInParallel() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> sorted = mCollectionPromise.<Integer>stream().sortedParallel(BY_TENS);
+        mCollectionPromise.resolve(Arrays.asList(21, 11, 22, 12, 23, 13, 1, 24, 14));
+
+        assertEquals(Arrays.asList(1, 11, 12, 13, 14, 21, 22, 23, 24), sorted.getResult());
+    }
+
+    @Test
+    public void shouldTakeTheFirstItemsInOrder() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        List<Integer> items = givenRandomItems(1001);
+
+        CollectionPromise<Integer, Float> topK = mCollectionPromise.<Integer>stream().topK(10, NATURAL_ORDER);
+        CollectionPromise<Integer, Float> topKParallel = mCollectionPromise.<Integer>stream().topKParallel(10, NATURAL_ORDER);
+        mCollectionPromise.resolve(items);
+
+        List<Integer> expected = new ArrayList<>(items);
+        Collections.sort(expected);
+        assertEquals(expected.subList(0, 10), topK.getResult());
+        assertEquals(expected.subList(0, 10), topKParallel.getResult());
+    }
+
+    @Test
+    public void shouldTakeAllItemsWhenThereAreLessThanK() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> topK = mCollectionPromise.<Integer>stream().topKParallel(10, NATURAL_ORDER);
+        mCollectionPromise.resolve(Arrays.asList(3, 1, 2));
+
+        assertEquals(Arrays.asList(1, 2, 3), topK.getResult());
+    }
+
+    @Test
+    public void shouldTakeNoItemsWhenKIsZero() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> topK = mCollectionPromise.<Integer>stream().topKParallel(0, NATURAL_ORDER);
+        mCollectionPromise.resolve(Arrays.asList(3, 1, 2, 4, 5));
+
+        assertEquals(Collections.<Integer>emptyList(), topK.getResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenKIsNegative() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        mCollectionPromise.<Integer>stream().topK(-1, NATURAL_ORDER);
+    }
+
+    @Test
+    public void shouldApplyThePendingChainInTheSamePass() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        final AtomicInteger mappedItems = new AtomicInteger();
+
+        CollectionPromise<Integer, Float> mapped = mCollectionPromise.<Integer>stream()
+                .filter(new Filter<Integer>() {
+                    @Override
+                    public boolean filter(Integer value) {
+                        return value % 2 == 0;
+                    }
+                }).map(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        mappedItems.incrementAndGet();
+                        return -value;
+                    }
+                });
+        CollectionPromise<Integer, Float> sorted = mapped.sortedParallel(NATURAL_ORDER);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Arrays.asList(-8, -6, -4, -2), sorted.getResult());
+        assertEquals(4, mappedItems.get());
+        assertEquals(Promise.STATE_PENDING, mapped.getState());
+    }
+
+    @Test
+    public void shouldRejectWhenTheComparatorFails() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> sorted = mCollectionPromise.<Integer>stream().sortedParallel(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                throw new IllegalStateException();
+            }
+        });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Promise.STATE_REJECTED, sorted.getState());
+    }
+
+    @Test
+    public void shouldCancelWhenSourceIsCancelled() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> sorted = mCollectionPromise.<Integer>stream().sorted(NATURAL_ORDER);
+        mCollectionPromise.cancelTask();
+
+        assertEquals(Promise.STATE_CANCELLED, sorted.getState());
+    }
+
+    private List<Integer> givenRandomItems(int count) {
+        Random random = new Random(42);
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(random.nextInt(count));
+        }
+        return items;
+    }
+
+    private void givenACollectionPromise() {
+        mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+
+public class DistinctPromiseTest extends BasePromiseTest {
+
+    private static final Mapper<Integer, Integer> MODULE_3 = new Mapper<Integer, Integer>() {
+        @Override
+        public Integer map(Integer value) {
+            return value % 3;
+        }
+    };
+
+    private AwexPromise<Collection<Integer>, Float> mCollectionPromise;
+    private final List<Task> mQueuedTasks = new ArrayList<>();
+
+    @Test
+    public void shouldRemoveDuplicatedItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream().distinct();
+        mCollectionPromise.resolve(Arrays.asList(3, 1, 3, 2, 1, 4));
+
+        assertEquals(Arrays.asList(3, 1, 2, 4), distinct.getResult());
+    }
+
+    @Test
+    public void shouldRemoveDuplicatedItemsInParallelKeepingTheFirstOccurrences() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        Random random = new Random(42);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            items.add(random.nextInt(100));
+        }
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream().distinctParallel();
+        mCollectionPromise.resolve(items);
+
+        assertEquals(new ArrayList<>(new LinkedHashSet<>(items)), distinct.getResult());
+    }
+
+    @Test
+    public void shouldKeepTheFirstOccurrenceWhenLaterRangesAreDoneFirst() throws Exception {
+        setUpAwex();
+        givenThatTasksAreQueued();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream().distinctParallel();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 1, 4, 2, 5, 1));
+        executeQueuedTasks(3, 2, 1, 0);
+        executeQueuedTasks(7, 6, 5, 4);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), distinct.getResult());
+    }
+
+    @Test
+    public void shouldApplyThePendingChainAndKeepNullItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream()
+                .map(MODULE_3).map(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        return value == 0 ? null : value;
+                    }
+                }).distinctParallel();
+        mCollectionPromise.resolve(Arrays.asList(4, 5, 7, 6, 8, 9));
+
+        assertEquals(Arrays.asList(1, 2, null), distinct.getResult());
+    }
+
+    @Test
+    public void shouldRejectWhenARangeFails() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream()
+                .map(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        if (value == 6) {
+                            throw new IllegalStateException();
+                        }
+                        return value;
+                    }
+                }).distinctParallel();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Promise.STATE_REJECTED, distinct.getState());
+    }
+
+    @Test
+    public void shouldCancelWhenSourceIsCancelled() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> distinct = mCollectionPromise.<Integer>stream().distinctParallel();
+        mCollectionPromise.cancelTask();
+
+        assertEquals(Promise.STATE_CANCELLED, distinct.getState());
+    }
+
+    private void givenThatTasksAreQueued() {
+        doAnswer(new Answer<Promise>() {
+            @Override
+            public Promise answer(InvocationOnMock invocation) throws Throwable {
+                Task task = ((Task) invocation.getArguments()[0]);
+                task.initialize(mAwex);
+                task.markQueue(null);
+                mQueuedTasks.add(task);
+                return task.getPromise();
+            }
+        }).when(mAwex).submit(isA(Task.class));
+    }
+
+    private void executeQueuedTasks(int... indexes) throws InterruptedException {
+        for (int index : indexes) {
+            mQueuedTasks.get(index).execute();
+        }
+    }
+
+    private void givenACollectionPromise() {
+        mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.raycoarana.awex;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class FifoPriorityTaskQueueTest {
+
+    private static final int SOME_QUEUE_ID = 1;
+    private static final long SOME_AGING_RATE = 10;
+
+    @Mock
+    private Awex mAwex;
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private FifoPriorityTaskQueue mTaskQueue;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mAwex.provideLogger()).thenReturn(new ConsoleLogger());
+        when(mAwex.provideUIThread()).thenReturn(mThreadHelper);
+        mTaskQueue = new FifoPriorityTaskQueue(SOME_QUEUE_ID);
+    }
+
+    @Test
+    public void shouldTakeFirstlyTaskWithMorePriority() throws Exception {
+        Task lowPriorityTask = givenTask(Task.PRIORITY_LOW);
+        Task highPriorityTask = givenTask(Task.PRIORITY_HIGH);
+        Task normalPriorityTask = givenTask(Task.PRIORITY_NORMAL);
+
+        mTaskQueue.insert(lowPriorityTask);
+        mTaskQueue.insert(highPriorityTask);
+        mTaskQueue.insert(normalPriorityTask);
+
+        assertSame(highPriorityTask, mTaskQueue.take(null));
+        assertSame(normalPriorityTask, mTaskQueue.take(null));
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldTakeTasksWithSamePriorityInInsertionOrder() throws Exception {
+        Task[] tasks = new Task[10];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = givenTask(Task.PRIORITY_NORMAL);
+            mTaskQueue.insert(tasks[i]);
+        }
+
+        for (Task task : tasks) {
+            assertSame(task, mTaskQueue.take(null));
+        }
+    }
+
+    @Test
+    public void shouldOrderCustomPrioritiesAroundTheLanes() throws Exception {
+        Task realTimeTask = givenTask(Task.PRIORITY_REAL_TIME);
+        Task someCustomHighTask = givenTask(Task.PRIORITY_HIGH + 1);
+        Task otherCustomHighTask = givenTask(Task.PRIORITY_HIGH + 1);
+        Task customLowTask = givenTask(Task.PRIORITY_LOWEST - 1);
+        Task lowestTask = givenTask(Task.PRIORITY_LOWEST);
+
+        mTaskQueue.insertAll(Arrays.asList(customLowTask, lowestTask, someCustomHighTask,
+                otherCustomHighTask, realTimeTask));
+
+        assertSame(realTimeTask, mTaskQueue.take(null));
+        assertSame(someCustomHighTask, mTaskQueue.take(null));
+        assertSame(otherCustomHighTask, mTaskQueue.take(null));
+        assertSame(lowestTask, mTaskQueue.take(null));
+        assertSame(customLowTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldKeepSizeUpdated() throws Exception {
+        Task someTask = givenTask(Task.PRIORITY_NORMAL);
+        Task otherTask = givenTask(Task.PRIORITY_LOWEST - 1);
+
+        mTaskQueue.insert(someTask);
+        mTaskQueue.insert(otherTask);
+        assertEquals(2, mTaskQueue.size());
+
+        assertTrue(mTaskQueue.remove(otherTask));
+        assertEquals(1, mTaskQueue.size());
+        assertFalse(mTaskQueue.remove(otherTask));
+
+        mTaskQueue.take(null);
+        assertEquals(0, mTaskQueue.size());
+    }
+
+    @Test(timeout = 1000)
+    public void shouldWakeUpWaitingWorkerWhenTaskIsInserted() throws Exception {
+        final Semaphore taken = new Semaphore(0);
+        final Task someTask = givenTask(Task.PRIORITY_NORMAL);
+        final Task[] takenTask = new Task[1];
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    takenTask[0] = mTaskQueue.take(null);
+                    taken.release();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }).start();
+
+        while (mTaskQueue.waiters() == 0) {
+            Thread.sleep(1);
+        }
+        mTaskQueue.insert(someTask);
+
+        taken.acquire();
+        assertSame(someTask, takenTask[0]);
+    }
+
+    @Test
+    public void shouldTakeFirstlyOldTaskWhenItsAgedPriorityIsHigher() throws Exception {
+        mTaskQueue = new FifoPriorityTaskQueue(SOME_QUEUE_ID, SOME_AGING_RATE);
+        Task lowPriorityTask = givenQueuedTask(Task.PRIORITY_LOW);
+        Thread.sleep(SOME_AGING_RATE * 4);
+        Task highPriorityTask = givenQueuedTask(Task.PRIORITY_HIGH);
+
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+        assertSame(highPriorityTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldTakeFirstlyOldOverflowTaskWhenItsAgedPriorityIsHigher() throws Exception {
+        mTaskQueue = new FifoPriorityTaskQueue(SOME_QUEUE_ID, SOME_AGING_RATE);
+        Task lowestPriorityTask = givenQueuedTask(Task.PRIORITY_LOWEST - 2);
+        Thread.sleep(SOME_AGING_RATE * 4);
+        Task lowPriorityTask = givenQueuedTask(Task.PRIORITY_LOWEST - 1);
+
+        assertSame(lowestPriorityTask, mTaskQueue.take(null));
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldTakeFirstlyTaskWithMorePriorityWhenNotAgedEnough() throws Exception {
+        mTaskQueue = new FifoPriorityTaskQueue(SOME_QUEUE_ID, SOME_AGING_RATE * 100);
+        Task lowPriorityTask = givenQueuedTask(Task.PRIORITY_LOW);
+        Task highPriorityTask = givenQueuedTask(Task.PRIORITY_HIGH);
+
+        assertSame(highPriorityTask, mTaskQueue.take(null));
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldReportQueueAgesPerPriority() throws Exception {
+        givenQueuedTask(Task.PRIORITY_NORMAL);
+        Thread.sleep(SOME_AGING_RATE * 2);
+        givenQueuedTask(Task.PRIORITY_NORMAL);
+        givenQueuedTask(Task.PRIORITY_REAL_TIME);
+
+        long maxQueueAge = mTaskQueue.getMaxQueueAge(Task.PRIORITY_NORMAL);
+        long averageQueueAge = mTaskQueue.getAverageQueueAge(Task.PRIORITY_NORMAL);
+        assertTrue(maxQueueAge >= SOME_AGING_RATE * 2);
+        assertTrue(averageQueueAge >= SOME_AGING_RATE && averageQueueAge <= maxQueueAge);
+        assertTrue(mTaskQueue.getMaxQueueAge(Task.PRIORITY_REAL_TIME) >= 0);
+        assertEquals(0, mTaskQueue.getMaxQueueAge(Task.PRIORITY_LOW));
+        assertEquals(0, mTaskQueue.getAverageQueueAge(Task.PRIORITY_LOW));
+
+        mTaskQueue.take(null);
+        mTaskQueue.take(null);
+        mTaskQueue.take(null);
+        assertEquals(0, mTaskQueue.getMaxQueueAge(Task.PRIORITY_NORMAL));
+        assertEquals(0, mTaskQueue.getAverageQueueAge(Task.PRIORITY_NORMAL));
+    }
+
+    private Task givenQueuedTask(int priority) {
+        Task task = givenTask(priority);
+        task.initialize(mAwex);
+        task.markQueue(mTaskQueue);
+        mTaskQueue.insert(task);
+        return task;
+    }
+
+    private Task givenTask(int priority) {
+        return new VoidTask(priority) {
+            @Override
+            protected void runWithoutResult() throws InterruptedException {
+            }
+        };
+    }
+
+}
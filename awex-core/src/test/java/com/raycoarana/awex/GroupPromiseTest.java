@@ -0,0 +1,187 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GroupPromiseTest extends BasePromiseTest {
+
+    private static final Mapper<Integer, Integer> MODULE_3 = new Mapper<Integer, Integer>() {
+        @Override
+        public Integer map(Integer value) {
+            return value % 3;
+        }
+    };
+
+    private static final Reducer<Integer> SUM = new Reducer<Integer>() {
+        @Override
+        public Integer reduce(Integer v1, Integer v2) {
+            return v1 + v2;
+        }
+    };
+
+    private AwexPromise<Collection<Integer>, Float> mCollectionPromise;
+
+    @Test
+    public void shouldGroupTheItemsInOrder() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream().groupBy(MODULE_3);
+        mCollectionPromise.resolve(Arrays.asList(4, 3, 5, 7, 6, 8));
+
+        Map<Integer, List<Integer>> result = groups.getResult();
+        assertEquals(Arrays.asList(1, 0, 2), new ArrayList<>(result.keySet()));
+        assertEquals(Arrays.asList(4, 7), result.get(1));
+        assertEquals(Arrays.asList(3, 6), result.get(0));
+        assertEquals(Arrays.asList(5, 8), result.get(2));
+    }
+
+    @Test
+    public void shouldGroupTheItemsInParallelKeepingTheOrderOfEveryGroup() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            items.add(i);
+        }
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream()
+                .groupByParallel(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        return value % 10;
+                    }
+                });
+        mCollectionPromise.resolve(items);
+
+        Map<Integer, List<Integer>> result = groups.getResult();
+        assertEquals(10, result.size());
+        for (int key = 0; key < 10; key++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = key; i < 1001; i += 10) {
+                expected.add(i);
+            }
+            assertEquals(expected, result.get(key));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheGroupsInTheOrderOfTheirFirstItemWhenGroupingInParallel() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream()
+                .groupByParallel(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        return value / 10;
+                    }
+                });
+        mCollectionPromise.resolve(Arrays.asList(51, 32, 52, 91, 13, 33, 71, 14));
+
+        Map<Integer, List<Integer>> result = groups.getResult();
+        assertEquals(Arrays.asList(5, 3, 9, 1, 7), new ArrayList<>(result.keySet()));
+        assertEquals(Arrays.asList(32, 33), result.get(3));
+        assertEquals(Arrays.asList(13, 14), result.get(1));
+    }
+
+    @Test
+    public void shouldAggregateTheItemsOfEveryGroup() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, Integer>, Float> sums = mCollectionPromise.<Integer>stream().aggregateBy(MODULE_3, SUM);
+        Promise<Map<Integer, Integer>, Float> parallelSums = mCollectionPromise.<Integer>stream().aggregateByParallel(MODULE_3, SUM);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(0, 18);
+        expected.put(1, 12);
+        expected.put(2, 15);
+        assertEquals(expected, sums.getResult());
+        assertEquals(expected, parallelSums.getResult());
+    }
+
+    @Test
+    public void shouldApplyThePendingChainAndGroupNullKeys() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream()
+                .filter(new Filter<Integer>() {
+                    @Override
+                    public boolean filter(Integer value) {
+                        return value > 2;
+                    }
+                }).groupByParallel(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        return value % 2 == 0 ? null : 1;
+                    }
+                });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        Map<Integer, List<Integer>> result = groups.getResult();
+        assertEquals(2, result.size());
+        assertEquals(Arrays.asList(4, 6, 8), result.get(null));
+        assertEquals(Arrays.asList(3, 5, 7), result.get(1));
+    }
+
+    @Test
+    public void shouldResolveWithNoGroupsWhenThereAreNoItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream().groupByParallel(MODULE_3);
+        mCollectionPromise.resolve(Collections.<Integer>emptyList());
+
+        assertTrue(groups.getResult().isEmpty());
+    }
+
+    @Test
+    public void shouldRejectWhenTheKeyMapperFails() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, List<Integer>>, Float> groups = mCollectionPromise.<Integer>stream()
+                .groupByParallel(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        throw new IllegalStateException();
+                    }
+                });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Promise.STATE_REJECTED, groups.getState());
+    }
+
+    @Test
+    public void shouldCancelWhenSourceIsCancelled() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Map<Integer, Integer>, Float> sums = mCollectionPromise.<Integer>stream().aggregateByParallel(MODULE_3, SUM);
+        mCollectionPromise.cancelTask();
+
+        assertEquals(Promise.STATE_CANCELLED, sums.getState());
+    }
+
+    private void givenACollectionPromise() {
+        mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class LimitPromiseTest extends BasePromiseTest {
+
+    @Test
+    public void shouldTakeTheFirstItemsWithoutProcessingTheRest() throws Exception {
+        setUpAwex();
+        AwexPromise<Collection<Integer>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+        final AtomicInteger mappedItems = new AtomicInteger();
+
+        CollectionPromise<Integer, Float> firstEvenItems = collectionPromise.<Integer>stream().filter(new Filter<Integer>() {
+            @Override
+            public boolean filter(Integer value) {
+                return value % 2 == 0;
+            }
+        }).map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                mappedItems.incrementAndGet();
+                return value * 10;
+            }
+        }).limit(2);
+        collectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Arrays.asList(20, 40), new ArrayList<>(firstEvenItems.getResult()));
+        assertEquals(2, mappedItems.get());
+    }
+
+    @Test
+    public void shouldTakeAllItemsWhenThereAreNotEnough() throws Exception {
+        setUpAwex();
+        AwexPromise<Collection<Integer>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        CollectionPromise<Integer, Float> items = collectionPromise.<Integer>stream().limit(5);
+        collectionPromise.resolve(Arrays.asList(1, 2));
+
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(items.getResult()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWithNegativeLimit() {
+        setUpAwex();
+        AwexPromise<Collection<Integer>, Float> collectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        collectionPromise.<Integer>stream().limit(-1);
+    }
+
+}
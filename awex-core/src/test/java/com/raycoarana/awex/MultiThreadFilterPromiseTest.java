@@ -4,6 +4,7 @@ import com.raycoarana.awex.transform.Filter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -36,6 +37,24 @@ public class MultiThreadFilterPromiseTest extends BasePromiseTest {
         assertThat(results, hasItems(3, 4, 5));
     }
 
+    @Test
+    public void shouldFilterInDynamicChunksKeepingTheOrder() throws Exception {
+        setUpAwex();
+
+        AwexPromise<Collection<Integer>, Float> mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+
+        mFilteredValue = mCollectionPromise.<Integer>stream().filterParallel(new Filter<Integer>() {
+            @Override
+            public boolean filter(Integer value) {
+                return value % 2 == 0;
+            }
+        }, CollectionPromise.PARALLEL_DYNAMIC_CHUNKS);
+
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Arrays.asList(2, 4, 6, 8), new ArrayList<>(mFilteredValue.getResult()));
+    }
+
     @Test
     public void shouldRejectFilteredPromise() {
         setUpAwex();
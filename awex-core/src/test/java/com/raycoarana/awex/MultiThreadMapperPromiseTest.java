@@ -1,18 +1,34 @@
 package com.raycoarana.awex;
 
+import com.raycoarana.awex.exceptions.ChunkFailedException;
+import com.raycoarana.awex.exceptions.PartialResultException;
 import com.raycoarana.awex.transform.Mapper;
 
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class MultiThreadMapperPromiseTest extends BasePromiseTest {
 
     private AwexPromise<Collection<Integer>, Float> mPromise;
     private CollectionPromise<String, Float> mMappedValue;
+    private final List<Task> mQueuedTasks = new ArrayList<>();
+    private final AtomicInteger mMappedItems = new AtomicInteger();
 
     @Test
     public void shouldMapAResolvedPromiseWithCollection() throws Exception {
@@ -36,6 +52,121 @@ public class MultiThreadMapperPromiseTest extends BasePromiseTest {
         assertEquals("3", results[2]);
     }
 
+    @Test
+    public void shouldKeepTheOrderOfTheItems() throws Exception {
+        setUpAwex();
+
+        AwexPromise<Collection<Integer>, Float> mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+        List<Integer> items = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 103; i++) {
+            items.add(i);
+            expected.add(String.valueOf(i));
+        }
+
+        mMappedValue = mCollectionPromise.<Integer>stream().mapParallel(new Mapper<Integer, String>() {
+            @Override
+            public String map(Integer value) {
+                return String.valueOf(value);
+            }
+        });
+        mCollectionPromise.resolve(items);
+
+        assertEquals(expected, new ArrayList<>(mMappedValue.getResult()));
+    }
+
+    @Test
+    public void shouldKeepTheOrderOfTheItemsWhenMappedInDynamicChunks() throws Exception {
+        setUpAwex();
+
+        AwexPromise<Collection<Integer>, Float> mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+        List<Integer> items = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 103; i++) {
+            items.add(i);
+            expected.add(String.valueOf(i));
+        }
+
+        mMappedValue = mCollectionPromise.<Integer>stream().mapParallel(new Mapper<Integer, String>() {
+            @Override
+            public String map(Integer value) {
+                return String.valueOf(value);
+            }
+        }, CollectionPromise.PARALLEL_DYNAMIC_CHUNKS);
+        mCollectionPromise.resolve(items);
+
+        assertEquals(expected, new ArrayList<>(mMappedValue.getResult()));
+    }
+
+    @Test
+    public void shouldRejectWithThePartialResultWhenAChunkFails() throws Exception {
+        setUpAwex();
+        mPromise = new AwexPromise<>(mAwex, mTask);
+
+        mMappedValue = mPromise.<Integer>stream().mapParallel(givenAMapperThatFailsWith(6));
+        mPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        try {
+            mMappedValue.getResult();
+            fail();
+        } catch (PartialResultException ex) {
+            assertEquals(Arrays.asList("1", "2", "3", "4", "7", "8"), new ArrayList<>(ex.getPartialResult()));
+            assertEquals(1, ex.getFailureCount());
+            ChunkFailedException failure = ex.getFailure(0);
+            assertEquals(4, failure.getFromIndex());
+            assertEquals(6, failure.getToIndex());
+            assertEquals(5, failure.getItemIndex());
+            assertEquals(6, failure.getItem());
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldRejectWithTheFailedChunkAndInterruptOtherChunksWhenFailingFast() throws Exception {
+        setUpAwex();
+        givenThatTasksAreQueued();
+        mPromise = new AwexPromise<>(mAwex, mTask);
+
+        mMappedValue = mPromise.<Integer>stream().mapParallel(givenAMapperThatFailsWith(4),
+                CollectionPromise.PARALLEL_FAIL_FAST).applyNow();
+        mPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+        mQueuedTasks.get(1).execute();
+
+        try {
+            mMappedValue.getResult();
+            fail();
+        } catch (ChunkFailedException ex) {
+            assertEquals(2, ex.getFromIndex());
+            assertEquals(4, ex.getToIndex());
+            assertEquals(3, ex.getItemIndex());
+        }
+        verify(mAwex, never()).cancel(mQueuedTasks.get(1), true);
+        for (int i : new int[]{0, 2, 3}) {
+            verify(mAwex).cancel(mQueuedTasks.get(i), true);
+            assertEquals(Promise.STATE_CANCELLED, mQueuedTasks.get(i).getPromise().getState());
+        }
+        assertEquals(2, mMappedItems.get());
+    }
+
+    @Test
+    public void shouldStopEveryWorkerWhenFailingFastInDynamicChunks() throws Exception {
+        setUpAwex();
+        mPromise = new AwexPromise<>(mAwex, mTask);
+
+        mMappedValue = mPromise.<Integer>stream().mapParallel(givenAMapperThatFailsWith(3),
+                CollectionPromise.PARALLEL_DYNAMIC_CHUNKS | CollectionPromise.PARALLEL_FAIL_FAST);
+        mPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        try {
+            mMappedValue.getResult();
+            fail();
+        } catch (ChunkFailedException ex) {
+            assertEquals(2, ex.getItemIndex());
+            assertSame(3, ex.getItem());
+        }
+        assertEquals(3, mMappedItems.get());
+    }
+
     @Test
     public void shouldRejectFilteredPromise() {
         setUpAwex();
@@ -72,4 +203,30 @@ public class MultiThreadMapperPromiseTest extends BasePromiseTest {
         assertEquals(Promise.STATE_CANCELLED, mMappedValue.getState());
     }
 
+    private Mapper<Integer, String> givenAMapperThatFailsWith(final int failingValue) {
+        return new Mapper<Integer, String>() {
+            @Override
+            public String map(Integer value) {
+                mMappedItems.incrementAndGet();
+                if (value == failingValue) {
+                    throw new IllegalStateException();
+                }
+                return String.valueOf(value);
+            }
+        };
+    }
+
+    private void givenThatTasksAreQueued() {
+        doAnswer(new Answer<Promise>() {
+            @Override
+            public Promise answer(InvocationOnMock invocation) throws Throwable {
+                Task task = ((Task) invocation.getArguments()[0]);
+                task.initialize(mAwex);
+                task.markQueue(null);
+                mQueuedTasks.add(task);
+                return task.getPromise();
+            }
+        }).when(mAwex).submit(isA(Task.class));
+    }
+
 }
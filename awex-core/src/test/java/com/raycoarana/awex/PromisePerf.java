@@ -0,0 +1,217 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.callbacks.AlwaysCallback;
+import com.raycoarana.awex.callbacks.DoneCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Registers callbacks and resolves promises from a growing number of threads, both on promises
+ * owned by every thread and on promises shared by all of them, where registrations and
+ * resolutions of the same promise race with each other.
+ */
+public class PromisePerf extends BasePerf {
+
+    private static final int NUMBER_OF_PROMISES = 20000;
+    // a pending promise with a done and an always callback retains about 72 bytes on a 64-bit JVM
+    private static final int MAX_BYTES_PER_PENDING_PROMISE = 256;
+
+    // stub only, so the mock does not retain every invocation of the benchmark
+    private Awex mAwex = mock(Awex.class, withSettings().stubOnly());
+
+    private ThreadHelper mThreadHelper = new ThreadHelper() {
+        @Override
+        public boolean isCurrentThread() {
+            return false;
+        }
+
+        @Override
+        public void post(Runnable runnable) {
+
+        }
+
+        @Override
+        public void setUpPriorityToCurrentThread(int priority) {
+
+        }
+
+        @Override
+        public void setUpPriorityToRealTimeThread() {
+
+        }
+    };
+    private Logger mLogger = new Logger() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void v(String message) {
+
+        }
+
+        @Override
+        public void e(String message, Exception ex) {
+
+        }
+    };
+
+    private final DoneCallback<Integer> mDoneCallback = new DoneCallback<Integer>() {
+        @Override
+        public void onDone(Integer result) {
+        }
+    };
+    private final AlwaysCallback mAlwaysCallback = new AlwaysCallback() {
+        @Override
+        public void onAlways() {
+        }
+    };
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        when(mAwex.provideUIThread()).thenReturn(mThreadHelper);
+        when(mAwex.provideLogger()).thenReturn(mLogger);
+    }
+
+    @Test
+    public void benchOwnPromisesWith1Thread() throws Exception {
+        registerAndResolveOwnPromises(1);
+    }
+
+    @Test
+    public void benchOwnPromisesWith4Threads() throws Exception {
+        registerAndResolveOwnPromises(4);
+    }
+
+    @Test
+    public void benchOwnPromisesWith16Threads() throws Exception {
+        registerAndResolveOwnPromises(16);
+    }
+
+    @Test
+    public void benchSharedPromisesWith1Thread() throws Exception {
+        registerAndResolveSharedPromises(1);
+    }
+
+    @Test
+    public void benchSharedPromisesWith4Threads() throws Exception {
+        registerAndResolveSharedPromises(4);
+    }
+
+    @Test
+    public void benchSharedPromisesWith16Threads() throws Exception {
+        registerAndResolveSharedPromises(16);
+    }
+
+    @Test
+    public void benchFootprintOfPendingPromises() throws Exception {
+        AwexPromise[] promises = new AwexPromise[NUMBER_OF_PROMISES];
+        long usedMemoryBefore = usedMemory();
+        for (int i = 0; i < NUMBER_OF_PROMISES; i++) {
+            AwexPromise<Integer, Void> promise = new AwexPromise<>(mAwex);
+            promise.done(mDoneCallback).always(mAlwaysCallback);
+            promises[i] = promise;
+        }
+        long bytesPerPromise = (usedMemory() - usedMemoryBefore) / NUMBER_OF_PROMISES;
+
+        assertTrue("Retained bytes per pending promise with done and always callbacks: " + bytesPerPromise,
+                bytesPerPromise <= MAX_BYTES_PER_PENDING_PROMISE);
+        for (AwexPromise promise : promises) {
+            assertTrue(promise.isPending());
+        }
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void benchGetResultParking() throws Exception {
+        getResultsResolvedByOtherThread(false);
+    }
+
+    @Test
+    public void benchGetResultSpinning() throws Exception {
+        getResultsResolvedByOtherThread(true);
+    }
+
+    private void getResultsResolvedByOtherThread(boolean spin) throws Exception {
+        final AwexPromise<Integer, Void>[] promises = newPromises(NUMBER_OF_PROMISES / 10);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < promises.length; i++) {
+                    promises[i].resolve(i);
+                }
+            }
+        });
+        thread.start();
+        for (AwexPromise<Integer, Void> promise : promises) {
+            promise.getResult(1, TimeUnit.SECONDS, spin);
+        }
+        thread.join();
+    }
+
+    private void registerAndResolveOwnPromises(int numberOfThreads) throws InterruptedException {
+        final int promisesPerThread = NUMBER_OF_PROMISES / numberOfThreads;
+        runInThreads(numberOfThreads, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < promisesPerThread; i++) {
+                    AwexPromise<Integer, Void> promise = new AwexPromise<>(mAwex);
+                    promise.done(mDoneCallback).always(mAlwaysCallback);
+                    promise.resolve(i);
+                }
+            }
+        });
+    }
+
+    private void registerAndResolveSharedPromises(int numberOfThreads) throws InterruptedException {
+        final AwexPromise<Integer, Void>[] promises = newPromises(NUMBER_OF_PROMISES);
+        runInThreads(numberOfThreads, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < promises.length; i++) {
+                    promises[i].done(mDoneCallback).always(mAlwaysCallback);
+                    promises[i].tryResolve(i);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private AwexPromise<Integer, Void>[] newPromises(int numberOfPromises) {
+        AwexPromise<Integer, Void>[] promises = new AwexPromise[numberOfPromises];
+        for (int i = 0; i < numberOfPromises; i++) {
+            promises[i] = new AwexPromise<>(mAwex);
+        }
+        return promises;
+    }
+
+    private void runInThreads(int numberOfThreads, Runnable runnable) throws InterruptedException {
+        Thread[] threads = new Thread[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            threads[i] = new Thread(runnable);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+}
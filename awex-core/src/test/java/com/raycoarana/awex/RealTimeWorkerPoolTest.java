@@ -0,0 +1,90 @@
+package com.raycoarana.awex;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RealTimeWorkerPoolTest {
+
+    private static final long SOME_KEEP_ALIVE = 100;
+
+    @Mock
+    private Awex mAwex;
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private Logger mLogger = new ConsoleLogger();
+    private RealTimeWorkerPool mRealTimeWorkerPool;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mAwex.provideLogger()).thenReturn(mLogger);
+        when(mAwex.provideUIThread()).thenReturn(mThreadHelper);
+        mRealTimeWorkerPool = new RealTimeWorkerPool(new AtomicInteger(), mThreadHelper, mLogger, SOME_KEEP_ALIVE);
+    }
+
+    @Test(timeout = 1000)
+    public void shouldReuseIdleWorker() throws Exception {
+        ThreadCapturingTask firstTask = new ThreadCapturingTask();
+        ThreadCapturingTask secondTask = new ThreadCapturingTask();
+
+        execute(firstTask);
+        firstTask.getPromise().getResult();
+        waitUntilIdleWorkers(1);
+        execute(secondTask);
+        secondTask.getPromise().getResult();
+
+        assertSame(firstTask.mThread, secondTask.mThread);
+        assertEquals(1, mRealTimeWorkerPool.size());
+        verify(mThreadHelper, times(1)).setUpPriorityToRealTimeThread();
+    }
+
+    @Test(timeout = 1000)
+    public void shouldKillIdleWorkerAfterKeepAlive() throws Exception {
+        ThreadCapturingTask task = new ThreadCapturingTask();
+
+        execute(task);
+        task.getPromise().getResult();
+        task.mThread.join();
+
+        assertEquals(0, mRealTimeWorkerPool.size());
+        assertEquals(0, mRealTimeWorkerPool.idle());
+    }
+
+    private void execute(Task task) {
+        task.initialize(mAwex);
+        task.markQueue(null);
+        mRealTimeWorkerPool.execute(task);
+    }
+
+    private void waitUntilIdleWorkers(int idleWorkers) throws InterruptedException {
+        while (mRealTimeWorkerPool.idle() != idleWorkers) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static class ThreadCapturingTask extends VoidTask {
+
+        private volatile Thread mThread;
+
+        public ThreadCapturingTask() {
+            super(PRIORITY_REAL_TIME);
+        }
+
+        @Override
+        protected void runWithoutResult() throws InterruptedException {
+            mThread = Thread.currentThread();
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.exceptions.AbsentValueException;
+import com.raycoarana.awex.transform.Accumulator;
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+import com.raycoarana.awex.transform.Reducer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReducePromiseTest extends BasePromiseTest {
+
+    private static final Reducer<Integer> SUM = new Reducer<Integer>() {
+        @Override
+        public Integer reduce(Integer v1, Integer v2) {
+            return v1 + v2;
+        }
+    };
+
+    private static final Reducer<String> CONCAT = new Reducer<String>() {
+        @Override
+        public String reduce(String v1, String v2) {
+            return v1 + v2;
+        }
+    };
+
+    private AwexPromise<Collection<Integer>, Float> mCollectionPromise;
+
+    @Test
+    public void shouldReduceTheItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> sum = mCollectionPromise.<Integer>stream().reduce(SUM);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4));
+
+        assertEquals(10, (int) sum.getResult());
+    }
+
+    @Test
+    public void shouldReduceInParallelKeepingTheOrderOfTheItems() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        List<Integer> items = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 103; i++) {
+            items.add(i);
+            expected.append(i);
+        }
+
+        Promise<String, Float> concatenation = mCollectionPromise.<Integer>stream()
+                .map(new Mapper<Integer, String>() {
+                    @Override
+                    public String map(Integer value) {
+                        return String.valueOf(value);
+                    }
+                }).reduceParallel(CONCAT);
+        mCollectionPromise.resolve(items);
+
+        assertEquals(expected.toString(), concatenation.getResult());
+    }
+
+    @Test
+    public void shouldFoldTheItemsToOtherType() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Long, Float> sumOfSquares = mCollectionPromise.<Integer>stream().reduceParallel(0L,
+                new Accumulator<Integer, Long>() {
+                    @Override
+                    public Long accumulate(Long accumulated, Integer value) {
+                        return accumulated + value * value;
+                    }
+                }, new Reducer<Long>() {
+                    @Override
+                    public Long reduce(Long v1, Long v2) {
+                        return v1 + v2;
+                    }
+                });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5));
+
+        assertEquals(55L, (long) sumOfSquares.getResult());
+    }
+
+    @Test
+    public void shouldApplyThePendingChainInTheSamePass() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        final AtomicInteger mappedItems = new AtomicInteger();
+
+        CollectionPromise<Integer, Float> mapped = mCollectionPromise.<Integer>stream()
+                .filter(new Filter<Integer>() {
+                    @Override
+                    public boolean filter(Integer value) {
+                        return value % 2 == 0;
+                    }
+                }).map(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        mappedItems.incrementAndGet();
+                        return value * 10;
+                    }
+                });
+        Promise<Integer, Float> sum = mapped.reduceParallel(SUM);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6));
+
+        assertEquals(120, (int) sum.getResult());
+        assertEquals(3, mappedItems.get());
+        assertEquals(Promise.STATE_PENDING, mapped.getState());
+    }
+
+    @Test
+    public void shouldReduceTheResultOfAnAttachedChain() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        CollectionPromise<Integer, Float> mapped = mCollectionPromise.<Integer>stream()
+                .map(new Mapper<Integer, Integer>() {
+                    @Override
+                    public Integer map(Integer value) {
+                        return value * 10;
+                    }
+                }).applyNow();
+        Promise<Integer, Float> sum = mapped.reduce(SUM);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3));
+
+        assertEquals(60, (int) sum.getResult());
+    }
+
+    @Test(expected = AbsentValueException.class)
+    public void shouldRejectWhenThereAreNoItemsToReduce() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> sum = mCollectionPromise.<Integer>stream().reduceParallel(SUM);
+        mCollectionPromise.resolve(Collections.<Integer>emptyList());
+
+        sum.getResult();
+    }
+
+    @Test
+    public void shouldResolveWithTheIdentityWhenThereAreNoItemsToFold() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<String, Float> concatenation = mCollectionPromise.<Integer>stream().reduce("",
+                new Accumulator<Integer, String>() {
+                    @Override
+                    public String accumulate(String accumulated, Integer value) {
+                        return accumulated + value;
+                    }
+                }, CONCAT);
+        mCollectionPromise.resolve(Collections.<Integer>emptyList());
+
+        assertEquals("", concatenation.getResult());
+    }
+
+    @Test
+    public void shouldRejectWhenTheReducerFails() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> sum = mCollectionPromise.<Integer>stream().reduceParallel(new Reducer<Integer>() {
+            @Override
+            public Integer reduce(Integer v1, Integer v2) {
+                throw new IllegalArgumentException();
+            }
+        });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(Promise.STATE_REJECTED, sum.getState());
+    }
+
+    @Test
+    public void shouldRejectReducePromiseWhenSourceIsRejected() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> sum = mCollectionPromise.<Integer>stream().reduceParallel(SUM);
+        mCollectionPromise.reject(new Exception());
+
+        assertEquals(Promise.STATE_REJECTED, sum.getState());
+    }
+
+    @Test
+    public void shouldCancelReducePromiseWhenSourceIsCancelled() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> sum = mCollectionPromise.<Integer>stream().reduce(SUM);
+        mCollectionPromise.cancelTask();
+
+        assertEquals(Promise.STATE_CANCELLED, sum.getState());
+    }
+
+    private void givenACollectionPromise() {
+        mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+    }
+
+}
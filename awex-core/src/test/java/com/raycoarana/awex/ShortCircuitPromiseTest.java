@@ -0,0 +1,224 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.exceptions.AbsentValueException;
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ShortCircuitPromiseTest extends BasePromiseTest {
+
+    private static final Filter<Integer> IS_NEGATIVE = new Filter<Integer>() {
+        @Override
+        public boolean filter(Integer value) {
+            return value < 0;
+        }
+    };
+
+    private static final Filter<Integer> IS_POSITIVE = new Filter<Integer>() {
+        @Override
+        public boolean filter(Integer value) {
+            return value > 0;
+        }
+    };
+
+    private final AtomicInteger mMappedItems = new AtomicInteger();
+    private final List<Task> mQueuedTasks = new ArrayList<>();
+    private AwexPromise<Collection<Integer>, Float> mCollectionPromise;
+
+    @Test
+    public void shouldStopApplyingTheChainWhenTheFirstItemIsFound() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> first = givenACountingMapper().filter(IS_NEGATIVE).findFirst();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, -3, 4, -5));
+
+        assertEquals(-3, (int) first.getResult());
+        assertEquals(3, mMappedItems.get());
+    }
+
+    @Test
+    public void shouldGetTheFirstItemOfAChainWithoutProcessingTheRest() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> first = givenACountingMapper().singleOrFirst();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3));
+
+        assertEquals(1, (int) first.getResult());
+        assertEquals(1, mMappedItems.get());
+    }
+
+    @Test(expected = AbsentValueException.class)
+    public void shouldRejectWhenNoItemIsFound() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> first = givenACountingMapper().filter(IS_NEGATIVE).findFirstParallel();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5));
+
+        first.getResult();
+    }
+
+    @Test
+    public void shouldCheckIfAnyOrAllItemsMatch() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+        CollectionPromise<Integer, Float> items = mCollectionPromise.stream();
+
+        Promise<Boolean, Float> anyNegative = items.anyMatch(IS_NEGATIVE);
+        Promise<Boolean, Float> anyNegativeInParallel = items.anyMatchParallel(IS_NEGATIVE);
+        Promise<Boolean, Float> allPositive = items.allMatch(IS_POSITIVE);
+        Promise<Boolean, Float> allPositiveInParallel = items.allMatchParallel(IS_POSITIVE);
+        Promise<Boolean, Float> anyPositive = items.anyMatchParallel(IS_POSITIVE);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, -8));
+
+        assertTrue(anyNegative.getResult());
+        assertTrue(anyNegativeInParallel.getResult());
+        assertFalse(allPositive.getResult());
+        assertFalse(allPositiveInParallel.getResult());
+        assertTrue(anyPositive.getResult());
+    }
+
+    @Test
+    public void shouldMatchAllItemsOfAnEmptyCollection() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Boolean, Float> allPositive = mCollectionPromise.<Integer>stream().allMatchParallel(IS_POSITIVE);
+        Promise<Boolean, Float> anyPositive = mCollectionPromise.<Integer>stream().anyMatch(IS_POSITIVE);
+        mCollectionPromise.resolve(Collections.<Integer>emptyList());
+
+        assertTrue(allPositive.getResult());
+        assertFalse(anyPositive.getResult());
+    }
+
+    @Test
+    public void shouldNotLaunchMoreRangesOnceAnyItemIsFound() throws Exception {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> any = givenACountingMapper().findAny();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertEquals(1, (int) any.getResult());
+        assertEquals(1, mMappedItems.get());
+        verify(mAwex, times(1)).submit(isA(Task.class));
+    }
+
+    @Test
+    public void shouldWaitForPreviousRangesToFindTheFirstItemInParallel() throws Exception {
+        setUpAwex();
+        givenThatTasksAreQueued();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> first = mCollectionPromise.<Integer>stream().filter(IS_NEGATIVE).findFirstParallel();
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, -4, 5, -6, 7, -8));
+        executeQueuedTask(2);
+
+        assertEquals(Promise.STATE_PENDING, first.getState());
+        assertEquals(Promise.STATE_CANCELLED, mQueuedTasks.get(3).getPromise().getState());
+
+        executeQueuedTask(3);
+        executeQueuedTask(0);
+        executeQueuedTask(1);
+
+        assertEquals(-4, (int) first.getResult());
+    }
+
+    @Test
+    public void shouldCancelPendingRangesOnceAnyItemIsFound() throws Exception {
+        setUpAwex();
+        givenThatTasksAreQueued();
+        givenACollectionPromise();
+
+        Promise<Boolean, Float> anyNegative = mCollectionPromise.<Integer>stream().anyMatchParallel(IS_NEGATIVE);
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4, 5, -6, 7, 8));
+        executeQueuedTask(2);
+
+        assertTrue(anyNegative.getResult());
+        assertEquals(Promise.STATE_CANCELLED, mQueuedTasks.get(0).getPromise().getState());
+        assertEquals(Promise.STATE_CANCELLED, mQueuedTasks.get(1).getPromise().getState());
+        assertEquals(Promise.STATE_CANCELLED, mQueuedTasks.get(3).getPromise().getState());
+    }
+
+    @Test
+    public void shouldRejectWhenARangeFails() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Boolean, Float> anyNegative = mCollectionPromise.<Integer>stream().anyMatchParallel(new Filter<Integer>() {
+            @Override
+            public boolean filter(Integer value) {
+                throw new IllegalStateException();
+            }
+        });
+        mCollectionPromise.resolve(Arrays.asList(1, 2, 3, 4));
+
+        assertEquals(Promise.STATE_REJECTED, anyNegative.getState());
+    }
+
+    @Test
+    public void shouldCancelSearchWhenSourceIsCancelled() {
+        setUpAwex();
+        givenACollectionPromise();
+
+        Promise<Integer, Float> first = mCollectionPromise.<Integer>stream().findFirst();
+        mCollectionPromise.cancelTask();
+
+        assertEquals(Promise.STATE_CANCELLED, first.getState());
+    }
+
+    private CollectionPromise<Integer, Float> givenACountingMapper() {
+        return mCollectionPromise.<Integer>stream().map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                mMappedItems.incrementAndGet();
+                return value;
+            }
+        });
+    }
+
+    private void givenACollectionPromise() {
+        mCollectionPromise = new AwexPromise<>(mAwex, mTask);
+    }
+
+    private void givenThatTasksAreQueued() {
+        doAnswer(new Answer<Promise>() {
+            @Override
+            public Promise answer(InvocationOnMock invocation) throws Throwable {
+                Task task = ((Task) invocation.getArguments()[0]);
+                task.initialize(mAwex);
+                task.markQueue(null);
+                mQueuedTasks.add(task);
+                return task.getPromise();
+            }
+        }).when(mAwex).submit(isA(Task.class));
+    }
+
+    private void executeQueuedTask(int index) throws InterruptedException {
+        Task task = mQueuedTasks.get(index);
+        if (!task.getPromise().isCancelled()) {
+            task.execute();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.policy.LinearWithRealTimePriorityPolicy;
+import com.raycoarana.awex.transform.Filter;
+import com.raycoarana.awex.transform.Mapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StreamingTaskTest {
+
+    private static final int SOME_BATCH_SIZE = 2;
+
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private Awex mAwex;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(), new LinearWithRealTimePriorityPolicy(0, 2));
+    }
+
+    @Test(timeout = 5000)
+    public void shouldMapEmittedItemsBeforeTheProducerFinishes() throws Exception {
+        final CountDownLatch firstBatchMapped = new CountDownLatch(SOME_BATCH_SIZE);
+
+        CollectionPromise<Integer, Void> promise = mAwex.submitStreaming(new StreamingTask<Integer, Void>(Task.PRIORITY_NORMAL, SOME_BATCH_SIZE) {
+            @Override
+            protected void run(Emitter<Integer> emitter) throws InterruptedException {
+                emitter.emit(1);
+                emitter.emit(2);
+                firstBatchMapped.await();
+                emitter.emit(3);
+            }
+        });
+        Collection<Integer> results = promise.map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                firstBatchMapped.countDown();
+                return value * 10;
+            }
+        }).getResult();
+
+        assertEquals(Arrays.asList(10, 20, 30), new ArrayList<>(results));
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(promise.getResult()));
+    }
+
+    @Test(timeout = 5000)
+    public void shouldKeepEmissionOrderThroughTheStages() throws Exception {
+        final int numberOfItems = 1000;
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < numberOfItems; i += 2) {
+            expected.add(i + 1);
+        }
+
+        Collection<Integer> results = mAwex.submitStreaming(new StreamingTask<Integer, Void>(Task.PRIORITY_NORMAL, 7) {
+            @Override
+            protected void run(Emitter<Integer> emitter) throws InterruptedException {
+                for (int i = 0; i < numberOfItems; i++) {
+                    emitter.emit(i);
+                }
+            }
+        }).filter(new Filter<Integer>() {
+            @Override
+            public boolean filter(Integer value) {
+                return value % 2 == 0;
+            }
+        }).map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                return value + 1;
+            }
+        }).getResult();
+
+        assertEquals(expected, new ArrayList<>(results));
+    }
+
+    @Test(timeout = 5000)
+    public void shouldRejectStagesWhenTheProducerFails() throws Exception {
+        final IllegalStateException exception = new IllegalStateException();
+
+        CollectionPromise<Integer, Void> promise = mAwex.submitStreaming(new StreamingTask<Integer, Void>() {
+            @Override
+            protected void run(Emitter<Integer> emitter) throws InterruptedException {
+                emitter.emit(1);
+                throw exception;
+            }
+        }).map(new Mapper<Integer, Integer>() {
+            @Override
+            public Integer map(Integer value) {
+                return value;
+            }
+        }).applyNow();
+
+        try {
+            promise.getResult();
+        } catch (IllegalStateException ex) {
+            assertSame(exception, ex);
+            return;
+        }
+        throw new AssertionError("Stage not rejected");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenBatchSizeIsNotPositive() {
+        new StreamingTask<Integer, Void>(Task.PRIORITY_NORMAL, 0) {
+            @Override
+            protected void run(Emitter<Integer> emitter) throws InterruptedException {
+            }
+        };
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.raycoarana.awex;
+
+import org.junit.Test;
+
+/**
+ * Fills a queue with a backlog of tasks of mixed priorities and drains it, single threaded, to
+ * compare the cost of insert and take of every queue type.
+ */
+public class TaskQueuePerf extends BasePerf {
+
+    private static final int NUMBER_OF_TASKS = 100000;
+    private static final int SOME_QUEUE_ID = 1;
+
+    @Test
+    public void benchPriorityTaskQueue() throws Exception {
+        fillAndDrain(new PriorityTaskQueue(SOME_QUEUE_ID));
+    }
+
+    @Test
+    public void benchFifoPriorityTaskQueue() throws Exception {
+        fillAndDrain(new FifoPriorityTaskQueue(SOME_QUEUE_ID));
+    }
+
+    private void fillAndDrain(AwexTaskQueue taskQueue) throws InterruptedException {
+        for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+            taskQueue.insert(new NoOpTask(Task.PRIORITY_LOWEST + i % 4));
+        }
+        for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+            taskQueue.take(null);
+        }
+    }
+
+    private static class NoOpTask extends VoidTask {
+
+        public NoOpTask(int priority) {
+            super(priority);
+        }
+
+        @Override
+        protected void runWithoutResult() throws InterruptedException {
+        }
+    }
+
+}
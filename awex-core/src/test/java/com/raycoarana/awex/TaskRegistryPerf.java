@@ -0,0 +1,81 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.util.Map;
+import com.raycoarana.awex.util.SyncArrayMap;
+import com.raycoarana.awex.util.SyncHashMap;
+
+import org.junit.Test;
+
+/**
+ * Registers and unregisters tasks in the registry of queued tasks from several threads, as
+ * queueTask and the end of the tasks do, with a growing number of tasks already in the queue.
+ */
+public class TaskRegistryPerf extends BasePerf {
+
+    private static final int NUMBER_OF_OPERATIONS = 20000;
+    private static final int NUMBER_OF_THREADS = 4;
+
+    @Test
+    public void benchSyncArrayMapWith1kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncArrayMap<Task, Task>(), 1000);
+    }
+
+    @Test
+    public void benchSyncHashMapWith1kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncHashMap<Task, Task>(), 1000);
+    }
+
+    @Test
+    public void benchSyncArrayMapWith10kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncArrayMap<Task, Task>(), 10000);
+    }
+
+    @Test
+    public void benchSyncHashMapWith10kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncHashMap<Task, Task>(), 10000);
+    }
+
+    @Test
+    public void benchSyncArrayMapWith50kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncArrayMap<Task, Task>(), 50000);
+    }
+
+    @Test
+    public void benchSyncHashMapWith50kQueuedTasks() throws Exception {
+        queueAndFinish(new SyncHashMap<Task, Task>(), 50000);
+    }
+
+    private void queueAndFinish(final Map<Task, Task> registry, int queueDepth) throws InterruptedException {
+        for (int i = 0; i < queueDepth; i++) {
+            Task task = new NoOpTask();
+            registry.put(task, task);
+        }
+
+        Thread[] threads = new Thread[NUMBER_OF_THREADS];
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                        Task task = new NoOpTask();
+                        registry.put(task, task);
+                        registry.get(task);
+                        registry.remove(task, task);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static class NoOpTask extends VoidTask {
+
+        @Override
+        protected void runWithoutResult() throws InterruptedException {
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.raycoarana.awex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Schedules and cancels a queue and an execution timeout for every task, the common case of a
+ * task that finishes before its timeouts expire.
+ */
+public class TimerWheelPerf extends BasePerf {
+
+    private static final int NUMBER_OF_TASKS = 100000;
+    private static final int NUMBER_OF_THREADS = 4;
+    private static final int TIMEOUT = 5000;
+
+    private Logger mLogger = new Logger() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void v(String message) {
+
+        }
+
+        @Override
+        public void e(String message, Exception ex) {
+
+        }
+    };
+
+    private Timer mTimer;
+    private TimerWheel mTimerWheel;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        mTimer = new Timer();
+        mTimerWheel = new TimerWheel(mLogger);
+    }
+
+    @After
+    public void tearDown() {
+        mTimer.cancel();
+        mTimerWheel.stop();
+    }
+
+    @Test
+    public void benchTimerWheel() throws Exception {
+        runInThreads(new Runnable() {
+            @Override
+            public void run() {
+                TimerWheel.Timeout queueTimeout = new NoOpTimeout();
+                TimerWheel.Timeout executionTimeout = new NoOpTimeout();
+                for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+                    mTimerWheel.schedule(queueTimeout, TIMEOUT);
+                    queueTimeout.cancel();
+                    mTimerWheel.schedule(executionTimeout, TIMEOUT);
+                    executionTimeout.cancel();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void benchReference() throws Exception {
+        runInThreads(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+                    TimerTask queueTimeout = new NoOpTimerTask();
+                    TimerTask executionTimeout = new NoOpTimerTask();
+                    mTimer.schedule(queueTimeout, TIMEOUT);
+                    queueTimeout.cancel();
+                    mTimer.schedule(executionTimeout, TIMEOUT);
+                    executionTimeout.cancel();
+                }
+                mTimer.purge();
+            }
+        });
+    }
+
+    private void runInThreads(Runnable runnable) throws InterruptedException {
+        Thread[] threads = new Thread[NUMBER_OF_THREADS];
+        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            threads[i] = new Thread(runnable);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static class NoOpTimeout extends TimerWheel.Timeout {
+        @Override
+        public void run() {
+        }
+    }
+
+    private static class NoOpTimerTask extends TimerTask {
+        @Override
+        public void run() {
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.raycoarana.awex;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+
+    private static final int SOME_DELAY = 50;
+    private static final int NUMBER_OF_TIMEOUTS = 1000;
+
+    private TimerWheel mTimerWheel;
+
+    @Before
+    public void setUp() {
+        mTimerWheel = new TimerWheel(new ConsoleLogger());
+    }
+
+    @Test(timeout = 1000)
+    public void shouldRunTimeoutAfterDelay() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        long startTime = System.nanoTime();
+
+        mTimerWheel.schedule(new TimerWheel.Timeout() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, SOME_DELAY);
+
+        latch.await();
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(SOME_DELAY));
+    }
+
+    @Test
+    public void shouldNotRunCancelledTimeout() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+        TimerWheel.Timeout timeout = new TimerWheel.Timeout() {
+            @Override
+            public void run() {
+                executions.incrementAndGet();
+            }
+        };
+
+        mTimerWheel.schedule(timeout, SOME_DELAY);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        Thread.sleep(SOME_DELAY * 2);
+        assertEquals(0, executions.get());
+    }
+
+    @Test(timeout = 2000)
+    public void shouldRunAllScheduledTimeouts() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(NUMBER_OF_TIMEOUTS);
+        for (int i = 0; i < NUMBER_OF_TIMEOUTS; i++) {
+            mTimerWheel.schedule(new TimerWheel.Timeout() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, i % SOME_DELAY);
+        }
+
+        latch.await();
+    }
+
+    @Test(timeout = 1000)
+    public void shouldRescheduleAnExpiredTimeout() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final TimerWheel.Timeout timeout = new TimerWheel.Timeout() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+
+        mTimerWheel.schedule(timeout, 1);
+        while (latch.getCount() == 2) {
+            Thread.sleep(1);
+        }
+        mTimerWheel.schedule(timeout, 1);
+
+        latch.await();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldKeepWheelConsistentWhenOneTimeoutIsRescheduledFromSeveralThreads() throws Exception {
+        final TimerWheel.Timeout sharedTimeout = new TimerWheel.Timeout() {
+            @Override
+            public void run() {
+            }
+        };
+        final AtomicInteger earlyExecutions = new AtomicInteger();
+        final CountDownLatch otherTimeouts = new CountDownLatch(NUMBER_OF_TIMEOUTS);
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < NUMBER_OF_TIMEOUTS; i++) {
+            final int delay = SOME_DELAY + i % SOME_DELAY;
+            mTimerWheel.schedule(new TimerWheel.Timeout() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(delay)) {
+                        earlyExecutions.incrementAndGet();
+                    }
+                    otherTimeouts.countDown();
+                }
+            }, delay);
+        }
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100000; j++) {
+                        mTimerWheel.schedule(sharedTimeout, j % 3);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        otherTimeouts.await();
+        assertEquals(0, earlyExecutions.get());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        mTimerWheel.schedule(new TimerWheel.Timeout() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, SOME_DELAY);
+        latch.await();
+        sharedTimeout.cancel();
+        assertFalse(sharedTimeout.cancel());
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.raycoarana.awex;
+
+import com.raycoarana.awex.policy.LinearWithRealTimePriorityPolicy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WorkStealingTaskQueueTest {
+
+    private static final int SOME_QUEUE_ID = 1;
+    private static final int NUMBER_OF_TASKS = 100;
+
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private WorkStealingTaskQueue mTaskQueue;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mTaskQueue = new WorkStealingTaskQueue(SOME_QUEUE_ID);
+    }
+
+    @Test
+    public void shouldTakeFirstlyTaskWithMorePriority() throws Exception {
+        Task lowPriorityTask = givenTask(Task.PRIORITY_LOW);
+        Task highPriorityTask = givenTask(Task.PRIORITY_HIGH);
+        Task normalPriorityTask = givenTask(Task.PRIORITY_NORMAL);
+
+        mTaskQueue.insert(lowPriorityTask);
+        mTaskQueue.insert(highPriorityTask);
+        mTaskQueue.insert(normalPriorityTask);
+
+        assertSame(highPriorityTask, mTaskQueue.take(null));
+        assertSame(normalPriorityTask, mTaskQueue.take(null));
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+    }
+
+    @Test
+    public void shouldKeepSizeUpdated() throws Exception {
+        Task someTask = givenTask(Task.PRIORITY_NORMAL);
+        Task otherTask = givenTask(Task.PRIORITY_NORMAL);
+
+        mTaskQueue.insert(someTask);
+        mTaskQueue.insert(otherTask);
+        assertEquals(2, mTaskQueue.size());
+
+        mTaskQueue.take(null);
+        assertEquals(1, mTaskQueue.size());
+
+        assertTrue(mTaskQueue.remove(otherTask) || mTaskQueue.remove(someTask));
+        assertEquals(0, mTaskQueue.size());
+        assertFalse(mTaskQueue.remove(otherTask));
+        assertEquals(0, mTaskQueue.size());
+    }
+
+    @Test
+    public void shouldInsertAllTasksOfABatch() throws Exception {
+        Task lowPriorityTask = givenTask(Task.PRIORITY_LOW);
+        Task highPriorityTask = givenTask(Task.PRIORITY_HIGH);
+
+        mTaskQueue.insertAll(Arrays.asList(lowPriorityTask, highPriorityTask));
+
+        assertEquals(2, mTaskQueue.size());
+        assertSame(highPriorityTask, mTaskQueue.take(null));
+        assertSame(lowPriorityTask, mTaskQueue.take(null));
+        assertEquals(0, mTaskQueue.size());
+    }
+
+    @Test(timeout = 1000)
+    public void shouldWakeUpWaitingWorkerWhenTaskIsInserted() throws Exception {
+        final Semaphore taken = new Semaphore(0);
+        final Task someTask = givenTask(Task.PRIORITY_NORMAL);
+        final Task[] takenTask = new Task[1];
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    takenTask[0] = mTaskQueue.take(null);
+                    taken.release();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }).start();
+
+        while (mTaskQueue.waiters() == 0) {
+            Thread.sleep(1);
+        }
+        mTaskQueue.insert(someTask);
+
+        taken.acquire();
+        assertSame(someTask, takenTask[0]);
+        assertEquals(0, mTaskQueue.size());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldExecuteTasksSubmittedFromRunningTasks() throws Exception {
+        final Awex awex = new Awex(mThreadHelper, new ConsoleLogger(),
+                new LinearWithRealTimePriorityPolicy(0, 4, PoolPolicy.QUEUE_TYPE_WORK_STEALING));
+
+        Promise<Integer, Void> promise = awex.submit(new Task<Integer, Void>() {
+            @Override
+            protected Integer run() throws InterruptedException {
+                List<Promise<Integer, Void>> promises = new ArrayList<>();
+                for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+                    final int value = i;
+                    promises.add(awex.submit(new Task<Integer, Void>() {
+                        @Override
+                        protected Integer run() throws InterruptedException {
+                            return value;
+                        }
+                    }));
+                }
+                int sum = 0;
+                for (Promise<Integer, Void> promise : promises) {
+                    sum += promise.getResultOrDefault(0);
+                }
+                return sum;
+            }
+        });
+
+        assertEquals(Integer.valueOf(NUMBER_OF_TASKS * (NUMBER_OF_TASKS - 1) / 2), promise.getResult());
+    }
+
+    private Task givenTask(int priority) {
+        return new VoidTask(priority) {
+            @Override
+            protected void runWithoutResult() throws InterruptedException {
+            }
+        };
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.raycoarana.awex.policy;
+
+import com.raycoarana.awex.Awex;
+import com.raycoarana.awex.ConsoleLogger;
+import com.raycoarana.awex.Promise;
+import com.raycoarana.awex.Task;
+import com.raycoarana.awex.ThreadHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CoalescingPoolPolicyTest {
+
+    private static final String SOME_KEY = "some key";
+    private static final String OTHER_KEY = "other key";
+    private static final int NUMBER_OF_EQUAL_TASKS = 5;
+
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private final AtomicInteger mExecutions = new AtomicInteger();
+    private final Semaphore mRelease = new Semaphore(0);
+    private CoalescingPoolPolicy mPoolPolicy;
+    private Awex mAwex;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mPoolPolicy = new CoalescingPoolPolicy(new LinearWithRealTimePriorityPolicy(0, 2));
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(), mPoolPolicy);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldExecuteOnlyOnceEqualTasksSubmittedWhileInFlight() throws Exception {
+        List<Promise<String, Void>> promises = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_EQUAL_TASKS; i++) {
+            promises.add(mAwex.submit(new KeyedTask(SOME_KEY)));
+        }
+
+        mRelease.release(NUMBER_OF_EQUAL_TASKS);
+        for (Promise<String, Void> promise : promises) {
+            assertEquals(SOME_KEY, promise.getResult());
+        }
+
+        assertEquals(1, mExecutions.get());
+        assertEquals(NUMBER_OF_EQUAL_TASKS, mPoolPolicy.getSubmittedTasks());
+        assertEquals(NUMBER_OF_EQUAL_TASKS - 1, mPoolPolicy.getMergedTasks());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldNotMergeTasksWithDifferentKeys() throws Exception {
+        Promise<String, Void> somePromise = mAwex.submit(new KeyedTask(SOME_KEY));
+        Promise<String, Void> otherPromise = mAwex.submit(new KeyedTask(OTHER_KEY));
+
+        mRelease.release(2);
+
+        assertEquals(SOME_KEY, somePromise.getResult());
+        assertEquals(OTHER_KEY, otherPromise.getResult());
+        assertEquals(2, mExecutions.get());
+        assertEquals(0, mPoolPolicy.getMergedTasks());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldExecuteAgainEqualTaskSubmittedAfterTheFirstOneFinished() throws Exception {
+        mRelease.release(2);
+
+        assertEquals(SOME_KEY, mAwex.submit(new KeyedTask(SOME_KEY)).getResult());
+        assertEquals(SOME_KEY, mAwex.submit(new KeyedTask(SOME_KEY)).getResult());
+
+        assertEquals(2, mExecutions.get());
+        assertEquals(0, mPoolPolicy.getMergedTasks());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldCoalesceByTheTaskItselfWhenTheKeyIsNull() throws Exception {
+        Promise<String, Void> somePromise = mAwex.submit(new KeyedTask(null));
+        Promise<String, Void> otherPromise = mAwex.submit(new KeyedTask(null));
+
+        mRelease.release(2);
+
+        assertNull(somePromise.getResult());
+        assertNull(otherPromise.getResult());
+        assertEquals(2, mExecutions.get());
+        assertEquals(0, mPoolPolicy.getMergedTasks());
+    }
+
+    private class KeyedTask extends Task<String, Void> implements CoalescableTask {
+
+        private final String mKey;
+
+        public KeyedTask(String key) {
+            mKey = key;
+        }
+
+        @Override
+        public Object getCoalescingKey() {
+            return mKey;
+        }
+
+        @Override
+        protected String run() throws InterruptedException {
+            mExecutions.incrementAndGet();
+            mRelease.acquire();
+            return mKey;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.raycoarana.awex.policy;
+
+import com.raycoarana.awex.Awex;
+import com.raycoarana.awex.ConsoleLogger;
+import com.raycoarana.awex.Promise;
+import com.raycoarana.awex.Task;
+import com.raycoarana.awex.ThreadHelper;
+import com.raycoarana.awex.VoidTask;
+import com.raycoarana.awex.state.PoolState;
+import com.raycoarana.awex.state.QueueState;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.assertEquals;
+
+public class ElasticPoolPolicyTest {
+
+    private static final int CORE_THREADS = 1;
+    private static final int MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_MS = 50;
+
+    @Mock
+    private ThreadHelper mThreadHelper;
+
+    private volatile QueueState mQueueState;
+    private Awex mAwex;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mAwex = new Awex(mThreadHelper, new ConsoleLogger(),
+                new ElasticPoolPolicy(0, CORE_THREADS, MAX_THREADS, KEEP_ALIVE_MS) {
+                    @Override
+                    public void onTaskAdded(PoolState poolState, Task task) {
+                        mQueueState = poolState.getQueue(1);
+                        super.onTaskAdded(poolState, task);
+                    }
+                });
+    }
+
+    @Test(timeout = 5000)
+    public void shouldGrowUpToMaxAndShrinkBackToCoreWhenIdle() throws Exception {
+        final Semaphore release = new Semaphore(0);
+        final Semaphore started = new Semaphore(0);
+        List<Promise<Void, Void>> promises = new ArrayList<>();
+        for (int i = 0; i < MAX_THREADS * 2; i++) {
+            promises.add(mAwex.submit(new VoidTask() {
+                @Override
+                protected void runWithoutResult() throws InterruptedException {
+                    started.release();
+                    release.acquire();
+                }
+            }));
+        }
+
+        started.acquire(MAX_THREADS);
+        assertEquals(MAX_THREADS, mQueueState.numberOfWorkers());
+
+        release.release(MAX_THREADS * 2);
+        for (Promise<Void, Void> promise : promises) {
+            promise.getResult();
+        }
+
+        while (mQueueState.numberOfWorkers() > CORE_THREADS) {
+            Thread.sleep(10);
+        }
+        assertEquals(CORE_THREADS, mQueueState.numberOfWorkers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWhenCoreIsGreaterThanMax() {
+        new ElasticPoolPolicy(0, MAX_THREADS + 1, MAX_THREADS);
+    }
+
+}
@@ -19,6 +19,19 @@ public class ArrayMapTest {
         assertEquals(0, mArrayMap.size());
     }
 
+    @Test
+    @SuppressWarnings("RedundantStringConstructorCall")
+    public void shouldRemoveOnlyWhenMappedToTheSameValueInstance() {
+        mArrayMap = new ArrayMap<>(0);
+        String value = "TWO";
+        mArrayMap.put("ONE", value);
+
+        assertFalse(mArrayMap.remove("ONE", new String(value)));
+        assertEquals(1, mArrayMap.size());
+        assertTrue(mArrayMap.remove("ONE", value));
+        assertEquals(0, mArrayMap.size());
+    }
+
     @Test
     public void shouldContainsValue() {
         mArrayMap = new ArrayMap<>(0);
@@ -0,0 +1,90 @@
+package com.raycoarana.awex.util;
+
+import com.raycoarana.awex.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SyncHashMapTest {
+
+    private SyncHashMap<Object, Object> mSyncHashMap;
+
+    @Before
+    public void setUp() {
+        mSyncHashMap = new SyncHashMap<>();
+    }
+
+    @Test
+    public void shouldRemoveAnyExingingEntryWhenCrear() {
+        mSyncHashMap.put("ONE", "TWO");
+        assertEquals(1, mSyncHashMap.size());
+        mSyncHashMap.clear();
+        assertEquals(0, mSyncHashMap.size());
+    }
+
+    @Test
+    public void shouldRemoveOnlyWhenMappedToTheValue() {
+        mSyncHashMap.put("ONE", "TWO");
+
+        assertFalse(mSyncHashMap.remove("ONE", "THREE"));
+        assertEquals("TWO", mSyncHashMap.get("ONE"));
+        assertTrue(mSyncHashMap.remove("ONE", "TWO"));
+        assertFalse(mSyncHashMap.containsKey("ONE"));
+    }
+
+    @Test
+    public void shouldNotRemoveEntryMappedToAnEqualButDistinctTask() {
+        Task finishedTask = new EqualTask();
+        Task registeredTask = new EqualTask();
+        mSyncHashMap.put(registeredTask, registeredTask);
+
+        assertFalse(mSyncHashMap.remove(finishedTask, finishedTask));
+        assertSame(registeredTask, mSyncHashMap.get(finishedTask));
+        assertTrue(mSyncHashMap.remove(registeredTask, registeredTask));
+        assertFalse(mSyncHashMap.containsKey(registeredTask));
+    }
+
+    @Test
+    public void shouldIgnoreNullKeys() {
+        assertNull(mSyncHashMap.get(null));
+        assertNull(mSyncHashMap.remove(null));
+        assertFalse(mSyncHashMap.containsKey(null));
+    }
+
+    @Test
+    public void shouldCloneAllEntries() {
+        mSyncHashMap.put("ONE", "TWO");
+        mSyncHashMap.put("THREE", "FOUR");
+
+        ArrayMap<Object, Object> clone = mSyncHashMap.clone();
+
+        assertEquals(2, clone.size());
+        assertSame("TWO", clone.get("ONE"));
+        assertSame("FOUR", clone.get("THREE"));
+    }
+
+    private static class EqualTask extends Task<Void, Void> {
+
+        @Override
+        protected Void run() throws InterruptedException {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof EqualTask;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+}